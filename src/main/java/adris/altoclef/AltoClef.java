@@ -4,6 +4,7 @@ package adris.altoclef;
 import adris.altoclef.butler.Butler;
 import adris.altoclef.chains.*;
 import adris.altoclef.trackers.BlockScanner;
+import adris.altoclef.trackers.blacklisting.DecayingBlacklist;
 import adris.altoclef.commandsystem.CommandExecutor;
 import adris.altoclef.commandsystem.TabCompleter;
 import adris.altoclef.control.InputControls;
@@ -26,8 +27,11 @@ import adris.altoclef.ui.AltoClefTickChart;
 import adris.altoclef.ui.CommandStatusOverlay;
 import adris.altoclef.ui.MessagePriority;
 import adris.altoclef.ui.MessageSender;
+import adris.altoclef.util.DebugCounters;
+import adris.altoclef.util.RaycastCache;
 import adris.altoclef.util.helpers.InputHelper;
 import adris.altoclef.util.helpers.StorageHelper;
+import adris.altoclef.util.time.TimerWheel;
 import baritone.Baritone;
 import baritone.altoclef.AltoClefSettings;
 import baritone.api.BaritoneAPI;
@@ -67,10 +71,12 @@ public class AltoClef implements ModInitializer {
     private ItemStorageTracker storageTracker;
     private ContainerSubTracker containerSubTracker;
     private EntityTracker entityTracker;
+    private ThreatTracker threatTracker;
     private BlockScanner blockScanner;
     private SimpleChunkTracker chunkTracker;
     private MiscBlockTracker miscBlockTracker;
     private CraftingRecipeTracker craftingRecipeTracker;
+    private DecayingBlacklist blacklist;
     // Renderers
     private CommandStatusOverlay commandStatusOverlay;
     private AltoClefTickChart altoClefTickChart;
@@ -138,12 +144,15 @@ public class AltoClef implements ModInitializer {
         foodChain = new FoodChain(taskRunner);
 
         // Trackers
+        blacklist = new DecayingBlacklist();
         storageTracker = new ItemStorageTracker(this, trackerManager, container -> containerSubTracker = container);
         entityTracker = new EntityTracker(trackerManager);
+        threatTracker = new ThreatTracker(trackerManager);
         blockScanner = new BlockScanner(this);
         chunkTracker = new SimpleChunkTracker(this);
         miscBlockTracker = new MiscBlockTracker(this);
         craftingRecipeTracker = new CraftingRecipeTracker(trackerManager);
+        RaycastCache.init();
 
         // Renderers
         commandStatusOverlay = new CommandStatusOverlay();
@@ -210,8 +219,14 @@ public class AltoClef implements ModInitializer {
 
     // Client tick
     private void onClientTick() {
+        // Read the clocks for every timer, and fire what's due
+        TimerWheel.tick();
+
         runEnqueuedPostInits();
 
+        // Raycasts from last tick may be stale
+        RaycastCache.onTickStart();
+
         inputControls.onTickPre();
 
         // Cancel shortcut
@@ -230,6 +245,8 @@ public class AltoClef implements ModInitializer {
         messageSender.tick();
 
         inputControls.onTickPost();
+
+        DebugCounters.onTickEnd();
     }
 
     public void stopTasks() {
@@ -380,6 +397,13 @@ public class AltoClef implements ModInitializer {
         return entityTracker;
     }
 
+    /**
+     * Hostiles, creepers and projectiles that are a danger to us this tick
+     */
+    public ThreatTracker getThreatTracker() {
+        return threatTracker;
+    }
+
     /**
      * Manages a list of all available recipes
      */
@@ -408,6 +432,13 @@ public class AltoClef implements ModInitializer {
         return miscBlockTracker;
     }
 
+    /**
+     * Blocks and entities we failed to get to too many times, and should leave alone for a while
+     */
+    public DecayingBlacklist getBlacklist() {
+        return blacklist;
+    }
+
     /**
      * Baritone access (could just be static honestly)
      */
@@ -40,7 +40,8 @@ public class AltoClefCommands {
                 new FollowCommand(),
                 new ScanCommand(),
                 new GiveCommand(),
-                new StageSchematicCommand()
+                new StageSchematicCommand(),
+                new TraceCommand()
         );
     }
 }
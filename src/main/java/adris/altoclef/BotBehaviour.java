@@ -1,5 +1,6 @@
 package adris.altoclef;
 
+import adris.altoclef.util.BlockPosMask;
 import adris.altoclef.util.slots.Slot;
 import baritone.altoclef.AltoClefSettings;
 import baritone.api.Settings;
@@ -29,6 +30,7 @@ public class BotBehaviour {
 
     private final AltoClef mod;
     Deque<State> states = new ArrayDeque<>();
+    private int protectedItemsRevision = 0;
 
     public BotBehaviour(AltoClef mod) {
         this.mod = mod;
@@ -56,18 +58,18 @@ public class BotBehaviour {
      * @param allow True if the bot should escape lava
      */
     public void setEscapeLava(boolean allow) {
+        // Not applied anywhere else.
         current().escapeLava = allow;
-        current().applyState();
     }
 
     public void setFollowDistance(double distance) {
         current().followOffsetDistance = distance;
-        current().applyState();
+        mod.getClientBaritoneSettings().followOffsetDistance.value = distance;
     }
 
     public void setMineScanDroppedItems(boolean value) {
         current().mineScanDroppedItems = value;
-        current().applyState();
+        mod.getClientBaritoneSettings().mineScanDroppedItems.value = value;
     }
 
 
@@ -76,94 +78,158 @@ public class BotBehaviour {
     }
 
     public void setExclusivelyMineLogs(boolean value) {
+        // Not applied anywhere else.
         current().exclusivelyMineLogs = value;
-        current().applyState();
     }
 
     public boolean shouldExcludeFromForcefield(Entity entity) {
-        if (!current().excludeFromForceField.isEmpty()) {
-            for (Predicate<Entity> pred : current().excludeFromForceField) {
-                if (pred.test(entity)) return true;
-            }
+        for (Predicate<Entity> pred : current().excludeFromForceField) {
+            if (pred.test(entity)) return true;
         }
         return false;
     }
 
     public void addForceFieldExclusion(Predicate<Entity> pred) {
-        current().excludeFromForceField.add(pred);
+        State state = current();
+        state.excludeFromForceField = state.excludeFromForceField.with(pred);
         // Not needed, as excludeFromForceField isn't applied anywhere else.
-        // current.applyState();
     }
 
     public List<Pair<Slot, Predicate<ItemStack>>> getConversionSlots() {
-        return current().conversionSlots;
+        return current().conversionSlots.toList();
     }
 
     public void markSlotAsConversionSlot(Slot slot, Predicate<ItemStack> itemBelongsHere) {
-        current().conversionSlots.add(new Pair<>(slot, itemBelongsHere));
+        State state = current();
+        state.conversionSlots = state.conversionSlots.with(new Pair<>(slot, itemBelongsHere));
         // apply not needed
     }
 
     public void avoidBlockBreaking(BlockPos pos) {
-        current().blocksToAvoidBreaking.add(pos);
-        current().applyState();
+        AltoClefSettings sa = mod.getExtraBaritoneSettings();
+        synchronized (sa.getBreakMutex()) {
+            current().addTo(sa.getBlocksToAvoidBreaking(), pos, true);
+        }
     }
 
     public void avoidBlockBreaking(Predicate<BlockPos> pred) {
-        current().toAvoidBreaking.add(pred);
-        current().applyState();
+        AltoClefSettings sa = mod.getExtraBaritoneSettings();
+        synchronized (sa.getBreakMutex()) {
+            current().addTo(sa.getBreakAvoiders(), pred, false);
+        }
+    }
+
+    /**
+     * Avoid breaking anything in a box (inclusive). Boxes added to the same layer are compiled into one bitmask,
+     * so Baritone does a single bit test for all of them instead of calling a predicate per box.
+     */
+    public void avoidBlockBreaking(BlockPos corner1, BlockPos corner2) {
+        AltoClefSettings sa = mod.getExtraBaritoneSettings();
+        synchronized (sa.getBreakMutex()) {
+            State state = current();
+            if (state.breakMask == null) {
+                state.breakMask = new BlockPosMask();
+                state.addTo(sa.getBreakAvoiders(), state.breakMask, false);
+            }
+            state.breakMask.addAll(corner1, corner2);
+        }
+    }
+
+    /**
+     * Avoid placing anything in a box (inclusive). Compiled into one bitmask per layer, like
+     * {@link #avoidBlockBreaking(BlockPos, BlockPos)}.
+     */
+    public void avoidBlockPlacing(BlockPos corner1, BlockPos corner2) {
+        AltoClefSettings sa = mod.getExtraBaritoneSettings();
+        synchronized (sa.getPlaceMutex()) {
+            State state = current();
+            if (state.placeMask == null) {
+                state.placeMask = new BlockPosMask();
+                state.addTo(sa.getPlaceAvoiders(), state.placeMask, false);
+            }
+            state.placeMask.addAll(corner1, corner2);
+        }
     }
 
     public void avoidBlockPlacing(Predicate<BlockPos> pred) {
-        current().toAvoidPlacing.add(pred);
-        current().applyState();
+        AltoClefSettings sa = mod.getExtraBaritoneSettings();
+        synchronized (sa.getPlaceMutex()) {
+            current().addTo(sa.getPlaceAvoiders(), pred, false);
+        }
     }
 
     public void allowWalkingOn(Predicate<BlockPos> pred) {
-        current().allowWalking.add(pred);
-        current().applyState();
+        AltoClefSettings sa = mod.getExtraBaritoneSettings();
+        synchronized (sa.getPropertiesMutex()) {
+            current().addTo(sa.getForceWalkOnPredicates(), pred, false);
+        }
     }
 
     public void avoidWalkingThrough(Predicate<BlockPos> pred) {
-        current().avoidWalkingThrough.add(pred);
-        current().applyState();
+        AltoClefSettings sa = mod.getExtraBaritoneSettings();
+        synchronized (sa.getPropertiesMutex()) {
+            current().addTo(sa.getForceAvoidWalkThroughPredicates(), pred, false);
+        }
     }
 
 
     public void forceUseTool(BiPredicate<BlockState, ItemStack> pred) {
-        current().forceUseTools.add(pred);
-        current().applyState();
+        AltoClefSettings sa = mod.getExtraBaritoneSettings();
+        synchronized (sa.getPropertiesMutex()) {
+            current().addTo(sa.getForceUseToolPredicates(), pred, false);
+        }
     }
 
     public void setRayTracingFluidHandling(RaycastContext.FluidHandling fluidHandling) {
         current().rayFluidHandling = fluidHandling;
         //Debug.logMessage("OOF: " + fluidHandling);
-        current().applyState();
+        RayTraceUtils.fluidHandling = fluidHandling;
     }
 
     public void setAllowWalkThroughFlowingWater(boolean value) {
         current()._allowWalkThroughFlowingWater = value;
-        current().applyState();
+        mod.getExtraBaritoneSettings().setFlowingWaterPass(value);
     }
 
     public void setPauseOnLostFocus(boolean pauseOnLostFocus) {
         current().pauseOnLostFocus = pauseOnLostFocus;
-        current().applyState();
+        MinecraftClient.getInstance().options.pauseOnLostFocus = pauseOnLostFocus;
     }
 
     public void addProtectedItems(Item... items) {
-        Collections.addAll(current().protectedItems, items);
-        current().applyState();
+        AltoClefSettings sa = mod.getExtraBaritoneSettings();
+        synchronized (sa.getBreakMutex()) {
+            synchronized (sa.getPlaceMutex()) {
+                for (Item item : items) {
+                    current().addTo(sa.getProtectedItems(), item, true);
+                }
+            }
+        }
+        protectedItemsRevision++;
     }
 
     public void removeProtectedItems(Item... items) {
-        current().protectedItems.removeAll(Arrays.asList(items));
-        current().applyState();
+        AltoClefSettings sa = mod.getExtraBaritoneSettings();
+        synchronized (sa.getBreakMutex()) {
+            synchronized (sa.getPlaceMutex()) {
+                for (Item item : items) {
+                    current().removeFrom(sa.getProtectedItems(), item);
+                }
+            }
+        }
+        protectedItemsRevision++;
+    }
+
+    /**
+     * Changes whenever the protected items might have changed (including when a layer is popped).
+     */
+    public int getProtectedItemsRevision() {
+        return protectedItemsRevision;
     }
 
     public boolean isProtected(Item item) {
-        // For now nothing is protected.
-        return current().protectedItems.contains(item);
+        // Only ever modified from the client thread, same as here.
+        return mod.getExtraBaritoneSettings().getProtectedItems().contains(item);
     }
 
     public boolean shouldForceFieldPlayers() {
@@ -173,60 +239,61 @@ public class BotBehaviour {
     public void setForceFieldPlayers(boolean forceFieldPlayers) {
         current().forceFieldPlayers = forceFieldPlayers;
         // Not needed, nothing changes.
-        // current.applyState()
     }
 
     public void allowSwimThroughLava(boolean allow) {
         current().swimThroughLava = allow;
-        current().applyState();
+        mod.getExtraBaritoneSettings().allowSwimThroughLava(allow);
     }
 
     public void setPreferredStairs(boolean allow) {
         //current().preferredStairs = allow;
-        current().applyState();
     }
 
     public void setAllowDiagonalAscend(boolean allow) {
         current().allowDiagonalAscend = allow;
-        current().applyState();
+        mod.getClientBaritoneSettings().allowDiagonalAscend.value = allow;
     }
 
     public void setBlockPlacePenalty(double penalty) {
         current().blockPlacePenalty = penalty;
-        current().applyState();
+        mod.getClientBaritoneSettings().blockPlacementPenalty.value = penalty;
     }
 
     public void setBlockBreakAdditionalPenalty(double penalty) {
         current().blockBreakAdditionalPenalty = penalty;
-        current().applyState();
+        mod.getClientBaritoneSettings().blockBreakAdditionalPenalty.value = penalty;
     }
 
     public void avoidDodgingProjectile(Predicate<Entity> whenToDodge) {
-        current().avoidDodgingProjectile.add(whenToDodge);
+        State state = current();
+        state.avoidDodgingProjectile = state.avoidDodgingProjectile.with(whenToDodge);
         // Not needed, nothing changes.
-        // current().applyState();
     }
 
     public void addGlobalHeuristic(BiFunction<Double, BlockPos, Double> heuristic) {
-        current().globalHeuristics.add(heuristic);
-        current().applyState();
+        AltoClefSettings sa = mod.getExtraBaritoneSettings();
+        synchronized (sa.getGlobalHeuristicMutex()) {
+            current().addTo(sa.getGlobalHeuristics(), heuristic, false);
+        }
     }
 
     public boolean shouldAvoidDodgingProjectile(Entity entity) {
-        if (!current().avoidDodgingProjectile.isEmpty()) {
-            for (Predicate<Entity> test : current().avoidDodgingProjectile) {
-                if (test.test(entity)) return true;
-            }
+        for (Predicate<Entity> test : current().avoidDodgingProjectile) {
+            if (test.test(entity)) return true;
         }
         return false;
     }
 
     /// Stack management
+
+    /**
+     * Start a new layer of behaviour. This is O(1): nothing is copied, the new layer only records what it changes.
+     */
     public void push() {
         if (states.isEmpty()) {
-            states.push(new State());
+            states.push(new State(null));
         } else {
-            // Make copy and push that
             states.push(new State(current()));
         }
     }
@@ -235,6 +302,9 @@ public class BotBehaviour {
         states.push(customState);
     }
 
+    /**
+     * Drop the current layer, undoing only what it changed.
+     */
     public State pop() {
         if (states.isEmpty()) {
             Debug.logError("State stack is empty. This shouldn't be happening.");
@@ -245,7 +315,9 @@ public class BotBehaviour {
             Debug.logError("State stack is empty after pop. This shouldn't be happening.");
             return null;
         }
-        states.peek().applyState();
+        popped.undoChanges();
+        states.peek().applyChangedFields(popped);
+        protectedItemsRevision++;
         return popped;
     }
 
@@ -257,10 +329,72 @@ public class BotBehaviour {
         return states.peek();
     }
 
+    /**
+     * An immutable singly linked list, so a pushed state can share its parent's entries without copying them.
+     */
+    private static final class SharedList<T> implements Iterable<T> {
+        private static final SharedList<?> EMPTY = new SharedList<>(null, null);
+
+        private final T head;
+        private final SharedList<T> tail;
+
+        private SharedList(T head, SharedList<T> tail) {
+            this.head = head;
+            this.tail = tail;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> SharedList<T> empty() {
+            return (SharedList<T>) EMPTY;
+        }
+
+        SharedList<T> with(T value) {
+            return new SharedList<>(value, this);
+        }
+
+        List<T> toList() {
+            List<T> result = new ArrayList<>();
+            for (T value : this) {
+                result.add(value);
+            }
+            // Oldest first, like the lists this replaces
+            Collections.reverse(result);
+            return result;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<>() {
+                private SharedList<T> node = SharedList.this;
+
+                @Override
+                public boolean hasNext() {
+                    return node.tail != null;
+                }
+
+                @Override
+                public T next() {
+                    if (node.tail == null) throw new NoSuchElementException();
+                    T value = node.head;
+                    node = node.tail;
+                    return value;
+                }
+            };
+        }
+    }
+
+    /**
+     * One layer of behaviour.
+     * <p>
+     * Collections that live in Baritone (avoiders, protected items, heuristics...) are edited in place, and the layer
+     * keeps an undo log of exactly what it added or removed. Popping replays that log backwards, so anything the layer
+     * below (or code outside of BotBehaviour) put there is left alone.
+     * <p>
+     * Plain values are snapshotted on push (a handful of field reads) and only written back on pop if they differ.
+     */
     private class State {
         /// Baritone Params
         public double followOffsetDistance;
-        public HashSet<Item> protectedItems = new HashSet<>();
         public boolean mineScanDroppedItems;
         public boolean swimThroughLava;
         public boolean allowDiagonalAscend;
@@ -271,19 +405,16 @@ public class BotBehaviour {
         // Alto Clef params
         public boolean exclusivelyMineLogs;
         public boolean forceFieldPlayers;
-        public List<Predicate<Entity>> avoidDodgingProjectile = new ArrayList<>();
-        public List<Predicate<Entity>> excludeFromForceField = new ArrayList<>();
-        public List<Pair<Slot, Predicate<ItemStack>>> conversionSlots = new ArrayList<>();
+        public SharedList<Predicate<Entity>> avoidDodgingProjectile = SharedList.empty();
+        public SharedList<Predicate<Entity>> excludeFromForceField = SharedList.empty();
+        public SharedList<Pair<Slot, Predicate<ItemStack>>> conversionSlots = SharedList.empty();
 
         // Extra Baritone Settings
-        public HashSet<BlockPos> blocksToAvoidBreaking = new HashSet<>();
-        public List<Predicate<BlockPos>> toAvoidBreaking = new ArrayList<>();
-        public List<Predicate<BlockPos>> toAvoidPlacing = new ArrayList<>();
-        public List<Predicate<BlockPos>> allowWalking = new ArrayList<>();
-        public List<Predicate<BlockPos>> avoidWalkingThrough = new ArrayList<>();
-        public List<BiPredicate<BlockState, ItemStack>> forceUseTools = new ArrayList<>();
-        public List<BiFunction<Double, BlockPos, Double>> globalHeuristics = new ArrayList<>();
         public boolean _allowWalkThroughFlowingWater = false;
+        // Box rules added to this layer, compiled into a single avoider each. Not shared with child layers,
+        // they're installed in Baritone until this layer is popped.
+        public BlockPosMask breakMask = null;
+        public BlockPosMask placeMask = null;
 
         // Minecraft config
         public boolean pauseOnLostFocus = true;
@@ -294,11 +425,10 @@ public class BotBehaviour {
         // Other necessary stuff
         public boolean escapeLava = true;
 
-        public State() {
-            this(null);
-        }
+        // Undo log for the Baritone collections this layer touched, in the order they happened.
+        private List<Runnable> undo = null;
 
-        public State(State toCopy) {
+        public State(State parent) {
             // Read in current state
             readState(mod.getClientBaritoneSettings());
 
@@ -306,22 +436,68 @@ public class BotBehaviour {
 
             readMinecraftState();
 
-            if (toCopy != null) {
-                // Copy over stuff from old one
-                exclusivelyMineLogs = toCopy.exclusivelyMineLogs;
-                avoidDodgingProjectile.addAll(toCopy.avoidDodgingProjectile);
-                excludeFromForceField.addAll(toCopy.excludeFromForceField);
-                conversionSlots.addAll(toCopy.conversionSlots);
-                forceFieldPlayers = toCopy.forceFieldPlayers;
-                escapeLava = toCopy.escapeLava;
+            if (parent != null) {
+                // Share stuff from the old one
+                exclusivelyMineLogs = parent.exclusivelyMineLogs;
+                avoidDodgingProjectile = parent.avoidDodgingProjectile;
+                excludeFromForceField = parent.excludeFromForceField;
+                conversionSlots = parent.conversionSlots;
+                forceFieldPlayers = parent.forceFieldPlayers;
+                escapeLava = parent.escapeLava;
+            }
+        }
+
+        /**
+         * Add to one of Baritone's collections, remembering to take it back out when this layer is popped.
+         * The caller should hold the mutex guarding the collection.
+         *
+         * @param unique If set, nothing is added (or undone later) when the collection already has this value.
+         */
+        <T> void addTo(Collection<T> collection, T value, boolean unique) {
+            if (unique && collection.contains(value)) {
+                return;
+            }
+            collection.add(value);
+            recordUndo(() -> collection.remove(value));
+        }
+
+        /**
+         * Remove from one of Baritone's collections, remembering to put it back when this layer is popped.
+         * The caller should hold the mutex guarding the collection.
+         */
+        <T> void removeFrom(Collection<T> collection, T value) {
+            if (collection.remove(value)) {
+                recordUndo(() -> collection.add(value));
+            }
+        }
+
+        private void recordUndo(Runnable action) {
+            if (undo == null) {
+                undo = new ArrayList<>();
             }
+            undo.add(action);
         }
 
         /**
-         * Make the current state match our copy
+         * Revert every collection change made through this layer
          */
-        public void applyState() {
-            applyState(mod.getClientBaritoneSettings(), mod.getExtraBaritoneSettings());
+        private void undoChanges() {
+            if (undo == null) {
+                return;
+            }
+            AltoClefSettings sa = mod.getExtraBaritoneSettings();
+            synchronized (sa.getBreakMutex()) {
+                synchronized (sa.getPlaceMutex()) {
+                    synchronized (sa.getPropertiesMutex()) {
+                        synchronized (sa.getGlobalHeuristicMutex()) {
+                            for (int i = undo.size() - 1; i >= 0; --i) {
+                                undo.get(i).run();
+                            }
+                        }
+                    }
+                }
+            }
+            undo = null;
         }
 
         /**
@@ -338,22 +514,6 @@ public class BotBehaviour {
         }
 
         private void readExtraState(AltoClefSettings settings) {
-            synchronized (settings.getBreakMutex()) {
-                synchronized (settings.getPlaceMutex()) {
-                    blocksToAvoidBreaking = new HashSet<>(settings.getBlocksToAvoidBreaking());
-                    toAvoidBreaking = new ArrayList<>(settings.getBreakAvoiders());
-                    toAvoidPlacing = new ArrayList<>(settings.getPlaceAvoiders());
-                    protectedItems = new HashSet<>(settings.getProtectedItems());
-                    synchronized (settings.getPropertiesMutex()) {
-                        allowWalking = new ArrayList<>(settings.getForceWalkOnPredicates());
-                        avoidWalkingThrough = new ArrayList<>(settings.getForceAvoidWalkThroughPredicates());
-                        forceUseTools = new ArrayList<>(settings.getForceUseToolPredicates());
-                    }
-                }
-            }
-            synchronized (settings.getGlobalHeuristicMutex()) {
-                globalHeuristics = new ArrayList<>(settings.getGlobalHeuristics());
-            }
             _allowWalkThroughFlowingWater = settings.isFlowingWaterPassAllowed();
 
             rayFluidHandling = RayTraceUtils.fluidHandling;
@@ -364,53 +524,48 @@ public class BotBehaviour {
         }
 
         /**
-         * Make the current state match our copy
+         * Make the current settings match our values, only touching the ones that differ
+         *
+         * @param popped The layer that was just removed from above us
          */
-        private void applyState(Settings s, AltoClefSettings sa) {
-            s.followOffsetDistance.value = followOffsetDistance;
-            s.mineScanDroppedItems.value = mineScanDroppedItems;
-            s.allowDiagonalAscend.value = allowDiagonalAscend;
-            s.blockPlacementPenalty.value = blockPlacePenalty;
-            s.blockBreakAdditionalPenalty.value = blockBreakAdditionalPenalty;
+        private void applyChangedFields(State popped) {
+            Settings s = mod.getClientBaritoneSettings();
+            AltoClefSettings sa = mod.getExtraBaritoneSettings();
+            if (s.followOffsetDistance.value != followOffsetDistance) {
+                s.followOffsetDistance.value = followOffsetDistance;
+            }
+            if (s.mineScanDroppedItems.value != mineScanDroppedItems) {
+                s.mineScanDroppedItems.value = mineScanDroppedItems;
+            }
+            if (s.allowDiagonalAscend.value != allowDiagonalAscend) {
+                s.allowDiagonalAscend.value = allowDiagonalAscend;
+            }
+            if (s.blockPlacementPenalty.value != blockPlacePenalty) {
+                s.blockPlacementPenalty.value = blockPlacePenalty;
+            }
+            if (s.blockBreakAdditionalPenalty.value != blockBreakAdditionalPenalty) {
+                s.blockBreakAdditionalPenalty.value = blockBreakAdditionalPenalty;
+            }
 
             // We need an alternrative method to handle this, this method makes navigation much less reliable.
             //s.allowDownward.value = preferredStairs;
 
-            // Kinda jank but it works.
-            synchronized (sa.getBreakMutex()) {
-                synchronized (sa.getPlaceMutex()) {
-                    sa.getBreakAvoiders().clear();
-                    sa.getBreakAvoiders().addAll(toAvoidBreaking);
-                    sa.getBlocksToAvoidBreaking().clear();
-                    sa.getBlocksToAvoidBreaking().addAll(blocksToAvoidBreaking);
-                    sa.getPlaceAvoiders().clear();
-                    sa.getPlaceAvoiders().addAll(toAvoidPlacing);
-                    sa.getProtectedItems().clear();
-                    sa.getProtectedItems().addAll(protectedItems);
-                    synchronized (sa.getPropertiesMutex()) {
-                        sa.getForceWalkOnPredicates().clear();
-                        sa.getForceWalkOnPredicates().addAll(allowWalking);
-                        sa.getForceAvoidWalkThroughPredicates().clear();
-                        sa.getForceAvoidWalkThroughPredicates().addAll(avoidWalkingThrough);
-                        sa.getForceUseToolPredicates().clear();
-                        sa.getForceUseToolPredicates().addAll(forceUseTools);
-                    }
-                }
+            if (sa.isFlowingWaterPassAllowed() != _allowWalkThroughFlowingWater) {
+                sa.setFlowingWaterPass(_allowWalkThroughFlowingWater);
             }
-            synchronized (sa.getGlobalHeuristicMutex()) {
-                sa.getGlobalHeuristics().clear();
-                sa.getGlobalHeuristics().addAll(globalHeuristics);
+            if (popped.swimThroughLava != swimThroughLava) {
+                sa.allowSwimThroughLava(swimThroughLava);
             }
 
-
-            sa.setFlowingWaterPass(_allowWalkThroughFlowingWater);
-            sa.allowSwimThroughLava(swimThroughLava);
-
             // Extra / hard coded
-            RayTraceUtils.fluidHandling = rayFluidHandling;
+            if (RayTraceUtils.fluidHandling != rayFluidHandling) {
+                RayTraceUtils.fluidHandling = rayFluidHandling;
+            }
 
             // Minecraft
-            MinecraftClient.getInstance().options.pauseOnLostFocus = pauseOnLostFocus;
+            if (MinecraftClient.getInstance().options.pauseOnLostFocus != pauseOnLostFocus) {
+                MinecraftClient.getInstance().options.pauseOnLostFocus = pauseOnLostFocus;
+            }
         }
     }
 }
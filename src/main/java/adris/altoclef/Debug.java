@@ -3,6 +3,8 @@ package adris.altoclef;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.text.Text;
 
+import java.util.function.Supplier;
+
 // TODO: Debug library or use Minecraft's built in debugger
 public class Debug {
 
@@ -10,14 +12,53 @@ public class Debug {
     private static final int WARN_LOG_LEVEL = 1;
     private static final int ERROR_LOG_LEVEL = 2;
 
+    /**
+     * What an internal log is about. Each can be given its own log level in the settings (see `logCategoryLevels`).
+     */
+    public enum Category {
+        GENERAL,
+        // Tasks starting/stopping and their debug state
+        TASKS
+    }
+
+    /**
+     * Whether internal (debug) logs of a category would be written. Check this before building expensive messages,
+     * or use one of the lazy {@link #logInternal(Category, Supplier)} overloads.
+     */
+    public static boolean isLoggingInternal(Category category) {
+        return canLog(category, DEBUG_LOG_LEVEL);
+    }
+
     public static void logInternal(String message) {
-        if (canLog(DEBUG_LOG_LEVEL)) {
-            System.out.println("ALTO CLEF: " + message);
-        }
+        logInternal(Category.GENERAL, message);
     }
 
     public static void logInternal(String format, Object... args) {
-        logInternal(String.format(format, args));
+        logInternal(Category.GENERAL, format, args);
+    }
+
+    public static void logInternal(Category category, String message) {
+        if (canLog(category, DEBUG_LOG_LEVEL)) {
+            DebugLogSink.submit("ALTO CLEF: " + message, true);
+        }
+    }
+
+    /**
+     * Only formats the message if it would be logged.
+     */
+    public static void logInternal(Category category, String format, Object... args) {
+        if (canLog(category, DEBUG_LOG_LEVEL)) {
+            DebugLogSink.submit("ALTO CLEF: " + String.format(format, args), true);
+        }
+    }
+
+    /**
+     * Only builds the message if it would be logged.
+     */
+    public static void logInternal(Category category, Supplier<String> message) {
+        if (canLog(category, DEBUG_LOG_LEVEL)) {
+            DebugLogSink.submit("ALTO CLEF: " + message.get(), true);
+        }
     }
 
     private static String getLogPrefix() {
@@ -49,8 +90,9 @@ public class Debug {
     }
 
     public static void logWarning(String message) {
-        if (canLog(WARN_LOG_LEVEL)) {
+        if (canLog(Category.GENERAL, WARN_LOG_LEVEL)) {
             System.out.println("ALTO CLEF: WARNING: " + message);
+            DebugLogSink.submit("ALTO CLEF: WARNING: " + message, false);
         }
 
         AltoClef altoClef = AltoClef.getInstance();
@@ -70,10 +112,11 @@ public class Debug {
     public static void logError(String message) {
         String stacktrace = getStack(2);
 
-        if (canLog(ERROR_LOG_LEVEL)) {
+        if (canLog(Category.GENERAL, ERROR_LOG_LEVEL)) {
             System.err.println(message);
             System.err.println("at:");
             System.err.println(stacktrace);
+            DebugLogSink.submit("ALTO CLEF: ERROR: " + message + "\nat:\n" + stacktrace, false);
         }
 
         if (MinecraftClient.getInstance() != null && MinecraftClient.getInstance().player != null) {
@@ -87,7 +130,9 @@ public class Debug {
     }
 
     public static void logStack() {
-        logInternal("STACKTRACE: \n" + getStack(2));
+        if (canLog(Category.GENERAL, DEBUG_LOG_LEVEL)) {
+            logInternal("STACKTRACE: \n" + getStack(2));
+        }
     }
 
     private static String getStack(int toSkip) {
@@ -100,10 +145,10 @@ public class Debug {
         return stacktrace.toString();
     }
 
-    private static boolean canLog(int level) {
+    private static boolean canLog(Category category, int level) {
         if (AltoClef.getInstance() == null || AltoClef.getInstance().getModSettings() == null) return true;
 
-        String enabledLogLevel = AltoClef.getInstance().getModSettings().getLogLevel();
+        String enabledLogLevel = AltoClef.getInstance().getModSettings().getLogLevel(category);
 
         return switch (enabledLogLevel) {
             case "NONE" -> false;
@@ -0,0 +1,184 @@
+package adris.altoclef;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+/**
+ * Writes log lines from a background thread, so logging never blocks the client thread on console or disk IO.
+ * <p>
+ * Lines go into a fixed size ring buffer. If the writer falls behind, the oldest lines are dropped (and the number
+ * dropped is logged) rather than growing without limit. Lines are printed to the console and, if enabled in the
+ * settings, appended to {@code altoclef/logs/debug.log}, which rolls over to {@code debug.log.1}... when it gets big.
+ * Whatever is still queued when the game closes gets written out by a shutdown hook.
+ */
+class DebugLogSink {
+
+    private static final int CAPACITY = 4096;
+    private static final long MAX_FILE_BYTES = 4 * 1024 * 1024;
+    private static final int KEPT_FILES = 3;
+    private static final File LOG_FILE = Paths.get("altoclef", "logs", "debug.log").toFile();
+    private static final int NEWLINE_BYTES = System.lineSeparator().getBytes(StandardCharsets.UTF_8).length;
+
+    private static final String[] lines = new String[CAPACITY];
+    private static final boolean[] printLines = new boolean[CAPACITY];
+    private static int head = 0;
+    private static int size = 0;
+    private static long dropped = 0;
+
+    // Held while writing a batch, so the shutdown hook and the writer thread don't interleave
+    private static final Object writeLock = new Object();
+    private static final String[] batch = new String[CAPACITY];
+    private static final boolean[] batchPrint = new boolean[CAPACITY];
+
+    private static Thread writerThread = null;
+    private static BufferedWriter fileWriter = null;
+    private static long fileBytes = 0;
+
+    /**
+     * @param print If false, only write the line to the log file (ex. it was already printed elsewhere)
+     */
+    static void submit(String line, boolean print) {
+        synchronized (lines) {
+            if (size == CAPACITY) {
+                // Drop the oldest
+                head = (head + 1) % CAPACITY;
+                size--;
+                dropped++;
+            }
+            int index = (head + size) % CAPACITY;
+            lines[index] = line;
+            printLines[index] = print;
+            size++;
+            if (writerThread == null) {
+                writerThread = new Thread(DebugLogSink::run, "Alto Clef log writer");
+                writerThread.setDaemon(true);
+                writerThread.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(DebugLogSink::shutdown, "Alto Clef log flush"));
+            }
+            lines.notify();
+        }
+    }
+
+    private static void run() {
+        while (true) {
+            synchronized (lines) {
+                while (size == 0) {
+                    try {
+                        lines.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+            drain();
+        }
+    }
+
+    private static void shutdown() {
+        synchronized (writeLock) {
+            drain();
+            closeFile();
+        }
+    }
+
+    /**
+     * Write out everything queued so far.
+     */
+    private static void drain() {
+        synchronized (writeLock) {
+            int count;
+            long droppedCount;
+            synchronized (lines) {
+                count = size;
+                for (int i = 0; i < count; ++i) {
+                    int index = (head + i) % CAPACITY;
+                    batch[i] = lines[index];
+                    batchPrint[i] = printLines[index];
+                    lines[index] = null;
+                }
+                head = (head + count) % CAPACITY;
+                size = 0;
+                droppedCount = dropped;
+                dropped = 0;
+            }
+            if (droppedCount != 0) {
+                write("ALTO CLEF: (log writer fell behind, dropped " + droppedCount + " lines)", true);
+            }
+            for (int i = 0; i < count; ++i) {
+                write(batch[i], batchPrint[i]);
+                batch[i] = null;
+            }
+            flushFile();
+        }
+    }
+
+    private static void write(String line, boolean print) {
+        if (print) {
+            System.out.println(line);
+        }
+        if (!shouldWriteFile()) {
+            closeFile();
+            return;
+        }
+        try {
+            if (fileWriter == null || fileBytes > MAX_FILE_BYTES) {
+                openFile(fileWriter != null);
+            }
+            fileWriter.write(line);
+            fileWriter.newLine();
+            fileBytes += line.getBytes(StandardCharsets.UTF_8).length + NEWLINE_BYTES;
+        } catch (IOException e) {
+            System.err.println("ALTO CLEF: Failed to write to log file: " + e.getMessage());
+            closeFile();
+        }
+    }
+
+    private static boolean shouldWriteFile() {
+        AltoClef altoClef = AltoClef.getInstance();
+        return altoClef != null && altoClef.getModSettings() != null && altoClef.getModSettings().shouldLogToFile();
+    }
+
+    private static void openFile(boolean roll) throws IOException {
+        closeFile();
+        File folder = LOG_FILE.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Could not create " + folder);
+        }
+        if (roll) {
+            // debug.log -> debug.log.1 -> debug.log.2 ...
+            new File(LOG_FILE.getPath() + "." + KEPT_FILES).delete();
+            for (int i = KEPT_FILES - 1; i >= 1; --i) {
+                File from = new File(LOG_FILE.getPath() + "." + i);
+                if (from.exists()) {
+                    from.renameTo(new File(LOG_FILE.getPath() + "." + (i + 1)));
+                }
+            }
+            LOG_FILE.renameTo(new File(LOG_FILE.getPath() + ".1"));
+        }
+        fileBytes = LOG_FILE.exists() ? LOG_FILE.length() : 0;
+        fileWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(LOG_FILE, true), StandardCharsets.UTF_8));
+    }
+
+    private static void flushFile() {
+        if (fileWriter == null) return;
+        try {
+            fileWriter.flush();
+        } catch (IOException e) {
+            closeFile();
+        }
+    }
+
+    private static void closeFile() {
+        if (fileWriter == null) return;
+        try {
+            fileWriter.close();
+        } catch (IOException ignored) {
+        }
+        fileWriter = null;
+    }
+}
@@ -180,9 +180,7 @@ public class Playground {
                 break;
             case "avoid":
                 // Test block break predicate
-                mod.getBehaviour().avoidBlockBreaking((BlockPos b) -> (-1000 < b.getX() && b.getX() < 1000)
-                        && (-1000 < b.getY() && b.getY() < 1000)
-                        && (-1000 < b.getZ() && b.getZ() < 1000));
+                mod.getBehaviour().avoidBlockBreaking(new BlockPos(-999, -999, -999), new BlockPos(999, 999, 999));
                 Debug.logMessage("Testing avoid from -1000, -1000, -1000 to 1000, 1000, 1000");
                 break;
             case "portal":
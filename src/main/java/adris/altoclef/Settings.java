@@ -4,6 +4,7 @@ import adris.altoclef.control.KillAura;
 import adris.altoclef.multiversion.versionedfields.Items;
 import adris.altoclef.tasks.movement.DefaultGoToDimensionTask;
 import adris.altoclef.util.BlockRange;
+import adris.altoclef.util.BlockRangeIndex;
 import adris.altoclef.util.helpers.ConfigHelper;
 import adris.altoclef.util.helpers.ItemHelper;
 import adris.altoclef.util.serialization.IFailableConfigFile;
@@ -20,6 +21,7 @@ import net.minecraft.util.math.BlockPos;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
@@ -41,6 +43,11 @@ public class Settings implements IFailableConfigFile {
     @JsonIgnore
     private transient boolean failedToLoad = false;
 
+    // Internal only.
+    // Built from areasToProtect the first time it's needed. Baritone checks it for every node, so don't scan the list.
+    @JsonIgnore
+    private transient volatile BlockRangeIndex protectedAreaIndex = null;
+
     //////////////////////////////////////////////////////////////////////////////////////////
     ////////** BEGIN SETTINGS w/ COMMENTS **//////////////////////////////////////////////////
     //////////////////////////////////////////////////////////////////////////////////////////
@@ -82,6 +89,17 @@ public class Settings implements IFailableConfigFile {
      */
     private String logLevel = "NORMAL";
 
+    /**
+     * Overrides `logLevel` for some kinds of logs, ex. {"TASKS": "NONE"} to hide tasks starting and stopping while
+     * keeping other debug logs. Kinds: GENERAL, TASKS
+     */
+    private HashMap<String, String> logCategoryLevels = new HashMap<>();
+
+    /**
+     * If true, logs are also written to altoclef/logs/debug.log (older logs are kept as debug.log.1, .2 and .3)
+     */
+    private boolean logToFile = false;
+
     /**
      * When logging to chat, will prepend this to each log.
      */
@@ -467,6 +485,14 @@ public class Settings implements IFailableConfigFile {
         return logLevel;
     }
 
+    public String getLogLevel(Debug.Category category) {
+        return logCategoryLevels.getOrDefault(category.name(), logLevel);
+    }
+
+    public boolean shouldLogToFile() {
+        return logToFile;
+    }
+
     public String getCommandPrefix() {
         return commandPrefix;
     }
@@ -630,12 +656,13 @@ public class Settings implements IFailableConfigFile {
     }
 
     public boolean isPositionExplicitlyProtected(BlockPos pos) {
-        if (!areasToProtect.isEmpty()) {
-            for (BlockRange protection : areasToProtect) {
-                if (protection.contains(pos)) return true;
-            }
+        BlockRangeIndex index = protectedAreaIndex;
+        if (index == null) {
+            // Building twice from two threads is harmless, the result is the same.
+            index = new BlockRangeIndex(areasToProtect);
+            protectedAreaIndex = index;
         }
-        return false;
+        return index.contains(pos);
     }
 
     public DefaultGoToDimensionTask.OVERWORLD_TO_NETHER_BEHAVIOUR getOverworldToNetherBehaviour() {
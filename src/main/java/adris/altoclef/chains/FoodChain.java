@@ -2,26 +2,23 @@ package adris.altoclef.chains;
 
 import adris.altoclef.AltoClef;
 import adris.altoclef.Settings;
-import adris.altoclef.multiversion.FoodComponentWrapper;
-import adris.altoclef.multiversion.item.ItemVer;
 import adris.altoclef.tasks.resources.CollectFoodTask;
 import adris.altoclef.tasks.speedrun.DragonBreathTracker;
 import adris.altoclef.tasksystem.TaskRunner;
+import adris.altoclef.util.FoodTable;
+import adris.altoclef.util.InventoryMemo;
 import adris.altoclef.util.helpers.*;
 import adris.altoclef.util.slots.PlayerSlot;
 import baritone.api.utils.input.Input;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayerEntity;
-import net.minecraft.entity.Entity;
 import net.minecraft.entity.effect.StatusEffects;
-import net.minecraft.entity.mob.HostileEntity;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
 import net.minecraft.util.Pair;
 import net.minecraft.util.math.BlockPos;
 
-import java.util.Objects;
 import java.util.Optional;
 
 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
@@ -41,6 +38,8 @@ public class FoodChain extends SingleTaskChain {
     private boolean needsFood = false;
     private Optional<Item> cachedPerfectFood = Optional.empty();
     private boolean shouldStop = false;
+    // Food scoring only changes when the inventory, hunger, saturation or health bucket does.
+    private final InventoryMemo<Pair<Integer, Optional<Item>>> foodMemo = new InventoryMemo<>(() -> calculateFood(AltoClef.getInstance()));
 
     public FoodChain(TaskRunner runner) {
         super(runner);
@@ -140,7 +139,7 @@ public class FoodChain extends SingleTaskChain {
             stopEat();
             return Float.NEGATIVE_INFINITY;
         }
-        Pair<Integer, Optional<Item>> calculation = calculateFood(mod);
+        Pair<Integer, Optional<Item>> calculation = foodMemo.get(getFoodKey(mod));
         int cachedFoodScore = calculation.getLeft();
         cachedPerfectFood = calculation.getRight();
         hasFood = cachedFoodScore > 0;
@@ -188,13 +187,7 @@ public class FoodChain extends SingleTaskChain {
     }
 
     private boolean areEnemiesNearby(AltoClef mod) {
-        for (Entity entity : mod.getEntityTracker().getCloseEntities()) {
-            if (entity instanceof HostileEntity hostile && hostile.distanceTo(mod.getPlayer()) < (isTryingToEat?14:7)) {
-                return true;
-            }
-        }
-
-        return false;
+        return mod.getThreatTracker().isCloseHostileWithin(isTryingToEat ? 14 : 7);
     }
 
     @Override
@@ -256,13 +249,22 @@ public class FoodChain extends SingleTaskChain {
             int need = 20 - foodLevel;
             Item best = cachedPerfectFood.get();
 
-            int fills = (ItemVer.getFoodComponent(best) != null) ? ItemVer.getFoodComponent(best).getHunger() : -1;
-            return fills == need;
+            return FoodTable.getHunger(best) == need;
         }
 
         return false;
     }
 
+    // Everything calculateFood reads that isn't the inventory
+    private static long getFoodKey(AltoClef mod) {
+        ClientPlayerEntity player = mod.getPlayer();
+        if (player == null) return -1;
+        long hunger = player.getHungerManager().getFoodLevel();
+        long saturation = Float.floatToIntBits(player.getHungerManager().getSaturationLevel()) & 0xFFFFFFFFL;
+        long prioritizeSaturation = player.getHealth() < config.prioritizeSaturationWhenBelowHealth ? 1 : 0;
+        return (saturation << 32) | (hunger << 1) | prioritizeSaturation;
+    }
+
     private Pair<Integer, Optional<Item>> calculateFood(AltoClef mod) {
         Item bestFood = null;
         double bestFoodScore = Double.NEGATIVE_INFINITY;
@@ -274,26 +276,26 @@ public class FoodChain extends SingleTaskChain {
         float saturation = player != null ? player.getHungerManager().getSaturationLevel() : 20;
         // Get best food item + calculate food total
         for (ItemStack stack : mod.getItemStorage().getItemStacksPlayerInventory(true)) {
-            if (ItemVer.isFood(stack)) {
+            Item item = stack.getItem();
+            int foodHunger = FoodTable.getHunger(stack);
+            if (foodHunger >= 0) {
                 // Ignore protected items
                 if (!ItemHelper.canThrowAwayStack(mod, stack)) continue;
 
                 // Ignore spider eyes
-                if (stack.getItem() == Items.SPIDER_EYE) {
+                if (item == Items.SPIDER_EYE) {
                     continue;
                 }
 
-                FoodComponentWrapper food = ItemVer.getFoodComponent(stack.getItem());
-
-                assert food != null;
-                float hungerIfEaten = Math.min(hunger + food.getHunger(), 20);
-                float saturationIfEaten = Math.min(hungerIfEaten, saturation + food.getSaturationModifier());
+                float foodSaturation = FoodTable.getSaturation(stack);
+                float hungerIfEaten = Math.min(hunger + foodHunger, 20);
+                float saturationIfEaten = Math.min(hungerIfEaten, saturation + foodSaturation);
                 float gainedSaturation = (saturationIfEaten - saturation);
                 float gainedHunger = (hungerIfEaten - hunger);
                 float hungerNotFilled = 20 - hungerIfEaten;
 
-                float saturationWasted = food.getSaturationModifier() - gainedSaturation;
-                float hungerWasted = food.getHunger() - gainedHunger;
+                float saturationWasted = foodSaturation - gainedSaturation;
+                float hungerWasted = foodHunger - gainedHunger;
 
                 boolean prioritizeSaturation = health < config.prioritizeSaturationWhenBelowHealth;
                 float saturationGoodScore = prioritizeSaturation ? gainedSaturation * config.foodPickPrioritizeSaturationSaturationMultiplier : gainedSaturation;
@@ -303,15 +305,15 @@ public class FoodChain extends SingleTaskChain {
 
                 float score = saturationGoodScore - saturationLossPenalty - hungerLossPenalty - hungerNotFilledPenalty;
 
-                if (stack.getItem() == Items.ROTTEN_FLESH) {
+                if (item == Items.ROTTEN_FLESH) {
                     score -= config.foodPickRottenFleshPenalty;
                 }
                 if (score > bestFoodScore) {
                     bestFoodScore = score;
-                    bestFood = stack.getItem();
+                    bestFood = item;
                 }
 
-                foodTotal += Objects.requireNonNull(ItemVer.getFoodComponent(stack.getItem())).getHunger() * stack.getCount();
+                foodTotal += foodHunger * stack.getCount();
             }
         }
 
@@ -1,7 +1,6 @@
 package adris.altoclef.chains;
 
 import adris.altoclef.AltoClef;
-import adris.altoclef.Debug;
 import adris.altoclef.control.KillAura;
 import adris.altoclef.multiversion.versionedfields.Entities;
 import adris.altoclef.multiversion.item.ItemVer;
@@ -13,6 +12,7 @@ import adris.altoclef.tasks.movement.RunAwayFromCreepersTask;
 import adris.altoclef.tasks.movement.RunAwayFromHostilesTask;
 import adris.altoclef.tasks.speedrun.DragonBreathTracker;
 import adris.altoclef.tasksystem.TaskRunner;
+import adris.altoclef.trackers.ThreatTracker;
 import adris.altoclef.util.baritone.CachedProjectile;
 import adris.altoclef.util.helpers.*;
 import adris.altoclef.util.slots.PlayerSlot;
@@ -22,13 +22,11 @@ import baritone.api.utils.Rotation;
 import baritone.api.utils.input.Input;
 import net.minecraft.block.AbstractFireBlock;
 import net.minecraft.block.Block;
-import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.boss.WitherEntity;
 import net.minecraft.entity.effect.StatusEffects;
 import net.minecraft.entity.mob.*;
-import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.projectile.*;
 import net.minecraft.entity.projectile.thrown.PotionEntity;
 import net.minecraft.item.Item;
@@ -49,8 +47,8 @@ import java.util.*;
 public class MobDefenseChain extends SingleTaskChain {
     private static final double DANGER_KEEP_DISTANCE = 30;
     private static final double CREEPER_KEEP_DISTANCE = 10;
-    private static final double ARROW_KEEP_DISTANCE_HORIZONTAL = 2;
-    private static final double ARROW_KEEP_DISTANCE_VERTICAL = 10;
+    public static final double ARROW_KEEP_DISTANCE_HORIZONTAL = 2;
+    public static final double ARROW_KEEP_DISTANCE_VERTICAL = 10;
     private static final double SAFE_KEEP_DISTANCE = 8;
     private static final float RETREAT_HEALTH_THRESHOLD = 12;
     private static final float FLEE_DANGEROUS_MOB_HEALTH_THRESHOLD = 14;
@@ -196,7 +194,7 @@ public class MobDefenseChain extends SingleTaskChain {
         PlayerSlot offhandSlot = PlayerSlot.OFFHAND_SLOT;
         Item offhandItem = StorageHelper.getItemStackInSlot(offhandSlot).getItem();
         // Run away from creepers
-        CreeperEntity blowingUp = getClosestFusingCreeper(mod);
+        CreeperEntity blowingUp = mod.getThreatTracker().getFusingCreeper();
         if (blowingUp != null) {
             if ((!mod.getFoodChain().needsToEat() || mod.getPlayer().getHealth() < 9)
                     && hasShield(mod)
@@ -273,7 +271,8 @@ public class MobDefenseChain extends SingleTaskChain {
 
         if (mod.getModSettings().shouldDealWithAnnoyingHostiles()) {
             // Deal with hostiles because they are annoying.
-            List<LivingEntity> hostiles = mod.getEntityTracker().getHostiles();
+            // Already closest first, so whatever we deal with will be too.
+            LivingEntity[] hostiles = mod.getThreatTracker().getRankedThreats();
 
             List<LivingEntity> toDealWithList = new ArrayList<>();
 
@@ -315,9 +314,6 @@ public class MobDefenseChain extends SingleTaskChain {
                 }
             }
 
-            // attack entities closest to the player first
-            toDealWithList.sort(Comparator.comparingDouble((entity) -> mod.getPlayer().distanceTo(entity)));
-
             if (!toDealWithList.isEmpty()) {
 
                 // Depending on our weapons/armor, we may choose to straight up kill hostiles if we're not dodging their arrows.
@@ -429,122 +425,40 @@ public class MobDefenseChain extends SingleTaskChain {
     private void doForceField(AltoClef mod) {
         killAura.tickStart();
 
-        // Hit all hostiles close to us.
-        List<Entity> entities = mod.getEntityTracker().getCloseEntities();
-        try {
-            for (Entity entity : entities) {
-                boolean shouldForce = false;
-                if (mod.getBehaviour().shouldExcludeFromForcefield(entity)) continue;
-                if (entity instanceof MobEntity) {
-                    if (EntityHelper.isProbablyHostileToPlayer(mod, entity)) {
-                        if (LookHelper.seesPlayer(entity, mod.getPlayer(), 10)) {
-                            shouldForce = true;
-                        }
-                    }
-                } else if (entity instanceof FireballEntity) {
-                    // Ghast ball
-                    shouldForce = true;
-                }
-
-                if (shouldForce) {
-                    killAura.applyAura(entity);
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+        // Hit all hostiles close to us, closest first.
+        for (Entity entity : mod.getThreatTracker().getAttackCandidates()) {
+            killAura.applyAura(entity);
         }
         killAura.tickEnd(mod);
     }
 
 
-    private CreeperEntity getClosestFusingCreeper(AltoClef mod) {
-        double worstSafety = Float.POSITIVE_INFINITY;
-        CreeperEntity target = null;
-        try {
-            List<CreeperEntity> creepers = mod.getEntityTracker().getTrackedEntities(CreeperEntity.class);
-            for (CreeperEntity creeper : creepers) {
-                if (creeper == null) continue;
-                if (creeper.getClientFuseTime(1) < 0.001) continue;
-
-                // We want to pick the closest creeper, but FIRST pick creepers about to blow
-                // At max fuse, the cost goes to basically zero.
-                double safety = getCreeperSafety(mod.getPlayer().getPos(), creeper);
-                if (safety < worstSafety) {
-                    target = creeper;
-                }
-            }
-        } catch (ConcurrentModificationException | ArrayIndexOutOfBoundsException | NullPointerException e) {
-            // IDK why but these exceptions happen sometimes. It's extremely bizarre and I
-            // have no idea why.
-            Debug.logWarning("Weird Exception caught and ignored while scanning for creepers: " + e.getMessage());
-            return target;
-        }
-        return target;
-    }
-
     private boolean isProjectileClose(AltoClef mod) {
-        List<CachedProjectile> projectiles = mod.getEntityTracker().getProjectiles();
-        try {
-            for (CachedProjectile projectile : projectiles) {
-                if (projectile.position.squaredDistanceTo(mod.getPlayer().getPos()) < 150) {
-                    boolean isGhastBall = projectile.projectileType == FireballEntity.class;
-                    if (isGhastBall) {
-                        Optional<Entity> ghastBall = mod.getEntityTracker().getClosestEntity(FireballEntity.class);
-                        Optional<Entity> ghast = mod.getEntityTracker().getClosestEntity(GhastEntity.class);
-                        if (ghastBall.isPresent() && ghast.isPresent() && runAwayTask == null
-                                && mod.getClientBaritone().getPathingBehavior().isSafeToCancel()) {
-                            mod.getClientBaritone().getPathingBehavior().requestPause();
-                            LookHelper.lookAt(mod, ghast.get().getEyePos());
-                        }
-                        return false;
-                        // Ignore ghast balls
-                    }
-                    if (projectile.projectileType == DragonFireballEntity.class) {
-                        // Ignore dragon fireballs
-                        continue;
-                    }
-                    if (projectile.projectileType == ArrowEntity.class || projectile.projectileType == SpectralArrowEntity.class || projectile.projectileType == SmallFireballEntity.class) {
-                        // check if the projectile is going away from us
-                        // not so fancy math... this should work better than the previous approach (I hope just adding the velocity doesn't cause any issues..)
-                        PlayerEntity player = mod.getPlayer();
-                        if (player.squaredDistanceTo(projectile.position) < player.squaredDistanceTo(projectile.position.add(projectile.velocity))) {
-                            continue;
-                        }
-                    }
-
-                    Vec3d expectedHit = ProjectileHelper.calculateArrowClosestApproach(projectile, mod.getPlayer());
-
-                    Vec3d delta = mod.getPlayer().getPos().subtract(expectedHit);
-
-                    double horizontalDistanceSq = delta.x * delta.x + delta.z * delta.z;
-                    double verticalDistance = Math.abs(delta.y);
-                    if (horizontalDistanceSq < ARROW_KEEP_DISTANCE_HORIZONTAL * ARROW_KEEP_DISTANCE_HORIZONTAL
-                            && verticalDistance < ARROW_KEEP_DISTANCE_VERTICAL) {
-                        if (mod.getClientBaritone().getPathingBehavior().isSafeToCancel()
-                                && hasShield(mod)) {
-                            mod.getClientBaritone().getPathingBehavior().requestPause();
-                            LookHelper.lookAt(mod, projectile.position.add(0, 0.3, 0));
-                        }
-                        return true;
-                    }
-                }
+        ThreatTracker threats = mod.getThreatTracker();
+        if (threats.isGhastBallClose()) {
+            // Ignore ghast balls, look at the ghast so we can hit them back.
+            Optional<Entity> ghastBall = mod.getEntityTracker().getClosestEntity(FireballEntity.class);
+            Optional<Entity> ghast = mod.getEntityTracker().getClosestEntity(GhastEntity.class);
+            if (ghastBall.isPresent() && ghast.isPresent() && runAwayTask == null
+                    && mod.getClientBaritone().getPathingBehavior().isSafeToCancel()) {
+                mod.getClientBaritone().getPathingBehavior().requestPause();
+                LookHelper.lookAt(mod, ghast.get().getEyePos());
             }
-
-        } catch (ConcurrentModificationException e) {
-            Debug.logWarning(e.getMessage());
+            return false;
         }
 
-        // TODO refactor this into something more reliable for all mobs
-        for (SkeletonEntity skeleton : mod.getEntityTracker().getTrackedEntities(SkeletonEntity.class)) {
-            if (skeleton.distanceTo(mod.getPlayer()) > 10 || !skeleton.canSee(mod.getPlayer())) continue;
-
-            // when the skeleton is about to shoot (it takes 5 ticks to raise the shield)
-            if (skeleton.getItemUseTime() > 15) {
-                return true;
+        CachedProjectile incoming = threats.getIncomingProjectile();
+        if (incoming != null) {
+            if (mod.getClientBaritone().getPathingBehavior().isSafeToCancel()
+                    && hasShield(mod)) {
+                mod.getClientBaritone().getPathingBehavior().requestPause();
+                LookHelper.lookAt(mod, incoming.position.add(0, 0.3, 0));
             }
+            return true;
         }
 
-        return false;
+        // TODO refactor this into something more reliable for all mobs
+        return threats.isSkeletonAboutToShoot();
     }
 
     private Optional<Entity> getUniversallyDangerousMob(AltoClef mod) {
@@ -554,14 +468,14 @@ public class MobDefenseChain extends SingleTaskChain {
         Class<?>[] dangerousMobs = new Class[]{Entities.WARDEN, WitherEntity.class, WitherSkeletonEntity.class,
                 HoglinEntity.class, ZoglinEntity.class, PiglinBruteEntity.class, VindicatorEntity.class};
 
-        double range = SAFE_KEEP_DISTANCE - 2;
-
-        for (Class<?> dangerous : dangerousMobs) {
-            Optional<Entity> entity = mod.getEntityTracker().getClosestEntity(dangerous);
-
-            if (entity.isPresent()) {
-                if (entity.get().squaredDistanceTo(mod.getPlayer()) < range * range && EntityHelper.isAngryAtPlayer(mod, entity.get())) {
-                    return entity;
+        // Ranked threats are already known to be angry at us.
+        ThreatTracker threats = mod.getThreatTracker();
+        LivingEntity[] ranked = threats.getRankedThreats();
+        int inRange = threats.getThreatCountWithin(SAFE_KEEP_DISTANCE - 2);
+        for (int i = 0; i < inRange; ++i) {
+            for (Class<?> dangerous : dangerousMobs) {
+                if (dangerous.isInstance(ranked[i])) {
+                    return Optional.of(ranked[i]);
                 }
             }
         }
@@ -582,21 +496,13 @@ public class MobDefenseChain extends SingleTaskChain {
         }
         if (WorldHelper.isVulnerable()) {
             // If hostile mobs are nearby...
-            try {
-                ClientPlayerEntity player = mod.getPlayer();
-                List<LivingEntity> hostiles = mod.getEntityTracker().getHostiles();
-
-                synchronized (BaritoneHelper.MINECRAFT_LOCK) {
-                    for (Entity entity : hostiles) {
-                        if (entity.isInRange(player, SAFE_KEEP_DISTANCE)
-                                && !mod.getBehaviour().shouldExcludeFromForcefield(entity)
-                                && EntityHelper.isAngryAtPlayer(mod, entity)) {
-                            return true;
-                        }
-                    }
+            ThreatTracker threats = mod.getThreatTracker();
+            LivingEntity[] ranked = threats.getRankedThreats();
+            int inRange = threats.getThreatCountWithin(SAFE_KEEP_DISTANCE);
+            for (int i = 0; i < inRange; ++i) {
+                if (!mod.getBehaviour().shouldExcludeFromForcefield(ranked[i])) {
+                    return true;
                 }
-            } catch (Exception e) {
-                Debug.logWarning("Weird multithread exception. Will fix later. " + e.getMessage());
             }
         }
         return false;
@@ -66,7 +66,7 @@ public abstract class SingleTaskChain extends TaskChain {
     @Override
     public void onInterrupt(TaskChain other) {
         if (other != null) {
-            Debug.logInternal("Chain Interrupted: " + this + " by " + other);
+            Debug.logInternal(Debug.Category.TASKS, () -> "Chain Interrupted: " + this + " by " + other);
         }
         // Stop our task. When we're started up again, let our task know we need to run.
         interrupted = true;
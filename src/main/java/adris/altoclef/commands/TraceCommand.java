@@ -0,0 +1,84 @@
+package adris.altoclef.commands;
+
+import adris.altoclef.AltoClef;
+import adris.altoclef.commandsystem.ArgParser;
+import adris.altoclef.commandsystem.Command;
+import adris.altoclef.commandsystem.args.EnumArg;
+import adris.altoclef.commandsystem.exception.CommandException;
+import adris.altoclef.tasksystem.TaskTraceReader;
+import adris.altoclef.tasksystem.TaskTraceRecorder;
+import net.minecraft.client.MinecraftClient;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+public class TraceCommand extends Command {
+
+    private static final int REPORTED_SUBTREES = 5;
+
+    public TraceCommand() {
+        super("trace", "Record which tasks run and how long they take (start/stop), or summarize the recorded traces (report)",
+                new EnumArg<>("action", Action.class)
+        );
+    }
+
+    @Override
+    protected void call(AltoClef mod, ArgParser parser) throws CommandException {
+        Action action = parser.get(Action.class);
+        switch (action) {
+            case START -> {
+                TaskTraceRecorder.start();
+                if (TaskTraceRecorder.isRecording()) {
+                    log("Recording task trace to " + TaskTraceRecorder.getCurrentFile().getPath());
+                }
+                finish();
+            }
+            case STOP -> {
+                TaskTraceRecorder.stop();
+                log("Stopped recording task trace.");
+                finish();
+            }
+            case REPORT -> {
+                List<File> files = TaskTraceReader.getTraceFiles();
+                if (files.isEmpty()) {
+                    log("No task traces recorded yet.");
+                    finish();
+                    return;
+                }
+                log("Reading " + files.size() + " trace file(s)...");
+                // Can be a few hundred MB after a long run, don't freeze the game reading it.
+                new Thread(() -> {
+                    TaskTraceReader reader = new TaskTraceReader();
+                    String result;
+                    List<String> slowest = List.of();
+                    try {
+                        for (File file : files) {
+                            reader.read(file);
+                        }
+                        File output = reader.writeReport(files.get(files.size() - 1));
+                        result = "Read " + reader.getFrameCount() + " ticks, wrote " + output.getPath() + ".folded (flame graph) and .timeline.txt. Slowest subtrees:";
+                        slowest = reader.getSlowestSubtrees(REPORTED_SUBTREES);
+                    } catch (IOException e) {
+                        result = "Failed to read task traces: " + e.getMessage();
+                    }
+                    String message = result;
+                    List<String> lines = slowest;
+                    MinecraftClient.getInstance().execute(() -> {
+                        log(message);
+                        for (String line : lines) {
+                            log(line);
+                        }
+                        finish();
+                    });
+                }, "Alto Clef trace report").start();
+            }
+        }
+    }
+
+    public enum Action {
+        START,
+        STOP,
+        REPORT
+    }
+}
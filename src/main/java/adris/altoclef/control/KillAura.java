@@ -4,7 +4,6 @@ import adris.altoclef.AltoClef;
 import adris.altoclef.multiversion.versionedfields.Entities;
 import adris.altoclef.multiversion.item.ItemVer;
 import adris.altoclef.util.helpers.LookHelper;
-import adris.altoclef.util.helpers.StlHelper;
 import adris.altoclef.util.helpers.StorageHelper;
 import adris.altoclef.util.helpers.WorldHelper;
 import adris.altoclef.util.slots.PlayerSlot;
@@ -32,7 +31,7 @@ import java.util.Optional;
  * Controls and applies killaura
  */
 public class KillAura {
-    // Smart aura data
+    // Smart aura data, closest first
     private final List<Entity> targets = new ArrayList<>();
     boolean shielding = false;
     private double forceFieldRange = Double.POSITIVE_INFINITY;
@@ -66,6 +65,9 @@ public class KillAura {
         attackedLastTick = false;
     }
 
+    /**
+     * Add a target for this tick. Targets are expected closest first (see {@link adris.altoclef.trackers.ThreatTracker#getAttackCandidates()}).
+     */
     public void applyAura(Entity entity) {
         targets.add(entity);
         // Always hit ghast balls.
@@ -77,7 +79,7 @@ public class KillAura {
     }
 
     public void tickEnd(AltoClef mod) {
-        Optional<Entity> entities = targets.stream().min(StlHelper.compareValues(entity -> entity.squaredDistanceTo(mod.getPlayer())));
+        Optional<Entity> entities = targets.isEmpty() ? Optional.empty() : Optional.of(targets.get(0));
         if (entities.isPresent() &&
                 !mod.getEntityTracker().entityFound(PotionEntity.class) &&
                 (Double.isInfinite(forceFieldRange) || entities.get().squaredDistanceTo(mod.getPlayer()) < forceFieldRange * forceFieldRange ||
@@ -140,13 +142,11 @@ public class KillAura {
                 return;
             }
 
-            Optional<Entity> toHit = targets.stream().min(StlHelper.compareValues(entity -> entity.squaredDistanceTo(mod.getPlayer())));
-
             if (mod.getPlayer() == null || mod.getPlayer().getAttackCooldownProgress(0) < 1) {
                 return;
             }
 
-            toHit.ifPresent(entity -> attack(mod, entity, true));
+            attack(mod, targets.get(0), true);
         }
     }
 
@@ -0,0 +1,19 @@
+package adris.altoclef.eventbus.events;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Any block change in the client world, including ones made by other players or the server.
+ */
+public class BlockStateChangedEvent {
+    public BlockPos blockPos;
+    public BlockState oldState;
+    public BlockState newState;
+
+    public BlockStateChangedEvent(BlockPos blockPos, BlockState oldState, BlockState newState) {
+        this.blockPos = blockPos;
+        this.oldState = oldState;
+        this.newState = newState;
+    }
+}
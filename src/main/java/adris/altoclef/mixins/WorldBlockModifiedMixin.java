@@ -2,6 +2,7 @@ package adris.altoclef.mixins;
 
 import adris.altoclef.eventbus.EventBus;
 import adris.altoclef.eventbus.events.BlockPlaceEvent;
+import adris.altoclef.eventbus.events.BlockStateChangedEvent;
 import net.minecraft.block.BlockState;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.util.math.BlockPos;
@@ -29,6 +30,10 @@ public class WorldBlockModifiedMixin {
             BlockPlaceEvent evt = new BlockPlaceEvent(pos, newBlock);
             EventBus.publish(evt);
         }
+        // Other worlds (ex. Litematica's schematic world) share this code path, only report the one we play in.
+        if ((Object) this == MinecraftClient.getInstance().world) {
+            EventBus.publish(new BlockStateChangedEvent(pos.toImmutable(), oldBlock, newBlock));
+        }
     }
 
 }
@@ -17,6 +17,17 @@ public class ItemVer {
         //#endif
     }
 
+    /**
+     * The stack's own food component, which can differ from its item's.
+     */
+    public static FoodComponentWrapper getFoodComponent(ItemStack stack) {
+        //#if MC >=12005
+        return FoodComponentWrapper.of(stack.get(net.minecraft.component.DataComponentTypes.FOOD));
+        //#else
+        //$$ return getFoodComponent(stack.getItem());
+        //#endif
+    }
+
     public static boolean isFood(ItemStack stack) {
         return isFood(stack.getItem());
     }
@@ -1,12 +1,17 @@
 package adris.altoclef.tasks;
 
 import adris.altoclef.AltoClef;
+import adris.altoclef.multiversion.blockpos.BlockPosVer;
 import adris.altoclef.tasks.movement.TimeoutWanderTask;
 import adris.altoclef.tasksystem.Task;
+import adris.altoclef.util.baritone.PathCostRanker;
 import adris.altoclef.util.helpers.WorldHelper;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -16,7 +21,12 @@ import java.util.Optional;
  */
 public abstract class AbstractDoToClosestObjectTask<T> extends Task {
 
+    // How many of the closest objects we ask baritone about
+    private static final int RANKED_CANDIDATES = 4;
+    private static final int MAX_CACHED_HEURISTICS = 64;
+
     private final HashMap<T, CachedHeuristic> heuristicMap = new HashMap<>();
+    private final PathCostRanker pathCostRanker = new PathCostRanker();
     private T currentlyPursuing = null;
     private boolean wasWandering;
     private Task goalTask = null;
@@ -31,6 +41,16 @@ public abstract class AbstractDoToClosestObjectTask<T> extends Task {
 
     protected abstract boolean isValid(AltoClef mod, T obj);
 
+    /**
+     * The closest few valid objects, closest first. These get their path costs compared, so we can pick one that's
+     * actually quicker to get to than the closest. By default, only the closest.
+     */
+    protected List<T> getClosestCandidates(AltoClef mod, Vec3d pos, int count) {
+        List<T> result = new ArrayList<>();
+        getClosestTo(mod, pos).ifPresent(result::add);
+        return result;
+    }
+
     // Virtual
     protected Task getWanderTask(AltoClef mod) {
         return new TimeoutWanderTask(true);
@@ -39,6 +59,7 @@ public abstract class AbstractDoToClosestObjectTask<T> extends Task {
     public void resetSearch() {
         currentlyPursuing = null;
         heuristicMap.clear();
+        pathCostRanker.clear();
         goalTask = null;
     }
 
@@ -62,12 +83,33 @@ public abstract class AbstractDoToClosestObjectTask<T> extends Task {
             heuristicMap.remove(currentlyPursuing);
             currentlyPursuing = null;
         }
+        // Long searches go through a lot of objects, don't hold on to ones that are gone.
+        if (heuristicMap.size() > MAX_CACHED_HEURISTICS) {
+            heuristicMap.keySet().removeIf(obj -> !isValid(mod, obj));
+        }
 
         // Get closest object
         Optional<T> checkNewClosest = getClosestTo(mod, getOriginPos(mod));
 
-        // Receive closest object and position
-        if (checkNewClosest.isPresent() && !checkNewClosest.get().equals(currentlyPursuing)) {
+        // If we know path costs to the closest few, go by those instead.
+        Optional<T> ranked = Optional.empty();
+        if (checkNewClosest.isPresent()) {
+            List<T> candidates = getClosestCandidates(mod, getOriginPos(mod), RANKED_CANDIDATES);
+            if (currentlyPursuing != null && !candidates.contains(currentlyPursuing)) {
+                candidates.add(currentlyPursuing);
+            }
+            if (candidates.size() > 1) {
+                ranked = pathCostRanker.pickBest(mod, currentlyPursuing, candidates, obj -> BlockPosVer.ofFloored(getPos(mod, obj)));
+            }
+        }
+
+        if (ranked.isPresent()) {
+            if (!ranked.get().equals(currentlyPursuing)) {
+                setDebugState("Switching to cheaper path");
+                currentlyPursuing = ranked.get();
+            }
+        } else if (checkNewClosest.isPresent() && !checkNewClosest.get().equals(currentlyPursuing)) {
+            // Receive closest object and position
             T newClosest = checkNewClosest.get();
             // Different closest object
             if (currentlyPursuing == null) {
@@ -95,7 +95,17 @@ public class CraftGenericWithRecipeBooksTask extends Task implements ITaskUsesCr
 
         // Check if the output item matches the target item and the target count has not been reached
         if (target.getOutputItem() == output.getItem() && mod.getItemStorage().getItemCount(target.getOutputItem()) < target.getTargetCount()) {
-            // Return a task to receive the crafting output slot
+            Slot[] inputSlots = isBigCraftingOpen ? CraftingTableSlot.INPUT_SLOTS : PlayerSlot.CRAFT_INPUT_SLOTS;
+            int placed = getCraftsInGrid(inputSlots);
+            // We need everything in the grid, so one quick move crafts it all
+            if (placed <= getCraftsNeeded(mod) && mod.getItemStorage().getSlotThatCanFitInPlayerInventory(output, true).isPresent()) {
+                if (mod.getSlotHandler().canDoSlotAction()) {
+                    setDebugState("Quick moving " + placed + " crafts");
+                    mod.getSlotHandler().clickSlot(outputSlot, 0, SlotActionType.QUICK_MOVE);
+                }
+                return null;
+            }
+            // Only part of the last grid is needed (or no room in the inventory), take out just that
             return new ReceiveCraftingOutputSlotTask(outputSlot, target.getTargetCount());
         }
 
@@ -134,6 +144,16 @@ public class CraftGenericWithRecipeBooksTask extends Task implements ITaskUsesCr
             }
         }
 
+        // Fill the whole grid, full grids get quick moved above
+        clickRecipe(mod);
+
+        return null;
+    }
+
+    /**
+     * Shift click the recipe in the recipe book, filling the grid with as many as we can.
+     */
+    private void clickRecipe(AltoClef mod) {
         Optional<WrappedRecipeEntry> recipeToSend = JankCraftingRecipeMapping.getMinecraftMappedRecipe(target.getRecipe(), target.getOutputItem());
         if (recipeToSend.isPresent()) {
             if (mod.getSlotHandler().canDoSlotAction()) {
@@ -144,8 +164,30 @@ public class CraftGenericWithRecipeBooksTask extends Task implements ITaskUsesCr
                 mod.getSlotHandler().registerSlotAction();
             }
         }
+    }
 
-        return null;
+    /**
+     * How many more times we need to craft the recipe to reach our target count.
+     */
+    private int getCraftsNeeded(AltoClef mod) {
+        int missing = target.getTargetCount() - mod.getItemStorage().getItemCount(target.getOutputItem());
+        if (missing <= 0) return 0;
+        int perCraft = Math.max(target.getRecipe().outputCount(), 1);
+        return (missing + perCraft - 1) / perCraft;
+    }
+
+    /**
+     * How many times the recipe is in the grid right now.
+     */
+    private static int getCraftsInGrid(Slot[] inputSlots) {
+        int placed = Integer.MAX_VALUE;
+        for (Slot input : inputSlots) {
+            ItemStack stack = StorageHelper.getItemStackInSlot(input);
+            if (!stack.isEmpty()) {
+                placed = Math.min(placed, stack.getCount());
+            }
+        }
+        return placed == Integer.MAX_VALUE ? 0 : placed;
     }
 
     /**
@@ -64,8 +64,8 @@ public class CraftInInventoryTask extends ResourceTask {
 
     @Override
     protected Task onResourceTick(AltoClef mod) {
-        // Grab from output FIRST
-        if (StorageHelper.isPlayerInventoryOpen()) {
+        // Grab from output FIRST. The recipe book task takes out its own output, so it can quick move whole grids.
+        if (StorageHelper.isPlayerInventoryOpen() && !mod.getModSettings().shouldUseCraftingBookToCraft()) {
             if (StorageHelper.getItemStackInCursorSlot().isEmpty()) {
                 Item outputItem = StorageHelper.getItemStackInSlot(PlayerSlot.CRAFT_OUTPUT_SLOT).getItem();
                 if (itemTargets != null) {
@@ -1,14 +1,14 @@
 package adris.altoclef.tasks;
 
 import adris.altoclef.AltoClef;
+import adris.altoclef.multiversion.blockpos.BlockPosVer;
 import adris.altoclef.tasksystem.Task;
 import adris.altoclef.util.helpers.WorldHelper;
 import net.minecraft.block.Block;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 
-import java.util.Arrays;
-import java.util.Optional;
+import java.util.*;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -60,6 +60,26 @@ public class DoToClosestBlockTask extends AbstractDoToClosestObjectTask<BlockPos
         return mod.getBlockScanner().getNearestBlock(pos, isValid, targetBlocks);
     }
 
+    @Override
+    protected List<BlockPos> getClosestCandidates(AltoClef mod, Vec3d pos, int count) {
+        if (getClosest != null) {
+            return super.getClosestCandidates(mod, pos, count);
+        }
+        // Keep the closest few, furthest on top so it's the one we drop
+        PriorityQueue<BlockPos> closest = new PriorityQueue<>(Comparator.comparingDouble((BlockPos p) -> BlockPosVer.getSquaredDistance(p, pos)).reversed());
+        for (BlockPos check : mod.getBlockScanner().getKnownLocations(targetBlocks)) {
+            // Also makes sure it's still there, known locations can lag behind until the next rescan
+            if (!isValid(mod, check)) continue;
+            closest.add(check);
+            if (closest.size() > count) {
+                closest.poll();
+            }
+        }
+        List<BlockPos> result = new ArrayList<>(closest);
+        result.sort(Comparator.comparingDouble(p -> BlockPosVer.getSquaredDistance(p, pos)));
+        return result;
+    }
+
     @Override
     protected Vec3d getOriginPos(AltoClef mod) {
         if (getOriginPos != null) {
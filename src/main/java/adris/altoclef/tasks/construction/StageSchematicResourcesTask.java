@@ -12,8 +12,10 @@ import adris.altoclef.tasks.movement.GetToBlockTask;
 import adris.altoclef.tasks.movement.TimeoutWanderTask;
 import adris.altoclef.tasks.resources.CollectFoodTask;
 import adris.altoclef.tasksystem.Task;
+import adris.altoclef.util.BlockRange;
 import adris.altoclef.util.ItemTarget;
 import adris.altoclef.util.LitematicaHelper;
+import adris.altoclef.util.SchematicDiffIndex;
 import adris.altoclef.util.SmeltTarget;
 import adris.altoclef.util.helpers.ItemHelper;
 import adris.altoclef.util.helpers.StorageHelper;
@@ -76,6 +78,8 @@ public class StageSchematicResourcesTask extends Task {
     private static final int SAFE_SEARCH_ANGLE_STEP = 45;
     private final String placementName;
     private LitematicaHelper.SchematicPlacementInfo placementInfo;
+    // Live schematic vs world diff, null if Litematica can't give us the schematic volume.
+    private SchematicDiffIndex diffIndex;
     private List<MaterialStaging> materialStaging;
     private List<BlockPos> stagingChests;
     private Task currentSubTask;
@@ -146,6 +150,7 @@ public class StageSchematicResourcesTask extends Task {
         long alreadyStaged;
         long currentlyInInventory;
         long currentlyInChests;
+        long alreadyPlacedInWorld;
         long pendingDepositAmount;
         boolean isGathered;
         
@@ -155,19 +160,25 @@ public class StageSchematicResourcesTask extends Task {
             this.alreadyStaged = 0;
             this.currentlyInInventory = 0;
             this.currentlyInChests = 0;
+            this.alreadyPlacedInWorld = 0;
             this.pendingDepositAmount = 0;
             this.isGathered = false;
         }
         
+        long getStillRequired() {
+            // Blocks that are already built don't need staging
+            return Math.max(0, totalRequired - alreadyPlacedInWorld);
+        }
+
         long getRemainingToGather() {
             // Use the best available count: alreadyStaged (tracked) or currentlyInChests (live scan)
             long inChests = Math.max(alreadyStaged, currentlyInChests);
-            return Math.max(0, totalRequired - inChests - currentlyInInventory);
+            return Math.max(0, getStillRequired() - inChests - currentlyInInventory);
         }
         
         boolean isComplete() {
             // Use max of tracked deposits vs live chest scan for robustness
-            return Math.max(alreadyStaged, currentlyInChests) >= totalRequired;
+            return Math.max(alreadyStaged, currentlyInChests) >= getStillRequired();
         }
     }
     
@@ -218,6 +229,10 @@ public class StageSchematicResourcesTask extends Task {
     @Override
     protected void onStop(Task interruptTask) {
         AltoClef.getInstance().getBehaviour().pop();
+        if (diffIndex != null) {
+            diffIndex.stop();
+            diffIndex = null;
+        }
     }
     
     @Override
@@ -228,6 +243,10 @@ public class StageSchematicResourcesTask extends Task {
             return null;
         }
 
+        if (diffIndex != null) {
+            diffIndex.tick();
+        }
+
         // Sleep through the night
         AltoClef mod = AltoClef.getInstance();
         long timeOfDay = mod.getWorld().getTimeOfDay() % TICKS_PER_DAY;
@@ -306,6 +325,15 @@ public class StageSchematicResourcesTask extends Task {
         Debug.logMessage("Total unique items: " + placementInfo.getTotalUniqueItems());
         Debug.logMessage("Total item count: " + placementInfo.getTotalItemCount());
         
+        // Track which blocks are already built, so we only stage what's still missing
+        diffIndex = SchematicDiffIndex.forSelectedPlacement().orElse(null);
+        if (diffIndex != null) {
+            diffIndex.start();
+            Debug.logMessage("Tracking build progress in " + diffIndex.getBounds());
+        } else {
+            Debug.logMessage("Could not read the schematic volume, staging the full material list.");
+        }
+
         // Process materials and apply filters
         materialStaging = processMaterialRequirements(placementInfo.getMaterials());
         
@@ -1212,21 +1240,13 @@ public class StageSchematicResourcesTask extends Task {
                 continue;
             }
             
-            // Convert grass block to dirt (as specified)
-            if (item == Items.GRASS_BLOCK) {
-                Debug.logMessage("Converting grass block to dirt");
+            // Convert grass block and special dirt types to normal dirt (as specified)
+            Item stagedItem = toStagedItem(item);
+            if (stagedItem != item) {
+                Debug.logMessage("Converting " + item + " to " + stagedItem);
                 // Create a representative stack (count doesn't matter here, totalRequired is tracked separately)
-                stack = new ItemStack(Items.DIRT, 1);
-                item = Items.DIRT;
-            }
-            
-            // Convert special dirt types to normal dirt
-            if (item == Items.PODZOL || item == Items.MYCELIUM || 
-                item == Items.COARSE_DIRT) {
-                Debug.logMessage("Converting special dirt to normal dirt");
-                // Create a representative stack (count doesn't matter here, totalRequired is tracked separately)
-                stack = new ItemStack(Items.DIRT, 1);
-                item = Items.DIRT;
+                stack = new ItemStack(stagedItem, 1);
+                item = stagedItem;
             }
             
             // Create final variable for use in lambda
@@ -1249,6 +1269,16 @@ public class StageSchematicResourcesTask extends Task {
         return staging;
     }
     
+    /**
+     * The item we actually gather for a schematic material
+     */
+    private static Item toStagedItem(Item item) {
+        if (item == Items.GRASS_BLOCK || item == Items.PODZOL || item == Items.MYCELIUM || item == Items.COARSE_DIRT) {
+            return Items.DIRT;
+        }
+        return item;
+    }
+
     private void updateInventoryCounts() {
         AltoClef mod = AltoClef.getInstance();
         for (MaterialStaging staging : materialStaging) {
@@ -1256,6 +1286,15 @@ public class StageSchematicResourcesTask extends Task {
             staging.currentlyInInventory = count;
         }
 
+        // Subtract whatever is already built
+        if (diffIndex != null) {
+            Map<Item, Long> placed = new HashMap<>();
+            diffIndex.getPlacedByItem().forEach((item, count) -> placed.merge(toStagedItem(item), count, Long::sum));
+            for (MaterialStaging staging : materialStaging) {
+                staging.alreadyPlacedInWorld = placed.getOrDefault(staging.itemStack.getItem(), 0L);
+            }
+        }
+
         // Scan staging chests for item counts
         if (!stagingChests.isEmpty()) {
             for (MaterialStaging staging : materialStaging) {
@@ -1306,9 +1345,17 @@ public class StageSchematicResourcesTask extends Task {
         Debug.logMessage("========== PROGRESS REPORT ==========");
         Debug.logMessage("Current phase: " + currentPhase);
 
+        if (diffIndex != null) {
+            long expected = diffIndex.getTotalExpected();
+            long placed = diffIndex.getTotalPlaced();
+            int percentBuilt = expected > 0 ? (int) ((placed * 100.0) / expected) : 0;
+            Debug.logMessage("Already built: " + placed + "/" + expected + " blocks (" + percentBuilt + "%, "
+                    + diffIndex.getIndexedChunkCount() + " chunks checked, " + diffIndex.getPendingChunkCount() + " pending)");
+        }
+
         for (MaterialStaging staging : materialStaging) {
             long total = staging.currentlyInInventory + staging.currentlyInChests;
-            long needed = staging.totalRequired;
+            long needed = staging.getStillRequired();
             totalItemsNeeded += needed;
             totalItemsGathered += Math.min(total, needed);
             if (total >= needed) {
@@ -1420,6 +1467,14 @@ public class StageSchematicResourcesTask extends Task {
     }
 
     private boolean isOutsideSchematicBounds(BlockPos pos) {
+        if (diffIndex != null) {
+            // We know the real extent of the build, so keep clear of all of it
+            BlockRange bounds = diffIndex.getBounds();
+            double dx = Math.max(0, Math.max(bounds.start.getX() - pos.getX(), pos.getX() - bounds.end.getX()));
+            double dy = Math.max(0, Math.max(bounds.start.getY() - pos.getY(), pos.getY() - bounds.end.getY()));
+            double dz = Math.max(0, Math.max(bounds.start.getZ() - pos.getZ(), pos.getZ() - bounds.end.getZ()));
+            return Math.sqrt(dx * dx + dy * dy + dz * dz) >= MIN_SCHEMATIC_CLEARANCE;
+        }
         BlockPos origin = placementInfo.getOrigin();
         double distance = Math.sqrt(pos.getSquaredDistance(origin));
         return distance >= MIN_SCHEMATIC_CLEARANCE;
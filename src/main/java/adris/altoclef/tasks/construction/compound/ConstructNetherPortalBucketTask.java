@@ -12,6 +12,7 @@ import adris.altoclef.tasks.movement.PickupDroppedItemTask;
 import adris.altoclef.tasks.movement.TimeoutWanderTask;
 import adris.altoclef.tasks.speedrun.beatgame.BeatMinecraftTask;
 import adris.altoclef.tasksystem.Task;
+import adris.altoclef.util.BlockPosMask;
 import adris.altoclef.util.ItemTarget;
 import adris.altoclef.util.helpers.WorldHelper;
 import adris.altoclef.util.progresscheck.MovementProgressChecker;
@@ -53,6 +54,9 @@ public class ConstructNetherPortalBucketTask extends Task {
             new Vec3i(0, -1, 1)
     };
 
+    // Frame offsets compiled for Baritone's per-node break checks
+    private static final BlockPosMask PORTAL_FRAME_MASK = BlockPosMask.of(PORTAL_FRAME);
+
     private static final Vec3i[] PORTAL_INTERIOR = new Vec3i[]{
             //Inside
             new Vec3i(0, 0, 0),
@@ -105,14 +109,10 @@ public class ConstructNetherPortalBucketTask extends Task {
         // Also avoid placing on the lava + water
         // Also avoid breaking the cast frame
         mod.getBehaviour().avoidBlockBreaking(block -> {
-            if (portalOrigin != null) {
+            BlockPos origin = portalOrigin;
+            if (origin != null && PORTAL_FRAME_MASK.testRelative(origin, block)) {
                 // Don't break frame
-                for (Vec3i framePosRelative : PORTAL_FRAME) {
-                    BlockPos framePos = portalOrigin.add(framePosRelative);
-                    if (block.equals(framePos)) {
-                        return mod.getWorld().getBlockState(framePos).getBlock() == Blocks.OBSIDIAN;
-                    }
-                }
+                return mod.getWorld().getBlockState(block).getBlock() == Blocks.OBSIDIAN;
             }
             return false;
         });
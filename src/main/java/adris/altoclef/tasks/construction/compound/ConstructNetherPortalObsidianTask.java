@@ -9,6 +9,7 @@ import adris.altoclef.tasks.construction.PlaceBlockTask;
 import adris.altoclef.tasks.construction.PlaceStructureBlockTask;
 import adris.altoclef.tasks.movement.TimeoutWanderTask;
 import adris.altoclef.tasksystem.Task;
+import adris.altoclef.util.BlockPosMask;
 import adris.altoclef.util.ItemTarget;
 import adris.altoclef.util.helpers.WorldHelper;
 import adris.altoclef.util.time.TimerGame;
@@ -50,6 +51,9 @@ public class ConstructNetherPortalObsidianTask extends Task {
             new Vec3i(0, -1, 1)
     };
 
+    // Frame offsets compiled for Baritone's per-node break checks
+    private static final BlockPosMask PORTAL_FRAME_MASK = BlockPosMask.of(PORTAL_FRAME);
+
     private static final Vec3i[] PORTAL_INTERIOR = new Vec3i[]{
             //Inside
             new Vec3i(0, 0, 0),
@@ -105,14 +109,10 @@ public class ConstructNetherPortalObsidianTask extends Task {
 
         // Avoid breaking portal frame if we're obsidian.
         mod.getBehaviour().avoidBlockBreaking(block -> {
-            if (origin != null) {
+            BlockPos portalOrigin = origin;
+            if (portalOrigin != null && PORTAL_FRAME_MASK.testRelative(portalOrigin, block)) {
                 // Don't break frame
-                for (Vec3i framePosRelative : PORTAL_FRAME) {
-                    BlockPos framePos = origin.add(framePosRelative);
-                    if (block.equals(framePos)) {
-                        return mod.getWorld().getBlockState(framePos).getBlock() == Blocks.OBSIDIAN;
-                    }
-                }
+                return mod.getWorld().getBlockState(block).getBlock() == Blocks.OBSIDIAN;
             }
             return false;
         });
@@ -10,6 +10,7 @@ import adris.altoclef.tasks.construction.PlaceStructureBlockTask;
 import adris.altoclef.tasks.movement.GetToBlockTask;
 import adris.altoclef.tasks.movement.TimeoutWanderTask;
 import adris.altoclef.tasksystem.Task;
+import adris.altoclef.util.BlockPosMask;
 import adris.altoclef.util.ItemTarget;
 import adris.altoclef.util.time.TimerGame;
 import net.minecraft.block.Block;
@@ -88,6 +89,9 @@ public class ConstructNetherPortalSpeedrunTask extends adris.altoclef.tasksystem
             new LavaTarget(0, 3, 0, Direction.fromVector(0, 0, 1)),
             new LavaTarget(0, 3, 1, Direction.fromVector(0, 0, 1))
     };
+    // Frame offsets compiled for Baritone's per-node break checks
+    private static final BlockPosMask PORTAL_CONSTRUCTION_FRAME_MASK = BlockPosMask.of(PORTAL_CONSTRUCTION_FRAME);
+
     private static final Vec3i[] PORTAL_INTERIOR = new Vec3i[]{
             new Vec3i(0, 0, 0),
             new Vec3i(0, 1, 0),
@@ -119,14 +123,12 @@ public class ConstructNetherPortalSpeedrunTask extends adris.altoclef.tasksystem
         //mod.getConfigState().setAllowWalkThroughFlowingWater(true);
         // Avoid breaking frame.
         mod.getBehaviour().avoidBlockBreaking((block) -> {
-            if (portalOrigin != null) {
+            BlockPos origin = portalOrigin;
+            if (origin != null) {
 
-                for (Vec3i framePosRelative : PORTAL_CONSTRUCTION_FRAME) {
-                    BlockPos framePos = portalOrigin.add(framePosRelative);
-                    if (block.equals(framePos)) return true;
-                }
+                if (PORTAL_CONSTRUCTION_FRAME_MASK.testRelative(origin, block)) return true;
                 // If we're the water source block...
-                if (block.equals(portalOrigin.add(WATER_SOURCE_ORIGIN))) {
+                if (block.equals(origin.add(WATER_SOURCE_ORIGIN))) {
                     if (MinecraftClient.getInstance().world.getBlockState(block).getBlock() == Blocks.WATER)
                         return true;
                 }
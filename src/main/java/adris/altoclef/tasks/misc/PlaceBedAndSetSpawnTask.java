@@ -16,6 +16,7 @@ import adris.altoclef.tasks.movement.DefaultGoToDimensionTask;
 import adris.altoclef.tasks.movement.GetToBlockTask;
 import adris.altoclef.tasks.movement.TimeoutWanderTask;
 import adris.altoclef.tasksystem.Task;
+import adris.altoclef.util.BlockPosMask;
 import adris.altoclef.util.Dimension;
 import adris.altoclef.util.ItemTarget;
 import adris.altoclef.util.helpers.ItemHelper;
@@ -52,6 +53,8 @@ public class PlaceBedAndSetSpawnTask extends Task {
             new Vec3i(1, -1, 1),
             new Vec3i(2, -1, 1)
     };
+    // Compiled for Baritone's per-node break checks
+    private final BlockPosMask BED_BOTTOM_PLATFORM_MASK = BlockPosMask.of(BED_BOTTOM_PLATFORM);
     // Kinda silly but who knows if we ever want to change it.
     private final Vec3i BED_PLACE_STAND_POS = new Vec3i(0, 0, 1);
     private final Vec3i BED_PLACE_POS = new Vec3i(1, 0, 1);
@@ -144,11 +147,9 @@ public class PlaceBedAndSetSpawnTask extends Task {
 
         // Avoid breaking blocks near bed
         mod.getBehaviour().avoidBlockBreaking(pos -> {
-            if (currentBedRegion != null) {
-                for (Vec3i baseOffs : BED_BOTTOM_PLATFORM) {
-                    BlockPos base = currentBedRegion.add(baseOffs);
-                    if (base.equals(pos)) return true;
-                }
+            BlockPos bedRegion = currentBedRegion;
+            if (bedRegion != null && BED_BOTTOM_PLATFORM_MASK.testRelative(bedRegion, pos)) {
+                return true;
             }
             // Don't ever break beds. If one exists, we will sleep in it.
             if (mod.getWorld() != null) {
@@ -8,13 +8,9 @@ import adris.altoclef.eventbus.events.ChunkLoadEvent;
 import adris.altoclef.tasksystem.Task;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
-import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.chunk.WorldChunk;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 /**
  * Use to walk through and search interconnected structures or biomes.
@@ -32,7 +28,7 @@ abstract class ChunkSearchTask extends Task {
     private final Set<ChunkPos> _consideredAlready = new HashSet<>();
     // We definitely were searched before.
     private final Set<ChunkPos> _searchedAlready = new HashSet<>();
-    private final ArrayList<ChunkPos> _searchLater = new ArrayList<>();
+    private final SearchQueue _searchLater = new SearchQueue();
     private final ArrayList<ChunkPos> _justLoaded = new ArrayList<>();
     private boolean _first = true;
     private boolean _finished = false;
@@ -102,7 +98,7 @@ abstract class ChunkSearchTask extends Task {
         }
 
         // Now that we have an updated map, go to the nearest
-        ChunkPos closest = getBestChunk(AltoClef.getInstance(), _searchLater);
+        ChunkPos closest = getBestChunk(AltoClef.getInstance(), _searchLater.getChunks());
 
         if (closest == null) {
             _finished = true;
@@ -114,24 +110,20 @@ abstract class ChunkSearchTask extends Task {
         return new GetToChunkTask(closest);
     }
 
+    /**
+     * @param chunks The chunks we still have to go to. The default picks from its own heap instead of going through these.
+     */
     // Virtual
-    protected ChunkPos getBestChunk(AltoClef mod, List<ChunkPos> chunks) {
-        double lowestScore = Double.POSITIVE_INFINITY;
-        ChunkPos bestChunk = null;
-        if (!chunks.isEmpty()) {
-            for (ChunkPos toSearch : chunks) {
-                double cx = (toSearch.getStartX() + toSearch.getEndX() + 1) / 2.0, cz = (toSearch.getStartZ() + toSearch.getEndZ() + 1) / 2.0;
-                double px = mod.getPlayer().getX(), pz = mod.getPlayer().getZ();
-                double distanceSq = (cx - px) * (cx - px) + (cz - pz) * (cz - pz);
-                double distanceToCenterSq = new Vec3d(_startPoint.getX() - cx, 0, _startPoint.getZ() - cz).lengthSquared();
-                double score = distanceSq + distanceToCenterSq * 0.8;
-                if (score < lowestScore) {
-                    lowestScore = score;
-                    bestChunk = toSearch;
-                }
-            }
-        }
-        return bestChunk;
+    protected ChunkPos getBestChunk(AltoClef mod, Set<ChunkPos> chunks) {
+        return _searchLater.getBest(mod.getPlayer().getX(), mod.getPlayer().getZ());
+    }
+
+    // Lower is better: close to us, and not too far from where the search started.
+    private double getChunkScore(ChunkPos chunk, double px, double pz) {
+        double cx = chunk.getStartX() + 8, cz = chunk.getStartZ() + 8;
+        double distanceSq = (cx - px) * (cx - px) + (cz - pz) * (cz - pz);
+        double distanceToCenterSq = (_startPoint.getX() - cx) * (_startPoint.getX() - cx) + (_startPoint.getZ() - cz) * (_startPoint.getZ() - cz);
+        return distanceSq + distanceToCenterSq * 0.8;
     }
 
     @Override
@@ -141,7 +133,7 @@ abstract class ChunkSearchTask extends Task {
 
     @Override
     public boolean isFinished() {
-        return _searchLater.size() == 0;
+        return _searchLater.isEmpty();
     }
 
     @Override
@@ -197,4 +189,74 @@ abstract class ChunkSearchTask extends Task {
     protected abstract boolean isChunkPartOfSearchSpace(AltoClef mod, ChunkPos pos);
 
     protected abstract boolean isChunkSearchEqual(ChunkSearchTask other);
+
+    private record ScoredChunk(ChunkPos pos, double score) implements Comparable<ScoredChunk> {
+        @Override
+        public int compareTo(ScoredChunk other) {
+            return Double.compare(score, other.score);
+        }
+    }
+
+    /**
+     * The chunks we still have to search in person: a heap ordered by {@link #getChunkScore} for picking the best one,
+     * and a set for everything else.
+     * <p>
+     * Scores depend on where the player is, so the heap is only rebuilt once they've moved a chunk away from where
+     * it was last scored. In between the order is a little stale, which doesn't matter for picking where to walk.
+     * Removed chunks stay in the heap until they reach the top or the next rebuild.
+     */
+    private class SearchQueue {
+        private static final double RESCORE_DISTANCE = 16;
+
+        private final Set<ChunkPos> chunks = new HashSet<>();
+        private final Set<ChunkPos> chunksView = Collections.unmodifiableSet(chunks);
+        private PriorityQueue<ScoredChunk> heap = new PriorityQueue<>();
+        private boolean scored = false;
+        private double scoredX, scoredZ;
+
+        public void add(ChunkPos pos) {
+            if (chunks.add(pos) && scored) {
+                heap.add(new ScoredChunk(pos, getChunkScore(pos, scoredX, scoredZ)));
+            }
+        }
+
+        public void remove(ChunkPos pos) {
+            chunks.remove(pos);
+        }
+
+        public boolean contains(ChunkPos pos) {
+            return chunks.contains(pos);
+        }
+
+        public boolean isEmpty() {
+            return chunks.isEmpty();
+        }
+
+        public Set<ChunkPos> getChunks() {
+            return chunksView;
+        }
+
+        public ChunkPos getBest(double px, double pz) {
+            double dx = px - scoredX, dz = pz - scoredZ;
+            if (!scored || dx * dx + dz * dz > RESCORE_DISTANCE * RESCORE_DISTANCE) {
+                rescore(px, pz);
+            }
+            while (!heap.isEmpty() && !chunks.contains(heap.peek().pos())) {
+                heap.poll();
+            }
+            return heap.isEmpty() ? null : heap.peek().pos();
+        }
+
+        private void rescore(double px, double pz) {
+            List<ScoredChunk> scores = new ArrayList<>(chunks.size());
+            for (ChunkPos pos : chunks) {
+                scores.add(new ScoredChunk(pos, getChunkScore(pos, px, pz)));
+            }
+            // Heapifies in one go
+            heap = new PriorityQueue<>(scores);
+            scored = true;
+            scoredX = px;
+            scoredZ = pz;
+        }
+    }
 }
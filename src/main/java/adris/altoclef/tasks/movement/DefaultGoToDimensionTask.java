@@ -4,7 +4,9 @@ import adris.altoclef.AltoClef;
 import adris.altoclef.tasks.construction.compound.ConstructNetherPortalBucketTask;
 import adris.altoclef.tasks.construction.compound.ConstructNetherPortalObsidianTask;
 import adris.altoclef.tasksystem.Task;
+import adris.altoclef.trackers.NetherPortalGraph;
 import adris.altoclef.util.Dimension;
+import adris.altoclef.util.helpers.BaritoneHelper;
 import adris.altoclef.util.helpers.WorldHelper;
 import net.minecraft.block.Blocks;
 import net.minecraft.util.math.BlockPos;
@@ -101,6 +103,16 @@ public class DefaultGoToDimensionTask extends Task {
         }
 
         Optional<BlockPos> closest = mod.getMiscBlockTracker().getLastUsedNetherPortal(Dimension.NETHER);
+        // Otherwise we walk to the last portal we went through, or build one right here.
+        double otherwiseTicks = closest
+                .map(pos -> BaritoneHelper.calculateGenericHeuristic(mod.getPlayer().getPos(), WorldHelper.toVec3d(pos)))
+                .orElse(FastTravelTask.BUILD_PORTAL_TICKS);
+        Optional<BlockPos> known = getKnownPortal(mod, Dimension.OVERWORLD, otherwiseTicks);
+        if (known.isPresent()) {
+            setDebugState("Going to a portal we used before");
+            return new EnterKnownNetherPortalTask(known.get(), Dimension.OVERWORLD);
+        }
+
         if (closest.isPresent()) {
             setDebugState("Going to last nether portal pos");
             return new GetToBlockTask(closest.get());
@@ -122,6 +134,16 @@ public class DefaultGoToDimensionTask extends Task {
             setDebugState("Going to nether portal");
             return new EnterNetherPortalTask(Dimension.NETHER);
         }
+        // Otherwise we build one right here, or walk home.
+        double otherwiseTicks = switch (mod.getModSettings().getOverworldToNetherBehaviour()) {
+            case BUILD_PORTAL_VANILLA -> FastTravelTask.BUILD_PORTAL_TICKS;
+            case GO_TO_HOME_BASE -> BaritoneHelper.calculateGenericHeuristic(mod.getPlayer().getPos(), WorldHelper.toVec3d(mod.getModSettings().getHomeBasePosition()));
+        };
+        Optional<BlockPos> known = getKnownPortal(mod, Dimension.NETHER, otherwiseTicks);
+        if (known.isPresent()) {
+            setDebugState("Going to a portal we used before");
+            return new EnterKnownNetherPortalTask(known.get(), Dimension.NETHER);
+        }
         return switch (mod.getModSettings().getOverworldToNetherBehaviour()) {
             case BUILD_PORTAL_VANILLA -> _cachedNetherBucketConstructionTask;
             case GO_TO_HOME_BASE -> new GetToBlockTask(mod.getModSettings().getHomeBasePosition());
@@ -134,6 +156,14 @@ public class DefaultGoToDimensionTask extends Task {
         return null;
     }
 
+    // The closest portal we've used before that gets us to the dimension, if going through it beats the otherwiseTicks we'd spend without it
+    private Optional<BlockPos> getKnownPortal(AltoClef mod, Dimension to, double otherwiseTicks) {
+        return mod.getMiscBlockTracker().getPortalGraph()
+                .planRoute(WorldHelper.getCurrentDimension(), mod.getPlayer().getPos(), to, null)
+                .filter(route -> route.ticks() < otherwiseTicks)
+                .flatMap(NetherPortalGraph.Route::getFirstPortal);
+    }
+
     private boolean netherPortalIsClose(AltoClef mod) {
         if (mod.getBlockScanner().anyFound(Blocks.NETHER_PORTAL)) {
             Optional<BlockPos> closest = mod.getBlockScanner().getNearestBlock( Blocks.NETHER_PORTAL);
@@ -0,0 +1,68 @@
+package adris.altoclef.tasks.movement;
+
+import adris.altoclef.AltoClef;
+import adris.altoclef.tasksystem.Task;
+import adris.altoclef.util.Dimension;
+import adris.altoclef.util.helpers.WorldHelper;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.function.Predicate;
+
+/**
+ * Go to a nether portal we've used before (see {@link adris.altoclef.trackers.NetherPortalGraph}) and through it.
+ */
+public class EnterKnownNetherPortalTask extends Task {
+
+    // Blocks of the portal are this close to the position we remember
+    private static final double PORTAL_RANGE = 4;
+
+    private final BlockPos portal;
+    private final Dimension targetDimension;
+
+    public EnterKnownNetherPortalTask(BlockPos portal, Dimension targetDimension) {
+        this.portal = portal;
+        this.targetDimension = targetDimension;
+    }
+
+    @Override
+    protected void onStart() {
+
+    }
+
+    @Override
+    protected Task onTick() {
+        AltoClef mod = AltoClef.getInstance();
+        Predicate<BlockPos> isOurPortal = pos -> pos.isWithinDistance(portal, PORTAL_RANGE);
+        // Only hand over once we can see it, EnterNetherPortalTask builds a new portal if it can't find one.
+        if (mod.getBlockScanner().anyFound(isOurPortal, Blocks.NETHER_PORTAL)) {
+            setDebugState("Entering portal");
+            return new EnterNetherPortalTask(targetDimension, isOurPortal);
+        }
+        setDebugState("Going to portal");
+        return new GetToBlockTask(portal, false);
+    }
+
+    @Override
+    protected void onStop(Task interruptTask) {
+
+    }
+
+    @Override
+    public boolean isFinished() {
+        return WorldHelper.getCurrentDimension() == targetDimension;
+    }
+
+    @Override
+    protected boolean isEqual(Task other) {
+        if (other instanceof EnterKnownNetherPortalTask task) {
+            return task.portal.equals(portal) && task.targetDimension == targetDimension;
+        }
+        return false;
+    }
+
+    @Override
+    protected String toDebugString() {
+        return "Going through known portal at " + portal.toShortString();
+    }
+}
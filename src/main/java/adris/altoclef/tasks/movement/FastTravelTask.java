@@ -4,8 +4,10 @@ import adris.altoclef.AltoClef;
 import adris.altoclef.TaskCatalogue;
 import adris.altoclef.tasks.construction.compound.ConstructNetherPortalObsidianTask;
 import adris.altoclef.tasksystem.Task;
+import adris.altoclef.trackers.NetherPortalGraph;
 import adris.altoclef.util.Dimension;
 import adris.altoclef.util.ItemTarget;
+import adris.altoclef.util.helpers.BaritoneHelper;
 import adris.altoclef.util.helpers.WorldHelper;
 import adris.altoclef.util.time.TimerGame;
 import net.minecraft.block.Blocks;
@@ -23,6 +25,8 @@ public class FastTravelTask extends Task {
 
     // Consider ourselves "mostly close enough" when we're in this range of our ideal portal building location in the nether.
     private static final double IN_NETHER_CLOSE_ENOUGH_THRESHOLD = 15;
+    // Rough guess of how long building and lighting a portal takes, to compare with going through one we know.
+    static final double BUILD_PORTAL_TICKS = 30 * 20;
 
     // Collect flint+steel and diamond pickaxe before entering. Or just walk.
     private final boolean collectPortalMaterialsIfAbsent;
@@ -93,6 +97,17 @@ public class FastTravelTask extends Task {
                     }
                     return new GetToBlockTask(target);
                 }
+                // PORTALS WE'VE USED BEFORE, if they beat building one here, walking the nether and building another there
+                Optional<NetherPortalGraph.Route> knownRoute = mod.getMiscBlockTracker().getPortalGraph()
+                        .planRoute(Dimension.OVERWORLD, mod.getPlayer().getPos(), Dimension.OVERWORLD, target);
+                if (knownRoute.isPresent() && knownRoute.get().getFirstPortal().isPresent()) {
+                    double buildTicks = BaritoneHelper.calculateGenericHeuristic(mod.getPlayer().getX() / 8, mod.getPlayer().getY(), mod.getPlayer().getZ() / 8,
+                            netherTarget.getX(), mod.getPlayer().getY(), netherTarget.getZ()) + 2 * BUILD_PORTAL_TICKS;
+                    if (knownRoute.get().ticks() < buildTicks) {
+                        setDebugState("Going through portals we used before");
+                        return new EnterKnownNetherPortalTask(knownRoute.get().getFirstPortal().get(), Dimension.NETHER);
+                    }
+                }
                 // SUPPLIES
                 if (!canBuildPortal || !canLightPortal) {
                     if (collectPortalMaterialsIfAbsent) {
@@ -126,6 +141,18 @@ public class FastTravelTask extends Task {
                     return _goToOverworldTask;
                 }
 
+                // Use a portal we know if it beats building one at our ideal coordinates
+                Optional<NetherPortalGraph.Route> knownRoute = mod.getMiscBlockTracker().getPortalGraph()
+                        .planRoute(Dimension.NETHER, mod.getPlayer().getPos(), Dimension.OVERWORLD, target);
+                if (knownRoute.isPresent() && knownRoute.get().getFirstPortal().isPresent()) {
+                    double buildTicks = BaritoneHelper.calculateGenericHeuristic(mod.getPlayer().getX(), mod.getPlayer().getY(), mod.getPlayer().getZ(),
+                            netherTarget.getX(), mod.getPlayer().getY(), netherTarget.getZ()) + BUILD_PORTAL_TICKS;
+                    if (knownRoute.get().ticks() < buildTicks) {
+                        setDebugState("Going through a portal we used before");
+                        return new EnterKnownNetherPortalTask(knownRoute.get().getFirstPortal().get(), Dimension.OVERWORLD);
+                    }
+                }
+
                 // PICKUP DROPPED STUFF if we need it
                 if (mod.getItemStorage().getItemCount(Items.OBSIDIAN) < 10) {
                     setDebugState("Making sure we can build our portal");
@@ -3,7 +3,6 @@ package adris.altoclef.tasks.movement;
 import adris.altoclef.AltoClef;
 import adris.altoclef.Debug;
 import adris.altoclef.TaskCatalogue;
-import adris.altoclef.multiversion.blockpos.BlockPosVer;
 import adris.altoclef.tasksystem.Task;
 import adris.altoclef.util.Dimension;
 import adris.altoclef.util.helpers.LookHelper;
@@ -25,15 +24,29 @@ public class LocateStrongholdCoordinatesTask extends Task {
 
     private static final int EYE_RETHROW_DISTANCE = 10; // target distance to stronghold guess before rethrowing
 
-    private static final int SECOND_EYE_THROW_DISTANCE = 30; // target distance between first throw and second throw
+    private static final int SECOND_EYE_THROW_DISTANCE = 30; // target distance between one throw and the next
+
+    // Don't bother throwing more once we're this sure (in blocks), searching that little is quick.
+    private static final double GOOD_ENOUGH_RADIUS = 24;
+    private static final int MAX_THROWS = 5;
+    // What another throw costs: walking to the next throw spot and waiting for the eye, plus getting a new eye if it breaks.
+    private static final double THROW_TICKS = 10 * 20;
+    private static final double EYE_BREAK_CHANCE = 0.2;
+    private static final double NEW_EYE_TICKS = 2 * 60 * 20;
+    // Roughly how much longer searching for the stronghold takes for every block we're unsure about where it is
+    private static final double SEARCH_TICKS_PER_BLOCK = 40;
 
     private final int _targetEyes;
     private final int _minimumEyes;
     private final TimerGame _throwTimer = new TimerGame(5);
+    private final StrongholdTriangulation _triangulation = new StrongholdTriangulation();
+    // The eye we're watching right now
     private LocateStrongholdCoordinatesTask.EyeDirection _cachedEyeDirection = null;
-    private LocateStrongholdCoordinatesTask.EyeDirection _cachedEyeDirection2 = null;
     private Entity _currentThrownEye = null;
     private Vec3i _strongholdEstimatePos = null;
+    private double _strongholdEstimateRadius = Double.POSITIVE_INFINITY;
+    // How many throws we last triangulated with, so we only do it again after a new one
+    private int _triangulatedThrows = 0;
 
     public LocateStrongholdCoordinatesTask(int targetEyes, int minimumEyes) {
         _targetEyes = targetEyes;
@@ -45,25 +58,13 @@ public class LocateStrongholdCoordinatesTask extends Task {
     }
 
 
-    @SuppressWarnings("UnnecessaryLocalVariable")
-    static Vec3i calculateIntersection(Vec3d start1, Vec3d direction1, Vec3d start2, Vec3d direction2) {
-        Vec3d s1 = start1;
-        Vec3d s2 = start2;
-        Vec3d d1 = direction1;
-        Vec3d d2 = direction2;
-        // Solved for s1 + d1 * t1 = s2 + d2 * t2
-        double t2 = ((d1.z * s2.x) - (d1.z * s1.x) - (d1.x * s2.z) + (d1.x * s1.z)) / ((d1.x * d2.z) - (d1.z * d2.x));
-        BlockPos blockPos = BlockPosVer.ofFloored(start2.add(direction2.multiply(t2)));
-        return new Vec3i(blockPos.getX(), 0, blockPos.getZ());
-    }
-
     @Override
     protected void onStart() {
 
     }
 
     public boolean isSearching() {
-        return _cachedEyeDirection != null;
+        return _cachedEyeDirection != null || _triangulation.getThrowCount() > 0;
     }
 
     @Override
@@ -87,24 +88,16 @@ public class LocateStrongholdCoordinatesTask extends Task {
             if (_currentThrownEye == null || !_currentThrownEye.isAlive()) {
                 Debug.logMessage("New eye direction");
                 Debug.logMessage(_currentThrownEye==null?"null":"is not alive");
+                finishEyeDirection();
                 List<EyeOfEnderEntity> enderEyes = mod.getEntityTracker().getTrackedEntities(EyeOfEnderEntity.class);
                 if (!enderEyes.isEmpty()) {
                     for (EyeOfEnderEntity enderEye : enderEyes) {
                         _currentThrownEye = enderEye;
                     }
                 }
-                if (_cachedEyeDirection2 != null) {
-                    _cachedEyeDirection = null;
-                    _cachedEyeDirection2 = null;
-                } else if (_cachedEyeDirection == null) {
-                    _cachedEyeDirection = new LocateStrongholdCoordinatesTask.EyeDirection(_currentThrownEye.getPos());
-                } else {
-                    _cachedEyeDirection2 = new LocateStrongholdCoordinatesTask.EyeDirection(_currentThrownEye.getPos());
-                }
+                _cachedEyeDirection = new LocateStrongholdCoordinatesTask.EyeDirection(_currentThrownEye.getPos());
             }
-            if (_cachedEyeDirection2 != null) {
-                _cachedEyeDirection2.updateEyePos(_currentThrownEye.getPos());
-            } else if (_cachedEyeDirection != null) {
+            if (_cachedEyeDirection != null) {
                 _cachedEyeDirection.updateEyePos(_currentThrownEye.getPos());
             }
 
@@ -119,20 +112,21 @@ public class LocateStrongholdCoordinatesTask extends Task {
         }
 
         // Calculate stronghold position
-        if (_cachedEyeDirection2 != null && !mod.getEntityTracker().entityFound(EyeOfEnderEntity.class) && _strongholdEstimatePos == null) {
-            if (_cachedEyeDirection2.getAngle() >= _cachedEyeDirection.getAngle()) {
-                Debug.logMessage("2nd eye thrown at wrong position, or points to different stronghold. Rethrowing");
-                _cachedEyeDirection = _cachedEyeDirection2;
-                _cachedEyeDirection2 = null;
-            } else {
-                Vec3d throwOrigin = _cachedEyeDirection.getOrigin();
-                Vec3d throwOrigin2 = _cachedEyeDirection2.getOrigin();
-                Vec3d throwDelta = _cachedEyeDirection.getDelta();
-                Vec3d throwDelta2 = _cachedEyeDirection2.getDelta();
-
-
-                _strongholdEstimatePos = calculateIntersection(throwOrigin, throwDelta, throwOrigin2, throwDelta2); // stronghold estimate
-                Debug.logMessage("Stronghold is at " + (int) _strongholdEstimatePos.getX() + ", " + (int) _strongholdEstimatePos.getZ() + " (" + (int) mod.getPlayer().getPos().distanceTo(Vec3d.of(_strongholdEstimatePos)) + " blocks away)");
+        finishEyeDirection();
+        if (_triangulation.getThrowCount() >= 2 && _triangulation.getThrowCount() != _triangulatedThrows && _strongholdEstimatePos == null) {
+            Optional<StrongholdTriangulation.Estimate> estimate = _triangulation.estimate();
+            _triangulatedThrows = _triangulation.getThrowCount();
+            if (estimate.isEmpty()) {
+                Debug.logMessage("Eye thrown at wrong position, or points to different stronghold. Rethrowing");
+                _triangulation.keepOnlyLastThrow();
+                _triangulatedThrows = _triangulation.getThrowCount();
+            } else if (!isAnotherThrowWorthIt(mod, estimate.get())) {
+                Vec3d pos = estimate.get().position();
+                _strongholdEstimatePos = new Vec3i((int) Math.floor(pos.x), 0, (int) Math.floor(pos.z));
+                _strongholdEstimateRadius = estimate.get().confidenceRadius();
+                Debug.logMessage("Stronghold is at " + _strongholdEstimatePos.getX() + ", " + _strongholdEstimatePos.getZ()
+                        + " (within " + (int) Math.ceil(_strongholdEstimateRadius) + " blocks, from " + estimate.get().throwCount() + " throws, "
+                        + (int) mod.getPlayer().getPos().distanceTo(Vec3d.of(_strongholdEstimatePos)) + " blocks away)");
             }
         }
 
@@ -141,8 +135,10 @@ public class LocateStrongholdCoordinatesTask extends Task {
         if (_strongholdEstimatePos != null) {
             if (((mod.getPlayer().getPos().distanceTo(Vec3d.of(_strongholdEstimatePos)) < EYE_RETHROW_DISTANCE) && WorldHelper.getCurrentDimension() == Dimension.OVERWORLD)) {
                 _strongholdEstimatePos = null;
+                _strongholdEstimateRadius = Double.POSITIVE_INFINITY;
                 _cachedEyeDirection = null;
-                _cachedEyeDirection2 = null;
+                _triangulation.clear();
+                _triangulatedThrows = 0;
             }
         }
 
@@ -159,14 +155,15 @@ public class LocateStrongholdCoordinatesTask extends Task {
             }
 
             // First get to a proper throwing height
-            if (_cachedEyeDirection == null) {
+            if (_triangulation.getThrowCount() == 0) {
                 setDebugState("Throwing first eye.");
             } else {
-                setDebugState("Throwing second eye.");
-                double sqDist = mod.getPlayer().squaredDistanceTo(_cachedEyeDirection.getOrigin());
-                // If first eye thrown, go perpendicular from eye direction until a good distance away
-                if (sqDist < SECOND_EYE_THROW_DISTANCE * SECOND_EYE_THROW_DISTANCE && _cachedEyeDirection != null) {
-                    return new GoInDirectionXZTask(_cachedEyeDirection.getOrigin(), _cachedEyeDirection.getDelta().rotateY((float) (Math.PI / 2)), 1);
+                setDebugState("Throwing eye #" + (_triangulation.getThrowCount() + 1) + ".");
+                Vec3d lastOrigin = _triangulation.getLastThrowOrigin().get();
+                double sqDist = mod.getPlayer().getPos().subtract(lastOrigin).horizontalLengthSquared();
+                // Go perpendicular from the last eye's direction until a good distance away
+                if (sqDist < SECOND_EYE_THROW_DISTANCE * SECOND_EYE_THROW_DISTANCE) {
+                    return new GoInDirectionXZTask(lastOrigin, getNextThrowDirection(), 1);
                 }
             }
             // Throw it
@@ -186,18 +183,58 @@ public class LocateStrongholdCoordinatesTask extends Task {
                 Debug.logWarning("Failed to equip eye of ender to throw.");
             }
             return null;
-        } else if (_cachedEyeDirection != null && !_cachedEyeDirection.hasDelta() ||
-                _cachedEyeDirection2 != null && !_cachedEyeDirection2.hasDelta()) {
+        } else if (_cachedEyeDirection != null && !_cachedEyeDirection.hasDelta()) {
             setDebugState("Waiting for thrown eye to appear...");
             return null;
         }
         return null;
     }
 
+    /**
+     * Done watching the last eye, add it to the throws we triangulate with.
+     */
+    private void finishEyeDirection() {
+        if (_cachedEyeDirection != null && _cachedEyeDirection.hasDelta() && (_currentThrownEye == null || !_currentThrownEye.isAlive())) {
+            _triangulation.addThrow(_cachedEyeDirection.getOrigin(), _cachedEyeDirection.getDelta());
+            _cachedEyeDirection = null;
+        }
+    }
+
+    private Vec3d getNextThrowDirection() {
+        return _triangulation.getLastThrowDirection().get().rotateY((float) (Math.PI / 2));
+    }
+
+    /**
+     * Whether throwing another eye would narrow down where the stronghold is enough to make up for the eye and the time.
+     */
+    private boolean isAnotherThrowWorthIt(AltoClef mod, StrongholdTriangulation.Estimate estimate) {
+        if (estimate.confidenceRadius() <= GOOD_ENOUGH_RADIUS || _triangulation.getThrowCount() >= MAX_THROWS) return false;
+        int eyes = mod.getItemStorage().getItemCount(Items.ENDER_EYE);
+        // If it breaks we'd be short of the eyes we need for the portal
+        if (eyes <= _minimumEyes) return false;
+        Vec3d nextThrow = _triangulation.getLastThrowOrigin().get().add(getNextThrowDirection().multiply(SECOND_EYE_THROW_DISTANCE));
+        double radiusAfter = _triangulation.getExpectedConfidenceRadius(estimate, nextThrow);
+        double savedTicks = (estimate.confidenceRadius() - radiusAfter) * SEARCH_TICKS_PER_BLOCK;
+        // Past the eyes we want, losing one costs nothing
+        double costTicks = THROW_TICKS + (eyes > _targetEyes ? 0 : EYE_BREAK_CHANCE * NEW_EYE_TICKS);
+        if (savedTicks > costTicks) {
+            Debug.logMessage("Stronghold estimate is only good to " + (int) Math.ceil(estimate.confidenceRadius()) + " blocks, throwing another eye.");
+            return true;
+        }
+        return false;
+    }
+
     @Override
     protected void onStop(Task interruptTask) {
     }
 
+    /**
+     * @return How far from {@link #getStrongholdCoordinates()} the stronghold could be (in blocks)
+     */
+    public double getStrongholdCoordinatesRadius() {
+        return _strongholdEstimateRadius;
+    }
+
     public Optional<BlockPos> getStrongholdCoordinates() {
         if (_strongholdEstimatePos == null) {
             return Optional.empty();
@@ -242,11 +279,6 @@ public class LocateStrongholdCoordinatesTask extends Task {
             return _end.subtract(_start);
         }
 
-        public double getAngle() {
-            if (_end == null) return 0;
-            return Math.atan2(getDelta().getX(), getDelta().getZ());
-        }
-
         @SuppressWarnings("BooleanMethodIsAlwaysInverted")
         public boolean hasDelta() {
             return _end != null && getDelta().lengthSquared() > 0.00001;
@@ -7,9 +7,9 @@ import adris.altoclef.tasks.resources.SatisfyMiningRequirementTask;
 import adris.altoclef.tasks.slot.EnsureFreeInventorySlotTask;
 import adris.altoclef.tasksystem.ITaskRequiresGrounded;
 import adris.altoclef.tasksystem.Task;
+import adris.altoclef.trackers.blacklisting.DecayingBlacklist;
 import adris.altoclef.util.ItemTarget;
 import adris.altoclef.util.MiningRequirement;
-import adris.altoclef.util.helpers.StlHelper;
 import adris.altoclef.util.helpers.StorageHelper;
 import adris.altoclef.util.helpers.WorldHelper;
 import adris.altoclef.util.progresscheck.MovementProgressChecker;
@@ -21,9 +21,7 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Optional;
-import java.util.Set;
 
 public class PickupDroppedItemTask extends AbstractDoToClosestObjectTask<ItemEntity> implements ITaskRequiresGrounded {
     private static final Task getPickaxeFirstTask = new SatisfyMiningRequirementTask(MiningRequirement.STONE);
@@ -35,7 +33,6 @@ public class PickupDroppedItemTask extends AbstractDoToClosestObjectTask<ItemEnt
     private final ItemTarget[] itemTargets;
 
     // This happens all the time in mineshafts and swamps/jungles
-    private final Set<ItemEntity> _blacklist = new HashSet<>();
     private final boolean _freeInventoryIfFull;
     Block[] annoyingBlocks = new Block[]{
             Blocks.VINE,
@@ -195,9 +192,8 @@ public class PickupDroppedItemTask extends AbstractDoToClosestObjectTask<ItemEnt
                     isGettingPickaxeFirstFlag = true;
                     return getPickaxeFirstTask;
                 }
-                Debug.logMessage(StlHelper.toString(_blacklist, element -> element == null ? "(null)" : element.getStack().getItem().getTranslationKey()));
-                Debug.logMessage("Failed to pick up drop, suggesting it's unreachable.");
-                _blacklist.add(_currentDrop);
+                Debug.logMessage("Failed to pick up drop (" + _currentDrop.getStack().getItem().getTranslationKey() + "), suggesting it's unreachable.");
+                mod.getBlacklist().recordFailure(DecayingBlacklist.Reason.PICKUP_FAILED, DecayingBlacklist.entityKey(_currentDrop), _currentDrop.getPos(), 0);
                 mod.getEntityTracker().requestEntityUnreachable(_currentDrop);
                 return wanderTask;
             }
@@ -281,7 +277,7 @@ public class PickupDroppedItemTask extends AbstractDoToClosestObjectTask<ItemEnt
 
     @Override
     protected boolean isValid(AltoClef mod, ItemEntity obj) {
-        return obj.isAlive() && !_blacklist.contains(obj);
+        return obj.isAlive() && !mod.getBlacklist().isBlacklisted(DecayingBlacklist.Reason.PICKUP_FAILED, DecayingBlacklist.entityKey(obj));
     }
 
 }
@@ -2,6 +2,7 @@ package adris.altoclef.tasks.movement;
 
 import adris.altoclef.AltoClef;
 import adris.altoclef.tasksystem.Task;
+import adris.altoclef.trackers.BlockScanner;
 import net.minecraft.block.Block;
 import net.minecraft.util.math.ChunkPos;
 import org.apache.commons.lang3.ArrayUtils;
@@ -12,11 +13,28 @@ import java.util.HashSet;
 public class SearchChunkForBlockTask extends SearchChunksExploreTask {
 
     private final HashSet<Block> _toSearchFor = new HashSet<>();
+    // Whoever searches for these checks the block scanner for them, so keep them scanned while we search
+    private BlockScanner.Lease _lease;
 
     public SearchChunkForBlockTask(Block... blocks) {
         _toSearchFor.addAll(Arrays.asList(blocks));
     }
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+        _lease = AltoClef.getInstance().getBlockScanner().registerInterest(this, Double.MAX_VALUE, _toSearchFor.toArray(Block[]::new));
+    }
+
+    @Override
+    protected void onStop(Task interruptTask) {
+        super.onStop(interruptTask);
+        if (_lease != null) {
+            _lease.release();
+            _lease = null;
+        }
+    }
+
     @Override
     protected boolean isChunkWithinSearchSpace(AltoClef mod, ChunkPos pos) {
         return mod.getChunkTracker().scanChunk(pos, block -> {
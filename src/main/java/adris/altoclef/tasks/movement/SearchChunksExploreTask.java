@@ -9,7 +9,6 @@ import adris.altoclef.tasksystem.Task;
 import net.minecraft.util.math.ChunkPos;
 
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 
 /**
@@ -27,7 +26,7 @@ public abstract class SearchChunksExploreTask extends Task {
     private Subscription<ChunkLoadEvent> _chunkLoadedSubscription;
 
     // Virtual
-    protected ChunkPos getBestChunkOverride(AltoClef mod, List<ChunkPos> chunks) {
+    protected ChunkPos getBestChunkOverride(AltoClef mod, Set<ChunkPos> chunks) {
         return null;
     }
 
@@ -117,7 +116,7 @@ public abstract class SearchChunksExploreTask extends Task {
         }
 
         @Override
-        public ChunkPos getBestChunk(AltoClef mod, List<ChunkPos> chunks) {
+        public ChunkPos getBestChunk(AltoClef mod, Set<ChunkPos> chunks) {
             ChunkPos override = getBestChunkOverride(mod, chunks);
             if (override != null) return override;
             return super.getBestChunk(mod, chunks);
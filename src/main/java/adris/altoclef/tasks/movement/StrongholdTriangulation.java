@@ -0,0 +1,240 @@
+package adris.altoclef.tasks.movement;
+
+import net.minecraft.util.math.Vec3d;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Works out where a stronghold is from any number of eye of ender throws.
+ * <p>
+ * Each throw is a line (on the XZ plane) from where the eye started, in the direction it flew. We look for the point
+ * closest to all of them with weighted least squares, where a throw counts less the further it is from the point
+ * (a small angle error moves the line more out there) and the shorter the eye flew. Throws that clearly disagree
+ * with the rest (ex. they went for a different stronghold) are dropped. Strongholds only generate in rings around
+ * the world's center, so an estimate outside of them is pulled towards the closest one.
+ * <p>
+ * The estimate comes with a confidence radius (about 95%, from the estimate's covariance), and we can guess how much
+ * smaller another throw from somewhere would make it, to decide whether it's worth the eye.
+ */
+class StrongholdTriangulation {
+
+    // How far off the eye positions we read usually are, in blocks. The eye flies straight at the stronghold, so this is
+    // the only error in its direction: positions come in rounded to 1/4096 of a block, and the client may move the eye a
+    // little on its own between updates.
+    private static final double POSITION_ERROR = 0.002;
+    // Throws further off than this many of their own standard deviations are dropped
+    private static final double OUTLIER_DEVIATIONS = 3;
+    private static final int REWEIGHT_ITERATIONS = 3;
+
+    // Stronghold rings: the first goes from 1280 to 2816 blocks out, and every next one starts 3072 blocks further.
+    private static final double RING_START = 1280;
+    private static final double RING_WIDTH = 1536;
+    private static final double RING_SPACING = 3072;
+    private static final int RING_COUNT = 8;
+    // How strongly an estimate outside the rings is pulled in, in blocks
+    private static final double RING_ERROR = 150;
+
+    private final List<Throw> throwsSoFar = new ArrayList<>();
+
+    /**
+     * @param origin    Where the eye started
+     * @param direction Which way it went (horizontal unit vector)
+     * @param length    How far it went before we last saw it
+     */
+    private record Throw(Vec3d origin, Vec3d direction, double length) {
+        private double getAngleError() {
+            // Both the start and the end we read are off a bit
+            return Math.sqrt(2) * POSITION_ERROR / Math.max(length, 0.1);
+        }
+    }
+
+    /**
+     * @param position         Best guess of the stronghold (y is always 0)
+     * @param confidenceRadius It's most likely within this many blocks of {@code position}
+     */
+    record Estimate(Vec3d position, double confidenceRadius, int throwCount) {
+    }
+
+    /**
+     * Sums for the least squares normal equations: a point p minimizes the weighted distance to every line when
+     * [xx xz; xz zz] p = [x; z]
+     */
+    private static class NormalEquations {
+        double xx, xz, zz, x, z;
+
+        /**
+         * Add "the point is on the line through {@code origin} with this normal" with a standard deviation in blocks.
+         */
+        void add(Vec3d origin, double normalX, double normalZ, double deviation) {
+            double weight = 1 / (deviation * deviation);
+            double offset = normalX * origin.x + normalZ * origin.z;
+            xx += weight * normalX * normalX;
+            xz += weight * normalX * normalZ;
+            zz += weight * normalZ * normalZ;
+            x += weight * normalX * offset;
+            z += weight * normalZ * offset;
+        }
+
+        double getDeterminant() {
+            return xx * zz - xz * xz;
+        }
+
+        Vec3d solve() {
+            double det = getDeterminant();
+            return new Vec3d((zz * x - xz * z) / det, 0, (xx * z - xz * x) / det);
+        }
+
+        /**
+         * @return About a 95% confidence radius: two standard deviations along the estimate's worst direction.
+         */
+        double getConfidenceRadius() {
+            double det = getDeterminant();
+            // Covariance is the inverse, its largest eigenvalue is the largest variance.
+            double a = zz / det, b = -xz / det, c = xx / det;
+            double largestVariance = (a + c) / 2 + Math.sqrt((a - c) * (a - c) / 4 + b * b);
+            return 2 * Math.sqrt(largestVariance);
+        }
+    }
+
+    public void addThrow(Vec3d origin, Vec3d delta) {
+        Vec3d horizontal = new Vec3d(delta.x, 0, delta.z);
+        double length = horizontal.length();
+        if (length < 0.001) return;
+        throwsSoFar.add(new Throw(new Vec3d(origin.x, 0, origin.z), horizontal.multiply(1 / length), length));
+    }
+
+    public int getThrowCount() {
+        return throwsSoFar.size();
+    }
+
+    public Optional<Vec3d> getLastThrowOrigin() {
+        return throwsSoFar.isEmpty() ? Optional.empty() : Optional.of(throwsSoFar.get(throwsSoFar.size() - 1).origin());
+    }
+
+    public Optional<Vec3d> getLastThrowDirection() {
+        return throwsSoFar.isEmpty() ? Optional.empty() : Optional.of(throwsSoFar.get(throwsSoFar.size() - 1).direction());
+    }
+
+    /**
+     * Forget every throw but the last, for when they can't be pointing at the same stronghold.
+     */
+    public void keepOnlyLastThrow() {
+        while (throwsSoFar.size() > 1) {
+            throwsSoFar.remove(0);
+        }
+    }
+
+    public void clear() {
+        throwsSoFar.clear();
+    }
+
+    /**
+     * @return Nothing if we don't have two throws yet, or the ones we have don't meet in front of each other.
+     */
+    public Optional<Estimate> estimate() {
+        while (throwsSoFar.size() >= 2) {
+            Optional<Vec3d> position = solve(throwsSoFar);
+            if (position.isEmpty()) return Optional.empty();
+
+            // With three or more we can tell which one doesn't fit
+            if (throwsSoFar.size() >= 3) {
+                Throw worst = null;
+                double worstDeviations = OUTLIER_DEVIATIONS;
+                for (Throw t : throwsSoFar) {
+                    double deviations = getDistanceToLine(t, position.get()) / getDeviation(t, position.get());
+                    if (deviations > worstDeviations) {
+                        worstDeviations = deviations;
+                        worst = t;
+                    }
+                }
+                if (worst != null) {
+                    throwsSoFar.remove(worst);
+                    continue;
+                }
+            }
+            for (Throw t : throwsSoFar) {
+                if (t.direction().dotProduct(position.get().subtract(t.origin())) < 0) {
+                    // Behind this throw, they don't point at the same place.
+                    return Optional.empty();
+                }
+            }
+            NormalEquations equations = getEquations(throwsSoFar, position.get(), true);
+            return Optional.of(new Estimate(position.get(), equations.getConfidenceRadius(), throwsSoFar.size()));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * How big the confidence radius would get if we threw another eye from {@code origin}, assuming it points right at
+     * our current estimate.
+     */
+    public double getExpectedConfidenceRadius(Estimate estimate, Vec3d origin) {
+        List<Throw> withNext = new ArrayList<>(throwsSoFar);
+        Vec3d toEstimate = estimate.position().subtract(origin.x, 0, origin.z);
+        double length = toEstimate.length();
+        if (length < 0.001) return 0;
+        // Eyes fly about 12 blocks before they drop
+        withNext.add(new Throw(new Vec3d(origin.x, 0, origin.z), toEstimate.multiply(1 / length), 12));
+        return getEquations(withNext, estimate.position(), true).getConfidenceRadius();
+    }
+
+    private static Optional<Vec3d> solve(List<Throw> throwList) {
+        // Start with every throw equal, then weigh them by how far they are from the estimate.
+        Vec3d position = null;
+        for (int i = 0; i < REWEIGHT_ITERATIONS; ++i) {
+            NormalEquations equations = getEquations(throwList, position, false);
+            if (Math.abs(equations.getDeterminant()) < 1e-12) return Optional.empty(); // Parallel
+            position = equations.solve();
+        }
+        NormalEquations equations = getEquations(throwList, position, true);
+        if (Math.abs(equations.getDeterminant()) < 1e-12) return Optional.empty();
+        return Optional.of(equations.solve());
+    }
+
+    private static NormalEquations getEquations(List<Throw> throwList, Vec3d position, boolean useRings) {
+        NormalEquations equations = new NormalEquations();
+        for (Throw t : throwList) {
+            double deviation = position == null ? 1 : getDeviation(t, position);
+            // The line's normal
+            equations.add(t.origin(), -t.direction().z, t.direction().x, deviation);
+        }
+        if (useRings && position != null) {
+            double radius = Math.sqrt(position.x * position.x + position.z * position.z);
+            double ringRadius = getClosestRingRadius(radius);
+            if (radius > 0.001 && ringRadius != radius) {
+                double normalX = position.x / radius, normalZ = position.z / radius;
+                equations.add(new Vec3d(normalX * ringRadius, 0, normalZ * ringRadius), normalX, normalZ, RING_ERROR);
+            }
+        }
+        return equations;
+    }
+
+    private static double getDeviation(Throw t, Vec3d position) {
+        double distance = position.subtract(t.origin()).horizontalLength();
+        return Math.max(distance * t.getAngleError(), POSITION_ERROR);
+    }
+
+    private static double getDistanceToLine(Throw t, Vec3d position) {
+        Vec3d offset = position.subtract(t.origin());
+        return Math.abs(-t.direction().z * offset.x + t.direction().x * offset.z);
+    }
+
+    /**
+     * @return {@code radius} if it's inside a ring, otherwise the closest ring edge.
+     */
+    private static double getClosestRingRadius(double radius) {
+        double closest = RING_START;
+        for (int ring = 0; ring < RING_COUNT; ++ring) {
+            double start = RING_START + ring * RING_SPACING;
+            double end = start + RING_WIDTH;
+            if (radius >= start && radius <= end) return radius;
+            double edge = radius < start ? start : end;
+            if (Math.abs(edge - radius) < Math.abs(closest - radius)) {
+                closest = edge;
+            }
+        }
+        return closest;
+    }
+}
@@ -20,8 +20,10 @@ import net.minecraft.entity.mob.MobEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.screen.slot.SlotActionType;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.Vec3d;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -57,6 +59,9 @@ public class TimeoutWanderTask extends Task implements ITaskRequiresGrounded {
     private Task _unstuckTask = null;
     private int failCounter;
     private double _wanderDistanceExtension;
+    // The edge of explored land we're heading to, see SimpleChunkTracker.getBestFrontier
+    private ChunkPos frontier = null;
+    private final HashSet<ChunkPos> failedFrontiers = new HashSet<>();
 
     public TimeoutWanderTask(float distanceToWander, boolean increaseRange) {
         this.distanceToWander = distanceToWander;
@@ -139,6 +144,8 @@ public class TimeoutWanderTask extends Task implements ITaskRequiresGrounded {
         progressChecker.reset();
         stuckCheck.reset();
         failCounter = 0;
+        frontier = null;
+        failedFrontiers.clear();
         ItemStack cursorStack = StorageHelper.getItemStackInCursorSlot();
         if (!cursorStack.isEmpty()) {
             Optional<Slot> moveTo = mod.getItemStorage().getSlotThatCanFitInPlayerInventory(cursorStack, false);
@@ -195,7 +202,8 @@ public class TimeoutWanderTask extends Task implements ITaskRequiresGrounded {
                 if (CloseEntities instanceof MobEntity &&
                         CloseEntities.getPos().isInRange(mod.getPlayer().getPos(), 1)) {
                     setDebugState("Killing annoying entity.");
-                    return new KillEntitiesTask(CloseEntities.getClass());
+                    Class<? extends Entity> toKill = CloseEntities.getClass();
+                    return reuseSubtask(() -> new KillEntitiesTask(toKill), toKill);
                 }
             }
             BlockPos blockStuck = stuckInBlock(mod);
@@ -221,19 +229,45 @@ public class TimeoutWanderTask extends Task implements ITaskRequiresGrounded {
                 }
             }
         }
-        if (!mod.getClientBaritone().getExploreProcess().isActive()) {
-            mod.getClientBaritone().getExploreProcess().explore((int) origin.getX(), (int) origin.getZ());
-        }
         if (!progressChecker.check(mod)) {
             progressChecker.reset();
+            if (frontier != null) {
+                // Probably can't get there, try somewhere else
+                failedFrontiers.add(frontier);
+                frontier = null;
+            }
             if (!_forceExplore) {
                 failCounter++;
                 Debug.logMessage("Failed exploring.");
             }
         }
+        // Head for the closest land we haven't seen yet, preferably further away from where we started
+        if (frontier == null || mod.getChunkTracker().isChunkExplored(frontier)) {
+            frontier = mod.getChunkTracker().getBestFrontier(getExploreHeading(mod), failedFrontiers::contains).orElse(null);
+        }
+        if (frontier != null) {
+            if (mod.getClientBaritone().getExploreProcess().isActive()) {
+                mod.getClientBaritone().getExploreProcess().onLostControl();
+            }
+            ChunkPos target = frontier;
+            return reuseSubtask(() -> new GetToChunkTask(target), target);
+        }
+        // We don't know what we've explored (ex. we just got here), let baritone pick
+        if (!mod.getClientBaritone().getExploreProcess().isActive()) {
+            mod.getClientBaritone().getExploreProcess().explore((int) origin.getX(), (int) origin.getZ());
+        }
         return null;
     }
 
+    private Vec3d getExploreHeading(AltoClef mod) {
+        Vec3d away = mod.getPlayer().getPos().subtract(origin);
+        if (away.horizontalLengthSquared() > 16 * 16) {
+            return away;
+        }
+        // Still close to where we started, keep going the way we're looking
+        return mod.getPlayer().getRotationVector();
+    }
+
     @Override
     protected void onStop(Task interruptTask) {
         AltoClef.getInstance().getClientBaritone().getPathingBehavior().forceCancel();
@@ -2,6 +2,7 @@ package adris.altoclef.tasks.speedrun;
 
 import adris.altoclef.AltoClef;
 import adris.altoclef.Debug;
+import adris.altoclef.multiversion.world.WorldVer;
 import adris.altoclef.tasks.construction.DestroyBlockTask;
 import adris.altoclef.tasks.construction.PlaceBlockTask;
 import adris.altoclef.tasks.movement.GetToBlockTask;
@@ -54,7 +55,8 @@ public class KillEnderDragonWithBedsTask extends Task {
     @Override
     protected void onStart() {
         // do not block our view
-        AltoClef.getInstance().getBehaviour().avoidBlockPlacing((pos) -> pos.getZ() == 0 && Math.abs(pos.getX()) < 5);
+        AltoClef mod = AltoClef.getInstance();
+        mod.getBehaviour().avoidBlockPlacing(new BlockPos(-4, WorldVer.getBottomY(mod.getWorld()), 0), new BlockPos(4, WorldVer.getTopY(mod.getWorld()), 0));
     }
 
     @Override
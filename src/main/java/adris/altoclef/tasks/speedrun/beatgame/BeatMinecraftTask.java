@@ -18,6 +18,7 @@ import adris.altoclef.tasks.misc.SleepThroughNightTask;
 import adris.altoclef.tasks.movement.*;
 import adris.altoclef.tasks.resources.*;
 import adris.altoclef.tasks.speedrun.*;
+import adris.altoclef.tasks.speedrun.beatgame.prioritytask.PriorityTaskScheduler;
 import adris.altoclef.tasks.speedrun.beatgame.prioritytask.prioritycalculators.CollectFoodPriorityCalculator;
 import adris.altoclef.tasks.speedrun.beatgame.prioritytask.prioritycalculators.DistanceItemPriorityCalculator;
 import adris.altoclef.tasks.speedrun.beatgame.prioritytask.prioritycalculators.StaticItemPriorityCalculator;
@@ -77,6 +78,8 @@ public class BeatMinecraftTask extends Task {
     );
 
     private static final int END_PORTAL_FRAME_COUNT = 12;
+    // Blocks we only check now and then (ex. once we get to a certain stage) but want found by then. Renewed every tick.
+    private static final double RARE_BLOCK_INTEREST_SECONDS = 30;
     private static final double END_PORTAL_BED_SPAWN_RANGE = 8;
 
     // We don't want curse of binding
@@ -105,9 +108,11 @@ public class BeatMinecraftTask extends Task {
     private final TimerGame timer2 = new TimerGame(35);
     private final TimerGame timer3 = new TimerGame(60);
     private final List<PriorityTask> gatherResources = new LinkedList<>();
+    private final PriorityTaskScheduler gatherScheduler = new PriorityTaskScheduler(gatherResources);
     private final TimerGame changedTaskTimer = new TimerGame(3);
     private final TimerGame forcedTaskTimer = new TimerGame(10);
     private final List<BlockPos> blacklistedChests = new LinkedList<>();
+    private BlockScanner.Lease rareBlockLease;
     private final TimerGame waterPlacedTimer = new TimerGame(1.5);
     private final TimerGame fortressTimer = new TimerGame(20);
     private final AltoClef mod;
@@ -876,6 +881,10 @@ public class BeatMinecraftTask extends Task {
         mod.getExtraBaritoneSettings().canWalkOnEndPortal(false);
 
         mod.getBehaviour().pop();
+        if (rareBlockLease != null) {
+            rareBlockLease.release();
+            rareBlockLease = null;
+        }
 
         Debug.logInternal("Stopped onStop method");
         Debug.logInternal("canWalkOnEndPortal set to false");
@@ -1049,6 +1058,10 @@ public class BeatMinecraftTask extends Task {
         avoidBreakingBed(mod);
 
         mod.getBehaviour().avoidBlockBreaking((pos) -> mod.getWorld().getBlockState(pos).getBlock().equals(Blocks.NETHER_PORTAL));
+
+        rareBlockLease = mod.getBlockScanner().registerInterest(this, RARE_BLOCK_INTEREST_SECONDS,
+                ArrayUtils.addAll(ItemHelper.itemsToBlocks(ItemHelper.BED),
+                        Blocks.END_PORTAL_FRAME, Blocks.END_PORTAL, Blocks.SPAWNER, Blocks.CRAFTING_TABLE, Blocks.SMOKER, Blocks.FURNACE));
     }
 
     /**
@@ -1183,6 +1196,9 @@ public class BeatMinecraftTask extends Task {
     @Override
     protected Task onTick() {
         ItemStorageTracker itemStorage = mod.getItemStorage();
+        if (rareBlockLease != null) {
+            rareBlockLease.renew();
+        }
 
         double blockPlacementPenalty = 10;
         if (StorageHelper.getNumberOfThrowawayBlocks(mod) > 128) {
@@ -1588,14 +1604,14 @@ public class BeatMinecraftTask extends Task {
 
         // make new pickaxe if old one breaks
         if (itemStorage.getItemCount(Items.DIAMOND) >= 3 && !itemStorage.hasItem(Items.DIAMOND_PICKAXE, Items.IRON_PICKAXE)) {
-            return TaskCatalogue.getItemTask(Items.DIAMOND_PICKAXE, 1);
+            return reuseSubtask(() -> TaskCatalogue.getItemTask(Items.DIAMOND_PICKAXE, 1));
         } else if (itemStorage.getItemCount(Items.IRON_INGOT) >= 3 && !itemStorage.hasItem(Items.DIAMOND_PICKAXE, Items.IRON_PICKAXE)) {
-            return TaskCatalogue.getItemTask(Items.IRON_PICKAXE, 1);
+            return reuseSubtask(() -> TaskCatalogue.getItemTask(Items.IRON_PICKAXE, 1));
         } else if (!itemStorage.hasItem(Items.DIAMOND_PICKAXE, Items.IRON_PICKAXE, Items.STONE_PICKAXE)) {
-            return TaskCatalogue.getItemTask(Items.STONE_PICKAXE, 1);
+            return reuseSubtask(() -> TaskCatalogue.getItemTask(Items.STONE_PICKAXE, 1));
         }
         if (!itemStorage.hasItem(Items.DIAMOND_PICKAXE, Items.IRON_PICKAXE, Items.STONE_PICKAXE, Items.WOODEN_PICKAXE)) {
-            return TaskCatalogue.getItemTask(Items.WOODEN_PICKAXE, 1);
+            return reuseSubtask(() -> TaskCatalogue.getItemTask(Items.WOODEN_PICKAXE, 1));
         }
 
         // We have eyes. Locate our portal + enter.
@@ -1645,11 +1661,11 @@ public class BeatMinecraftTask extends Task {
             }
             if (!itemStorage.hasItem(Items.WATER_BUCKET)) {
                 setDebugState("Getting water bucket.");
-                return TaskCatalogue.getItemTask(Items.WATER_BUCKET, 1);
+                return reuseSubtask(() -> TaskCatalogue.getItemTask(Items.WATER_BUCKET, 1));
             }
             if (!itemStorage.hasItem(Items.FLINT_AND_STEEL)) {
                 setDebugState("Getting flint and steel.");
-                return TaskCatalogue.getItemTask(Items.FLINT_AND_STEEL, 1);
+                return reuseSubtask(() -> TaskCatalogue.getItemTask(Items.FLINT_AND_STEEL, 1));
             }
             if (needsBuildingMaterials(mod)) {
                 setDebugState("Collecting building materials.");
@@ -1701,7 +1717,7 @@ public class BeatMinecraftTask extends Task {
                             setDebugState("waitin " + waterPlacedTimer.getDuration());
                             return null;
                         }
-                        return TaskCatalogue.getItemTask(Items.OBSIDIAN, 1);
+                        return reuseSubtask(() -> TaskCatalogue.getItemTask(Items.OBSIDIAN, 1));
                     } else {
                         if (repeated > 2 && !itemStorage.hasItem(Items.WATER_BUCKET)) {
                             return new CollectBucketLiquidTask.CollectWaterBucketTask(1);
@@ -1919,10 +1935,10 @@ public class BeatMinecraftTask extends Task {
         int targetBeds = getTargetBeds(mod);
         if (!mod.getItemStorage().hasItem(Items.SHEARS) && !anyBedsFound(mod)) {
             Debug.logInternal("Getting shears.");
-            return TaskCatalogue.getItemTask(Items.SHEARS, 1);
+            return reuseSubtask(() -> TaskCatalogue.getItemTask(Items.SHEARS, 1));
         }
         Debug.logInternal("Getting beds.");
-        return TaskCatalogue.getItemTask("bed", targetBeds);
+        return reuseSubtask(() -> TaskCatalogue.getItemTask("bed", targetBeds), targetBeds);
     }
 
     /**
@@ -2072,13 +2088,14 @@ public class BeatMinecraftTask extends Task {
         if (needsBlazePowder && !needsBlazeRods) {
             // We have enough blaze rods.
             setDebugState("Crafting blaze powder");
-            return TaskCatalogue.getItemTask(Items.BLAZE_POWDER, targetEyes - eyeCount);
+            int blazePowderNeeded = targetEyes - eyeCount;
+            return reuseSubtask(() -> TaskCatalogue.getItemTask(Items.BLAZE_POWDER, blazePowderNeeded), blazePowderNeeded);
         }
 
         if (!needsBlazePowder && !needsEnderPearls) {
             // Craft ender eyes
             setDebugState("Crafting Ender Eyes");
-            return TaskCatalogue.getItemTask(Items.ENDER_EYE, targetEyes);
+            return reuseSubtask(() -> TaskCatalogue.getItemTask(Items.ENDER_EYE, targetEyes), targetEyes);
         }
 
 
@@ -2100,14 +2117,8 @@ public class BeatMinecraftTask extends Task {
                         return lastTask;
                     }
 
-                    for (PriorityTask gatherResource : gatherResources) {
-                        double priority = gatherResource.calculatePriority(mod);
-
-                        if (priority > maxPriority) {
-                            maxPriority = priority;
-                            toGather = gatherResource;
-                        }
-                    }
+                    toGather = gatherScheduler.getBest(mod);
+                    maxPriority = gatherScheduler.getBestPriority();
                 }
                 if (toGather != null) {
                     boolean sameTask = lastGather == toGather;
@@ -2193,14 +2204,14 @@ public class BeatMinecraftTask extends Task {
                 // TODO refactor duplicated code
                 ItemStorageTracker itemStorage = mod.getItemStorage();
                 if (itemStorage.getItemCount(Items.DIAMOND) >= 3 && !itemStorage.hasItem(Items.DIAMOND_PICKAXE, Items.IRON_PICKAXE)) {
-                    return TaskCatalogue.getItemTask(Items.DIAMOND_PICKAXE, 1);
+                    return reuseSubtask(() -> TaskCatalogue.getItemTask(Items.DIAMOND_PICKAXE, 1));
                 } else if (itemStorage.getItemCount(Items.IRON_INGOT) >= 3 && !itemStorage.hasItem(Items.DIAMOND_PICKAXE, Items.IRON_PICKAXE)) {
-                    return TaskCatalogue.getItemTask(Items.IRON_PICKAXE, 1);
+                    return reuseSubtask(() -> TaskCatalogue.getItemTask(Items.IRON_PICKAXE, 1));
                 } else if (!itemStorage.hasItem(Items.DIAMOND_PICKAXE, Items.IRON_PICKAXE, Items.STONE_PICKAXE)) {
-                    return TaskCatalogue.getItemTask(Items.STONE_PICKAXE, 1);
+                    return reuseSubtask(() -> TaskCatalogue.getItemTask(Items.STONE_PICKAXE, 1));
                 }
                 if (!itemStorage.hasItem(Items.DIAMOND_PICKAXE, Items.IRON_PICKAXE, Items.STONE_PICKAXE, Items.WOODEN_PICKAXE)) {
-                    return TaskCatalogue.getItemTask(Items.WOODEN_PICKAXE, 1);
+                    return reuseSubtask(() -> TaskCatalogue.getItemTask(Items.WOODEN_PICKAXE, 1));
                 }
 
                 // DO NOT INTERRUPT GOING TO NETHER
@@ -2247,14 +2258,14 @@ public class BeatMinecraftTask extends Task {
                 // make new pickaxe if old one breaks
                 ItemStorageTracker itemStorage = mod.getItemStorage();
                 if (itemStorage.getItemCount(Items.DIAMOND) >= 3 && !itemStorage.hasItem(Items.DIAMOND_PICKAXE, Items.IRON_PICKAXE)) {
-                    return TaskCatalogue.getItemTask(Items.DIAMOND_PICKAXE, 1);
+                    return reuseSubtask(() -> TaskCatalogue.getItemTask(Items.DIAMOND_PICKAXE, 1));
                 } else if (itemStorage.getItemCount(Items.IRON_INGOT) >= 3 && !itemStorage.hasItem(Items.DIAMOND_PICKAXE, Items.IRON_PICKAXE)) {
-                    return TaskCatalogue.getItemTask(Items.IRON_PICKAXE, 1);
+                    return reuseSubtask(() -> TaskCatalogue.getItemTask(Items.IRON_PICKAXE, 1));
                 } else if (!itemStorage.hasItem(Items.DIAMOND_PICKAXE, Items.IRON_PICKAXE, Items.STONE_PICKAXE)) {
-                    return TaskCatalogue.getItemTask(Items.STONE_PICKAXE, 1);
+                    return reuseSubtask(() -> TaskCatalogue.getItemTask(Items.STONE_PICKAXE, 1));
                 }
                 if (!itemStorage.hasItem(Items.DIAMOND_PICKAXE, Items.IRON_PICKAXE, Items.STONE_PICKAXE, Items.WOODEN_PICKAXE)) {
-                    return TaskCatalogue.getItemTask(Items.WOODEN_PICKAXE, 1);
+                    return reuseSubtask(() -> TaskCatalogue.getItemTask(Items.WOODEN_PICKAXE, 1));
                 }
 
                 if (mod.getItemStorage().getItemCount(Items.BLAZE_ROD) * 2 + mod.getItemStorage().getItemCount(Items.BLAZE_POWDER) + mod.getItemStorage().getItemCount(Items.ENDER_EYE) >= 14) {
@@ -0,0 +1,127 @@
+package adris.altoclef.tasks.speedrun.beatgame.prioritytask;
+
+import adris.altoclef.AltoClef;
+import adris.altoclef.multiversion.blockpos.BlockPosVer;
+import adris.altoclef.tasks.resources.MineAndCollectTask;
+import adris.altoclef.util.helpers.WorldHelper;
+import net.minecraft.block.Block;
+import net.minecraft.entity.ItemEntity;
+import net.minecraft.item.Item;
+import net.minecraft.util.Pair;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Closest block, closest drop and item count lookups shared by all priority calculators.
+ * <p>
+ * The speedrun scores every priority task every tick, and many of them ask about the same blocks and items.
+ * Drops and item counts are remembered for the current tick. Closest blocks are remembered until we move
+ * {@link #REUSE_DISTANCE} blocks or {@link #REUSE_MAX_TICKS} ticks pass, as long as the block is still there.
+ */
+public class PriorityQueryCache {
+
+    private static final double REUSE_DISTANCE = 2;
+    // So blocks the scanner found since are still picked up
+    private static final long REUSE_MAX_TICKS = 20;
+
+    private static final Map<List<Block>, CachedBlock> closestBlocks = new HashMap<>();
+    private static final Map<List<Item>, Optional<ItemEntity>> closestDrops = new HashMap<>();
+    private static final Map<List<Item>, Integer> itemCounts = new HashMap<>();
+
+    private static long currentTick = Long.MIN_VALUE;
+    private static Vec3d currentTickPos = null;
+
+    private record CachedBlock(Optional<BlockPos> pos, Vec3d queriedFrom, long tick) {
+    }
+
+    /**
+     * Same as {@link MineAndCollectTask.MineOrCollectTask#getClosestBlock}
+     */
+    public static Pair<Double, Optional<BlockPos>> getClosestBlock(AltoClef mod, Vec3d pos, Block... blocks) {
+        refresh(mod);
+        List<Block> key = Arrays.asList(blocks);
+        CachedBlock cached = closestBlocks.get(key);
+        if (cached != null && canReuse(mod, cached, pos, blocks)) {
+            return new Pair<>(
+                    cached.pos().map(blockPos -> BlockPosVer.getSquaredDistance(blockPos, pos)).orElse(Double.POSITIVE_INFINITY),
+                    cached.pos()
+            );
+        }
+        Pair<Double, Optional<BlockPos>> result = MineAndCollectTask.MineOrCollectTask.getClosestBlock(mod, pos, blocks);
+        closestBlocks.put(key, new CachedBlock(result.getRight(), pos, currentTick));
+        return result;
+    }
+
+    /**
+     * Same as {@link MineAndCollectTask.MineOrCollectTask#getClosestItemDrop}
+     */
+    public static Pair<Double, Optional<ItemEntity>> getClosestItemDrop(AltoClef mod, Vec3d pos, Item... items) {
+        refresh(mod);
+        Optional<ItemEntity> closestDrop;
+        if (pos.equals(currentTickPos)) {
+            closestDrop = closestDrops.computeIfAbsent(Arrays.asList(items), key -> findClosestItemDrop(mod, pos, items));
+        } else {
+            // Only drops relative to where we stand are shared
+            closestDrop = findClosestItemDrop(mod, pos, items);
+        }
+        return new Pair<>(
+                // + 10 to make the bot stop mining a bit less
+                closestDrop.map(itemEntity -> itemEntity.squaredDistanceTo(pos) + 10).orElse(Double.POSITIVE_INFINITY),
+                closestDrop
+        );
+    }
+
+    /**
+     * Same as {@link adris.altoclef.trackers.storage.ItemStorageTracker#getItemCount(Item...)}
+     */
+    public static int getItemCount(AltoClef mod, Item... items) {
+        refresh(mod);
+        return itemCounts.computeIfAbsent(Arrays.asList(items), key -> mod.getItemStorage().getItemCount(items));
+    }
+
+    private static Optional<ItemEntity> findClosestItemDrop(AltoClef mod, Vec3d pos, Item[] items) {
+        if (mod.getEntityTracker().itemDropped(items)) {
+            return mod.getEntityTracker().getClosestItemDrop(pos, items);
+        }
+        return Optional.empty();
+    }
+
+    private static boolean canReuse(AltoClef mod, CachedBlock cached, Vec3d pos, Block[] blocks) {
+        if (cached.tick() == currentTick && cached.queriedFrom().equals(pos)) {
+            return true;
+        }
+        if (currentTick - cached.tick() >= REUSE_MAX_TICKS || !cached.queriedFrom().isInRange(pos, REUSE_DISTANCE)) {
+            return false;
+        }
+        if (cached.pos().isEmpty()) {
+            return true;
+        }
+        // Make sure it wasn't mined or found unreachable in the meantime.
+        BlockPos blockPos = cached.pos().get();
+        if (!mod.getChunkTracker().isChunkLoaded(blockPos) || mod.getBlockScanner().isUnreachable(blockPos) || !WorldHelper.canBreak(blockPos)) {
+            return false;
+        }
+        Block actual = mod.getWorld().getBlockState(blockPos).getBlock();
+        for (Block block : blocks) {
+            if (block == actual) return true;
+        }
+        return false;
+    }
+
+    // Drop anything that was only good for last tick.
+    private static void refresh(AltoClef mod) {
+        long tick = mod.getWorld().getTime();
+        if (tick != currentTick) {
+            closestDrops.clear();
+            itemCounts.clear();
+            currentTick = tick;
+            currentTickPos = mod.getPlayer().getPos();
+        }
+    }
+}
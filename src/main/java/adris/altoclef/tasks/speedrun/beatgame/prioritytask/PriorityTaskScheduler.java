@@ -0,0 +1,185 @@
+package adris.altoclef.tasks.speedrun.beatgame.prioritytask;
+
+import adris.altoclef.AltoClef;
+import adris.altoclef.tasks.speedrun.beatgame.prioritytask.tasks.PriorityTask;
+import adris.altoclef.util.Dimension;
+import adris.altoclef.util.helpers.WorldHelper;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Picks the highest priority task out of a list without re-scoring every task every tick.
+ * <p>
+ * Scores are kept in a heap and only recalculated when they might have changed: when the inventory, the block scanner
+ * results or the dimension change, or when a score gets older than {@link #MAX_SCORE_AGE_TICKS} (priorities also depend
+ * on where we stand and on state the tasks keep themselves). Stale tasks are re-scored best first until the tick's time
+ * budget runs out, and tasks whose {@link PriorityTask#getPriorityUpperBound()} can't beat the best score so far are
+ * skipped. The task we end up returning is freshly scored, unless we run out of time checking the top of the heap, in
+ * which case we stick with the task we returned last tick and finish checking next tick.
+ * <p>
+ * Scoring stays on the client thread: the calculators read the live world and update their own state.
+ */
+public class PriorityTaskScheduler {
+
+    private static final int MAX_SCORE_AGE_TICKS = 10;
+    private static final long TICK_BUDGET_NANOS = 2_000_000;
+
+    private final List<PriorityTask> tasks;
+    private final List<Entry> entries = new ArrayList<>();
+    // Highest score first, then first added (same as scanning the list in order)
+    private final PriorityQueue<Entry> ranked = new PriorityQueue<>(
+            Comparator.comparingDouble((Entry entry) -> -entry.score).thenComparingInt(entry -> entry.index)
+    );
+
+    private long lastInventoryRevision = -1;
+    private long lastScanRevision = -1;
+    private Dimension lastDimension = null;
+
+    private double bestPriority = 0;
+    // What we returned last tick, to fall back on when we're out of time
+    private Entry lastBest = null;
+
+    private static class Entry {
+        final PriorityTask task;
+        final int index;
+        double score = Double.POSITIVE_INFINITY;
+        long scoredTick = Long.MIN_VALUE;
+        // If set, score is only the task's upper bound and it was never actually scored
+        boolean bounded = true;
+
+        Entry(PriorityTask task, int index) {
+            this.task = task;
+            this.index = index;
+        }
+    }
+
+    /**
+     * @param tasks The tasks to pick from. Can be changed later, the scheduler notices when its size changes.
+     */
+    public PriorityTaskScheduler(List<PriorityTask> tasks) {
+        this.tasks = tasks;
+    }
+
+    /**
+     * @return The task with the highest priority, or null if none of them have a priority above 0.
+     */
+    public PriorityTask getBest(AltoClef mod) {
+        long tick = mod.getWorld().getTime();
+        if (entries.size() != tasks.size()) {
+            rebuild();
+        }
+        if (entries.isEmpty()) {
+            bestPriority = 0;
+            lastBest = null;
+            return null;
+        }
+
+        long inventoryRevision = mod.getItemStorage().getInventoryRevision();
+        long scanRevision = mod.getBlockScanner().getScanRevision();
+        Dimension dimension = WorldHelper.getCurrentDimension();
+        boolean inputsChanged = inventoryRevision != lastInventoryRevision || scanRevision != lastScanRevision || dimension != lastDimension;
+        lastInventoryRevision = inventoryRevision;
+        lastScanRevision = scanRevision;
+        lastDimension = dimension;
+
+        List<Entry> stale = new ArrayList<>();
+        double bestFresh = Double.NEGATIVE_INFINITY;
+        for (Entry entry : entries) {
+            if (inputsChanged || entry.bounded || tick - entry.scoredTick >= MAX_SCORE_AGE_TICKS || tick < entry.scoredTick) {
+                stale.add(entry);
+            } else {
+                bestFresh = Math.max(bestFresh, entry.score);
+            }
+        }
+
+        // Most promising first, so the budget goes to tasks that can actually win
+        double[] bounds = new double[entries.size()];
+        for (Entry entry : stale) {
+            bounds[entry.index] = entry.task.getPriorityUpperBound();
+        }
+        // (oldest first on ties, so tasks we ran out of time for last tick go first)
+        stale.sort(Comparator.comparingDouble((Entry entry) -> -bounds[entry.index])
+                .thenComparingLong(entry -> entry.scoredTick)
+                .thenComparingInt(entry -> entry.index));
+
+        long deadline = System.nanoTime() + TICK_BUDGET_NANOS;
+        for (Entry entry : stale) {
+            double bound = bounds[entry.index];
+            if (bound <= bestFresh || bound <= 0) {
+                // Can't win, so don't bother scoring it
+                setScore(entry, bound, tick, true);
+                continue;
+            }
+            if (System.nanoTime() > deadline) {
+                // Out of time, the rest keep their old score (and are checked below if one of them ends up on top)
+                break;
+            }
+            score(mod, entry, tick);
+            bestFresh = Math.max(bestFresh, entry.score);
+        }
+
+        // Whatever ends up on top must have a real, current score
+        Entry top = ranked.peek();
+        while (top != null && (top.bounded || top.scoredTick != tick) && top.score > 0) {
+            if (System.nanoTime() > deadline && lastBest != null && !lastBest.bounded) {
+                // Out of time, keep going with last tick's pick. The top is still stale, so it gets scored first next tick.
+                top = lastBest;
+                break;
+            }
+            score(mod, top, tick);
+            top = ranked.peek();
+        }
+
+        if (top == null || top.score <= 0) {
+            bestPriority = 0;
+            lastBest = null;
+            return null;
+        }
+        bestPriority = top.score;
+        lastBest = top;
+        return top.task;
+    }
+
+    /**
+     * @return The priority of the task last returned by {@link #getBest(AltoClef)}.
+     */
+    public double getBestPriority() {
+        return bestPriority;
+    }
+
+    /**
+     * Forget all scores, so every task is scored again next time.
+     */
+    public void invalidate() {
+        lastDimension = null;
+    }
+
+    private void score(AltoClef mod, Entry entry, long tick) {
+        setScore(entry, entry.task.calculatePriority(mod), tick, false);
+    }
+
+    private void setScore(Entry entry, double score, long tick, boolean bounded) {
+        // Re-insert so the heap sees the new score
+        ranked.remove(entry);
+        entry.score = score;
+        entry.scoredTick = tick;
+        entry.bounded = bounded;
+        ranked.add(entry);
+    }
+
+    private void rebuild() {
+        entries.clear();
+        ranked.clear();
+        lastBest = null;
+        int index = 0;
+        for (PriorityTask task : tasks) {
+            Entry entry = new Entry(task, index++);
+            entries.add(entry);
+            ranked.add(entry);
+        }
+        invalidate();
+    }
+}
@@ -23,6 +23,10 @@ public abstract class DistancePriorityCalculator {
     }
 
 
+    public boolean maxCountSatisfied() {
+        return maxCountSatisfied;
+    }
+
     public double getPriority(double distance) {
         if (Double.isInfinite(distance) || distance == Integer.MAX_VALUE || maxCountSatisfied) return Double.NEGATIVE_INFINITY;
 
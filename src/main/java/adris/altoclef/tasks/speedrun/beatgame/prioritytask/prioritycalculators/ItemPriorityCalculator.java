@@ -32,5 +32,12 @@ public abstract class ItemPriorityCalculator {
 
     abstract double calculatePriority(int count);
 
+    /**
+     * The most {@link #getPriority(int)} can return, for any count.
+     */
+    public double getUpperBound() {
+        return maxCountSatisfied ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+    }
+
 
 }
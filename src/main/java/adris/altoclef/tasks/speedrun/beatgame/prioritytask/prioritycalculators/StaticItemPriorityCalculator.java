@@ -17,4 +17,9 @@ public class StaticItemPriorityCalculator extends ItemPriorityCalculator{
     double calculatePriority(int count) {
         return priority;
     }
+
+    @Override
+    public double getUpperBound() {
+        return maxCountSatisfied ? Double.NEGATIVE_INFINITY : priority;
+    }
 }
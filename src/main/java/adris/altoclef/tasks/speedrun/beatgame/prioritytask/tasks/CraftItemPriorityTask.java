@@ -56,10 +56,11 @@ public class CraftItemPriorityTask extends PriorityTask{
     @Override
     protected double getPriority(AltoClef mod) {
         if (BeatMinecraftTask.hasItem(mod, recipeTarget.getOutputItem())) {
-            Debug.logInternal("THIS IS SATISFIED "+recipeTarget.getOutputItem());
+            Debug.logInternal(Debug.Category.TASKS, "THIS IS SATISFIED %s", recipeTarget.getOutputItem());
             satisfied = true;
+        } else {
+            Debug.logInternal(Debug.Category.TASKS, "NOT SATISFIED %s", recipeTarget.getOutputItem());
         }
-        Debug.logInternal("NOT SATISFIED");
 
         if (satisfied) return Double.NEGATIVE_INFINITY;
 
@@ -67,6 +68,11 @@ public class CraftItemPriorityTask extends PriorityTask{
     }
 
 
+    @Override
+    public double getPriorityUpperBound() {
+        return satisfied ? Double.NEGATIVE_INFINITY : priority;
+    }
+
     @Override
     public boolean needCraftingOnStart(AltoClef mod) {
         return CraftingHelper.canCraftItemNow(mod, recipeTarget.getOutputItem());
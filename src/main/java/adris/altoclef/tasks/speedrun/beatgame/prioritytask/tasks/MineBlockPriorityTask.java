@@ -2,6 +2,7 @@ package adris.altoclef.tasks.speedrun.beatgame.prioritytask.tasks;
 
 import adris.altoclef.AltoClef;
 import adris.altoclef.tasks.resources.MineAndCollectTask;
+import adris.altoclef.tasks.speedrun.beatgame.prioritytask.PriorityQueryCache;
 import adris.altoclef.tasks.speedrun.beatgame.prioritytask.prioritycalculators.DistancePriorityCalculator;
 import adris.altoclef.tasksystem.Task;
 import adris.altoclef.util.ItemTarget;
@@ -65,18 +66,24 @@ public class MineBlockPriorityTask extends PriorityTask{
         if (!StorageHelper.miningRequirementMet(miningRequirement)) return Double.NEGATIVE_INFINITY;
 
         double closestDist = getClosestDist(mod);
-        int itemCount = mod.getItemStorage().getItemCount(droppedItem);
+        int itemCount = PriorityQueryCache.getItemCount(mod, droppedItem);
 
         prioritySupplier.update(itemCount);
         return prioritySupplier.getPriority(closestDist);
     }
 
 
+    @Override
+    public double getPriorityUpperBound() {
+        return prioritySupplier.maxCountSatisfied() ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+    }
+
     private double getClosestDist(AltoClef mod) {
         Vec3d pos = mod.getPlayer().getPos();
 
-        Pair<Double, Optional<BlockPos>> closestBlock = MineAndCollectTask.MineOrCollectTask.getClosestBlock(mod,pos,  toMine);
-        Pair<Double, Optional<ItemEntity>> closestDrop = MineAndCollectTask.MineOrCollectTask.getClosestItemDrop(mod,pos, droppedItemTargets);
+        // Other tasks are likely asking about the same blocks/drops this tick
+        Pair<Double, Optional<BlockPos>> closestBlock = PriorityQueryCache.getClosestBlock(mod, pos, toMine);
+        Pair<Double, Optional<ItemEntity>> closestDrop = PriorityQueryCache.getClosestItemDrop(mod, pos, droppedItem);
 
         return Math.min(closestBlock.getLeft(), closestDrop.getLeft());
     }
@@ -39,6 +39,14 @@ public abstract class PriorityTask {
     // maybe pass distance as well?
     protected abstract double getPriority(AltoClef mod);
 
+    /**
+     * A cheap guess that {@link #calculatePriority(AltoClef)} will never go above, used to skip tasks that can't win.
+     * Must not look at the world, only at the task's own state.
+     */
+    public double getPriorityUpperBound() {
+        return Double.POSITIVE_INFINITY;
+    }
+
     public boolean needCraftingOnStart(AltoClef mod) {
         return false;
     }
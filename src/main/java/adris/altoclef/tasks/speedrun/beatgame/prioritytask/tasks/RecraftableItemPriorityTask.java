@@ -22,4 +22,9 @@ public class RecraftableItemPriorityTask extends CraftItemPriorityTask{
 
         return super.getPriority(mod);
     }
+
+    @Override
+    public double getPriorityUpperBound() {
+        return isSatisfied() ? recraftPriority : super.getPriorityUpperBound();
+    }
 }
@@ -2,6 +2,7 @@ package adris.altoclef.tasks.speedrun.beatgame.prioritytask.tasks;
 
 import adris.altoclef.AltoClef;
 import adris.altoclef.TaskCatalogue;
+import adris.altoclef.tasks.speedrun.beatgame.prioritytask.PriorityQueryCache;
 import adris.altoclef.tasks.speedrun.beatgame.prioritytask.prioritycalculators.ItemPriorityCalculator;
 import adris.altoclef.tasksystem.Task;
 import adris.altoclef.util.ItemTarget;
@@ -56,7 +57,7 @@ public class ResourcePriorityTask extends PriorityTask {
 
         int count = 0;
         for (ItemTarget target : collect) {
-            count += mod.getItemStorage().getItemCount(target.getMatches());
+            count += PriorityQueryCache.getItemCount(mod, target.getMatches());
         }
 
         if (count >= priorityCalculator.maxCount) {
@@ -67,6 +68,11 @@ public class ResourcePriorityTask extends PriorityTask {
     }
 
 
+    @Override
+    public double getPriorityUpperBound() {
+        return collected ? Double.NEGATIVE_INFINITY : priorityCalculator.getUpperBound();
+    }
+
     public boolean isCollected() {
         return collected;
     }
@@ -2,11 +2,16 @@ package adris.altoclef.tasksystem;
 
 import adris.altoclef.Debug;
 import adris.altoclef.tasks.movement.TimeoutWanderTask;
+import adris.altoclef.util.DebugCounters;
 
+import java.util.Arrays;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 public abstract class Task {
 
+    private static final DebugCounters.Counter reusedSubtasks = DebugCounters.register("Subtask allocations avoided");
+
     private String oldDebugState = "";
     private String debugState = "";
 
@@ -18,10 +23,31 @@ public abstract class Task {
 
     private boolean active = false;
 
+    // Where and with what key our current sub was made through reuseSubtask (null if it wasn't)
+    private Class<?> subSite = null;
+    private Object[] subKey = null;
+    // Last task made by reuseSubtask this tick, until we see whether it becomes our sub
+    private Task createdTask = null;
+    private Class<?> createdSite = null;
+    private Object[] createdKey = null;
+
+    // How long our last tick took (children included), only measured while tracing
+    private long lastTickNanos = 0;
+
     public void tick(TaskChain parentChain) {
+        if (TaskTraceRecorder.isRecording()) {
+            long start = System.nanoTime();
+            tickInternal(parentChain);
+            lastTickNanos = System.nanoTime() - start;
+        } else {
+            tickInternal(parentChain);
+        }
+    }
+
+    private void tickInternal(TaskChain parentChain) {
         parentChain.addTaskToChain(this);
         if (first) {
-            Debug.logInternal("Task START: " + this);
+            Debug.logInternal(Debug.Category.TASKS, () -> "Task START: " + this);
             active = true;
             onStart();
             first = false;
@@ -32,7 +58,7 @@ public abstract class Task {
         Task newSub = onTick();
         // Debug state print
         if (!oldDebugState.equals(debugState)) {
-            Debug.logInternal(toString());
+            Debug.logInternal(Debug.Category.TASKS, this::toString);
             oldDebugState = debugState;
         }
         // We have a sub task
@@ -46,7 +72,11 @@ public abstract class Task {
                     }
 
                     sub = newSub;
+                    rememberSubKey(newSub);
                 }
+            } else if (newSub != sub) {
+                // We keep our old sub, but it can now be reused under the new one's key
+                rememberSubKey(newSub);
             }
 
             // Run our child
@@ -57,8 +87,43 @@ public abstract class Task {
                 // Our previous sub must be interrupted.
                 sub.stop();
                 sub = null;
+                rememberSubKey(null);
             }
         }
+        createdTask = null;
+        createdKey = null;
+    }
+
+    /**
+     * Return our current sub task if it was made by this same {@code create} with an equal key, otherwise make a new one.
+     * <p>
+     * Meant for {@link #onTick()}s that return a freshly made task every tick, which we'd only compare to our current
+     * sub with {@link #isEqual(Task)} and throw away. The key must include everything {@code create} depends on besides
+     * constants, ex. {@code reuseSubtask(() -> TaskCatalogue.getItemTask(item, count), item, count)}.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T extends Task> T reuseSubtask(Supplier<T> create, Object... key) {
+        // Every lambda/method reference in the source gets its own class, so this tells call sites apart.
+        Class<?> site = create.getClass();
+        if (sub != null && site == subSite && Arrays.equals(key, subKey)) {
+            reusedSubtasks.increment();
+            return (T) sub;
+        }
+        T result = create.get();
+        createdTask = result;
+        createdSite = site;
+        createdKey = key;
+        return result;
+    }
+
+    private void rememberSubKey(Task newSub) {
+        if (newSub != null && newSub == createdTask) {
+            subSite = createdSite;
+            subKey = createdKey;
+        } else {
+            subSite = null;
+            subKey = null;
+        }
     }
 
     public void reset() {
@@ -76,7 +141,7 @@ public abstract class Task {
      */
     public void stop(Task interruptTask) {
         if (!active) return;
-        Debug.logInternal("Task STOP: " + this + ", interrupted by " + interruptTask);
+        Debug.logInternal(Debug.Category.TASKS, () -> "Task STOP: " + this + ", interrupted by " + interruptTask);
         if (!first) {
             onStop(interruptTask);
         }
@@ -110,6 +175,14 @@ public abstract class Task {
         first = true;
     }
 
+    long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    String getDebugState() {
+        return debugState;
+    }
+
     protected void setDebugState(String state) {
         if (state == null) {
             state = "";
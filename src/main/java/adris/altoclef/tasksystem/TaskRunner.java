@@ -44,6 +44,7 @@ public class TaskRunner {
         if (maxChain != null) {
             statusReport = "Chain: "+maxChain.getName() + ", priority: "+maxPriority;
             maxChain.tick();
+            TaskTraceRecorder.recordFrame(maxChain);
         } else {
             statusReport = " (no chain running) ";
         }
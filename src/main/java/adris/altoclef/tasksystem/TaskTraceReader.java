@@ -0,0 +1,196 @@
+package adris.altoclef.tasksystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Turns the files written by {@link TaskTraceRecorder} into something we can look at:
+ * <ul>
+ *     <li>A flame graph in the "folded stacks" format ({@code chain;task;subtask nanos} per line), which
+ *     flamegraph.pl, speedscope and most profilers can open. Each task gets its self time (without its children).</li>
+ *     <li>A timeline of which task path was running, one line per change.</li>
+ *     <li>The task subtrees that took the most time in total.</li>
+ * </ul>
+ * Doesn't need the game, so it can also be run on its own: {@code java -cp <mod jar> adris.altoclef.tasksystem.TaskTraceReader [trace files...]}
+ * (reads every trace in {@code altoclef/traces} if none are given).
+ */
+public class TaskTraceReader {
+
+    // (chain;task;task...) -> self nanos
+    private final Map<String, Long> selfNanos = new HashMap<>();
+    // (chain;task;task...) -> nanos including children
+    private final Map<String, Long> totalNanos = new HashMap<>();
+    private final List<String> timeline = new ArrayList<>();
+    private long frames = 0;
+
+    private String timelinePath = null;
+    private String timelineState = null;
+    private long timelineStart = 0;
+    private long timelineLast = 0;
+
+    public static void main(String[] args) throws IOException {
+        List<File> files = new ArrayList<>();
+        for (String arg : args) {
+            files.add(new File(arg));
+        }
+        if (files.isEmpty()) {
+            files = getTraceFiles();
+        }
+        if (files.isEmpty()) {
+            System.out.println("No trace files found in " + TaskTraceRecorder.TRACE_FOLDER.getAbsolutePath());
+            return;
+        }
+        TaskTraceReader reader = new TaskTraceReader();
+        for (File file : files) {
+            reader.read(file);
+        }
+        File output = reader.writeReport(files.get(files.size() - 1));
+        System.out.println("Read " + reader.getFrameCount() + " frames, wrote " + output.getPath() + ".folded/.timeline.txt");
+        for (String line : reader.getSlowestSubtrees(20)) {
+            System.out.println(line);
+        }
+    }
+
+    /**
+     * @return All trace files in the trace folder, oldest first.
+     */
+    public static List<File> getTraceFiles() {
+        File[] files = TaskTraceRecorder.TRACE_FOLDER.listFiles();
+        if (files == null) return Collections.emptyList();
+        List<File> result = new ArrayList<>();
+        for (File file : files) {
+            if (TaskTraceRecorder.getIndex(file) >= 0) {
+                result.add(file);
+            }
+        }
+        result.sort(Comparator.comparingInt(TaskTraceRecorder::getIndex));
+        return result;
+    }
+
+    public void read(File file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < 4 + 2 + 8 || buffer.getInt() != TaskTraceRecorder.MAGIC) {
+            throw new IOException(file + " is not a task trace");
+        }
+        short version = buffer.getShort();
+        if (version != TaskTraceRecorder.VERSION) {
+            throw new IOException(file + " is from an unsupported trace version (" + version + ")");
+        }
+        buffer.getLong(); // Start time
+        Map<Integer, String> strings = new HashMap<>();
+        try {
+            while (buffer.hasRemaining()) {
+                byte type = buffer.get();
+                if (type == TaskTraceRecorder.RECORD_STRING) {
+                    int id = buffer.getInt();
+                    byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+                    buffer.get(bytes);
+                    strings.put(id, new String(bytes, StandardCharsets.UTF_8));
+                } else if (type == TaskTraceRecorder.RECORD_FRAME) {
+                    readFrame(buffer, strings);
+                } else {
+                    // End of what was written (the rest of the file is zeroes)
+                    break;
+                }
+            }
+        } catch (BufferUnderflowException | BufferOverflowException e) {
+            // Cut off mid record (ex. the game crashed), keep what we have.
+        }
+        endTimelineEntry();
+    }
+
+    private void readFrame(ByteBuffer buffer, Map<Integer, String> strings) {
+        long tick = buffer.getLong();
+        String chain = strings.getOrDefault(buffer.getInt(), "?");
+        int depth = buffer.getShort();
+        String[] names = new String[depth];
+        String[] states = new String[depth];
+        long[] nanos = new long[depth];
+        for (int i = 0; i < depth; ++i) {
+            names[i] = strings.getOrDefault(buffer.getInt(), "?").replace(';', ',');
+            states[i] = strings.getOrDefault(buffer.getInt(), "");
+            nanos[i] = buffer.getLong();
+        }
+        frames++;
+
+        StringBuilder path = new StringBuilder(chain.replace(';', ','));
+        for (int i = 0; i < depth; ++i) {
+            path.append(';').append(names[i]);
+            String key = path.toString();
+            // Each task's time includes its child's, which comes right after it in the path.
+            long self = i + 1 < depth ? Math.max(0, nanos[i] - nanos[i + 1]) : nanos[i];
+            selfNanos.merge(key, self, Long::sum);
+            totalNanos.merge(key, nanos[i], Long::sum);
+        }
+        if (depth == 0) {
+            selfNanos.merge(path.toString(), 0L, Long::sum);
+        }
+
+        String fullPath = path.toString();
+        String state = depth > 0 ? states[depth - 1] : "";
+        if (!fullPath.equals(timelinePath) || !state.equals(timelineState) || tick != timelineLast + 1) {
+            endTimelineEntry();
+            timelinePath = fullPath;
+            timelineState = state;
+            timelineStart = tick;
+        }
+        timelineLast = tick;
+    }
+
+    private void endTimelineEntry() {
+        if (timelinePath != null) {
+            timeline.add("ticks " + timelineStart + "-" + timelineLast + ": " + timelinePath.replace(";", " > ")
+                    + (timelineState.isEmpty() ? "" : " (" + timelineState + ")"));
+        }
+        timelinePath = null;
+    }
+
+    public long getFrameCount() {
+        return frames;
+    }
+
+    /**
+     * @return The task subtrees that took the most time in total, as readable lines, slowest first.
+     */
+    public List<String> getSlowestSubtrees(int count) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(totalNanos.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < Math.min(count, entries.size()); ++i) {
+            Map.Entry<String, Long> entry = entries.get(i);
+            String[] path = entry.getKey().split(";");
+            result.add(String.format(Locale.US, "%.1f ms: %s (depth %d)", entry.getValue() / 1_000_000.0, path[path.length - 1], path.length - 1));
+        }
+        return result;
+    }
+
+    /**
+     * Write the flame graph (.folded) and timeline (.timeline.txt) next to a trace file.
+     *
+     * @return The trace file the outputs are named after.
+     */
+    public File writeReport(File traceFile) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new File(traceFile.getPath() + ".folded"), StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Long> entry : selfNanos.entrySet()) {
+                writer.println(entry.getKey() + " " + entry.getValue());
+            }
+        }
+        try (PrintWriter writer = new PrintWriter(new File(traceFile.getPath() + ".timeline.txt"), StandardCharsets.UTF_8)) {
+            for (String line : timeline) {
+                writer.println(line);
+            }
+        }
+        return traceFile;
+    }
+}
@@ -0,0 +1,236 @@
+package adris.altoclef.tasksystem;
+
+import adris.altoclef.Debug;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records which tasks ran each tick and how long they took, into compact binary trace files we can go through after
+ * a long run (see {@link TaskTraceReader}).
+ * <p>
+ * Every tick the running chain's task path is written as one frame: the tick number, the chain, and for each task
+ * its id, debug state id and how many nanoseconds its {@link Task#tick} took (children included). Task descriptions
+ * and debug states are written once as string records and referred to by id afterwards.
+ * <p>
+ * Frames go into a memory mapped file in {@code altoclef/traces}. When it's full we start a new one, and only the last
+ * {@link #KEPT_FILES} are kept. Every file defines its own strings, so each can be read on its own.
+ * <p>
+ * Only used from the client thread.
+ */
+public class TaskTraceRecorder {
+
+    static final int MAGIC = 0x41435452; // "ACTR"
+    static final short VERSION = 1;
+    static final byte RECORD_END = 0;
+    static final byte RECORD_STRING = 1;
+    static final byte RECORD_FRAME = 2;
+
+    static final File TRACE_FOLDER = Paths.get("altoclef", "traces").toFile();
+    static final String TRACE_PREFIX = "trace-";
+    static final String TRACE_EXTENSION = ".bin";
+
+    private static final int FILE_SIZE = 64 * 1024 * 1024;
+    private static final int KEPT_FILES = 4;
+    private static final int MAX_STRING_BYTES = 512;
+    // Start defining strings/task ids again after this many, so long runs don't hold on to every task ever made.
+    private static final int MAX_REMEMBERED = 16384;
+
+    private static boolean recording = false;
+    private static MappedByteBuffer buffer = null;
+    private static int fileIndex = 0;
+    // Bumped every time we move on to a new file
+    private static int fileGeneration = 0;
+    private static long tick = 0;
+
+    private static final Map<String, Integer> stringIds = new HashMap<>();
+    private static final Map<Task, Integer> taskIds = new IdentityHashMap<>();
+    private static int nextStringId = 0;
+
+    public static boolean isRecording() {
+        return recording;
+    }
+
+    public static void start() {
+        if (recording) return;
+        tick = 0;
+        try {
+            openNextFile();
+        } catch (IOException e) {
+            Debug.logWarning("Failed to start task trace: " + e.getMessage());
+            return;
+        }
+        recording = true;
+    }
+
+    public static void stop() {
+        if (!recording) return;
+        recording = false;
+        closeFile();
+    }
+
+    /**
+     * @return The file we're currently writing to, or null if we aren't recording.
+     */
+    public static File getCurrentFile() {
+        return recording ? getTraceFile(fileIndex) : null;
+    }
+
+    /**
+     * Called once a tick, after the chain ran.
+     */
+    static void recordFrame(TaskChain chain) {
+        if (!recording) return;
+        tick++;
+        int generation = fileGeneration;
+        List<Task> tasks = chain.getTasks();
+        int depth = Math.min(tasks.size(), Short.MAX_VALUE);
+
+        // Define anything new first, so the frame itself can't be split over two files
+        int chainId = getStringId(chain.getName());
+        int[] ids = new int[depth * 2];
+        for (int i = 0; i < depth; ++i) {
+            Task task = tasks.get(i);
+            ids[i * 2] = getTaskId(task);
+            ids[i * 2 + 1] = getStringId(task.getDebugState());
+        }
+        if (!recording) return;
+
+        int frameSize = 1 + 8 + 4 + 2 + depth * (4 + 4 + 8);
+        if (!ensureSpace(frameSize)) return;
+        if (generation != fileGeneration) {
+            // We rolled over to a new file, so the ids above mean nothing in it. The next frame defines them again.
+            return;
+        }
+        buffer.put(RECORD_FRAME);
+        buffer.putLong(tick);
+        buffer.putInt(chainId);
+        buffer.putShort((short) depth);
+        for (int i = 0; i < depth; ++i) {
+            buffer.putInt(ids[i * 2]);
+            buffer.putInt(ids[i * 2 + 1]);
+            buffer.putLong(tasks.get(i).getLastTickNanos());
+        }
+    }
+
+    private static int getTaskId(Task task) {
+        Integer id = taskIds.get(task);
+        if (id == null) {
+            if (taskIds.size() >= MAX_REMEMBERED) {
+                taskIds.clear();
+            }
+            id = getStringId(task.getClass().getSimpleName() + ": " + task.toDebugString());
+            taskIds.put(task, id);
+        }
+        return id;
+    }
+
+    private static int getStringId(String value) {
+        Integer id = stringIds.get(value);
+        if (id != null) return id;
+        if (stringIds.size() >= MAX_REMEMBERED) {
+            stringIds.clear();
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            bytes = Arrays.copyOf(bytes, MAX_STRING_BYTES);
+        }
+        if (!ensureSpace(1 + 4 + 2 + bytes.length)) return -1;
+        id = nextStringId++;
+        buffer.put(RECORD_STRING);
+        buffer.putInt(id);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+        stringIds.put(value, id);
+        return id;
+    }
+
+    /**
+     * Make sure the current file has room for a record, moving on to the next file if it doesn't.
+     */
+    private static boolean ensureSpace(int bytes) {
+        // Always leave room for the end marker
+        if (buffer.remaining() > bytes) return true;
+        try {
+            openNextFile();
+            return true;
+        } catch (IOException e) {
+            Debug.logWarning("Failed to roll task trace, stopping: " + e.getMessage());
+            stop();
+            return false;
+        }
+    }
+
+    private static void openNextFile() throws IOException {
+        closeFile();
+        if (!TRACE_FOLDER.exists() && !TRACE_FOLDER.mkdirs()) {
+            throw new IOException("Could not create " + TRACE_FOLDER);
+        }
+        fileIndex = findLatestIndex() + 1;
+        // Forget the oldest. On some systems a file that's still mapped can't be deleted, we'll get it next time.
+        File[] files = TRACE_FOLDER.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                int index = getIndex(file);
+                if (index >= 0 && index <= fileIndex - KEPT_FILES) {
+                    file.delete();
+                }
+            }
+        }
+        try (RandomAccessFile file = new RandomAccessFile(getTraceFile(fileIndex), "rw");
+             FileChannel channel = file.getChannel()) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+        }
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putLong(System.currentTimeMillis());
+        stringIds.clear();
+        taskIds.clear();
+        nextStringId = 0;
+        fileGeneration++;
+    }
+
+    private static void closeFile() {
+        if (buffer == null) return;
+        if (buffer.hasRemaining()) {
+            buffer.put(RECORD_END);
+        }
+        buffer.force();
+        buffer = null;
+    }
+
+    static File getTraceFile(int index) {
+        return new File(TRACE_FOLDER, TRACE_PREFIX + String.format("%06d", index) + TRACE_EXTENSION);
+    }
+
+    static int getIndex(File file) {
+        String name = file.getName();
+        if (!name.startsWith(TRACE_PREFIX) || !name.endsWith(TRACE_EXTENSION)) return -1;
+        try {
+            return Integer.parseInt(name.substring(TRACE_PREFIX.length(), name.length() - TRACE_EXTENSION.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int findLatestIndex() {
+        int latest = 0;
+        File[] files = TRACE_FOLDER.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                latest = Math.max(latest, getIndex(file));
+            }
+        }
+        return latest;
+    }
+}
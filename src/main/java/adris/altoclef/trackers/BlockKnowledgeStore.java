@@ -0,0 +1,391 @@
+package adris.altoclef.trackers;
+
+import adris.altoclef.Debug;
+import adris.altoclef.util.Dimension;
+import net.minecraft.block.Block;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ServerInfo;
+import net.minecraft.server.integrated.IntegratedServer;
+import net.minecraft.registry.Registries;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.WorldSavePath;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Remembers where the less common blocks were (ores, portals, chests, logs...) across sessions, so the block scanner
+ * doesn't have to find them all over again after every reconnect.
+ * <p>
+ * Stored per server and dimension in {@code altoclef/knowledge}, one compressed file per 32x32 chunk region. Regions
+ * are only read once we get near them. Every time the scanner scans a chunk, whatever we had on it is replaced,
+ * so blocks that were mined or changed since don't stick around.
+ * <p>
+ * Read and written from both the client thread and the block scanner's thread. Disk reads only happen on the
+ * scanner's thread, and no disk access happens while holding the lock {@link #isKnown} needs, so the client thread
+ * never waits on the disk to ask about a block.
+ */
+public class BlockKnowledgeStore {
+
+    private static final File KNOWLEDGE_FOLDER = Paths.get("altoclef", "knowledge").toFile();
+    private static final int MAGIC = 0x41434B53; // "ACKS"
+    private static final short VERSION = 1;
+
+    // Block types found more times than this in a chunk are too common to be worth remembering (stone, dirt, water...)
+    public static final int MAX_REMEMBERED_PER_CHUNK = 128;
+    // Regions further than this (in regions) from where we ask about are saved and dropped from memory
+    private static final int KEPT_REGION_DISTANCE = 2;
+    private static final long SAVE_INTERVAL_MS = 60_000;
+
+    private final Map<Long, Region> regions = new HashMap<>();
+    // Held for all disk access, always taken before the lock on this.
+    private final Object ioLock = new Object();
+    private volatile File folder = null;
+    private long lastSave = 0;
+
+    private static class Region {
+        // Local chunk index (0-1023) -> what we found on it
+        final Map<Integer, ChunkEntry> chunks = new HashMap<>();
+        boolean dirty = false;
+    }
+
+    /**
+     * @param blocks Block of each position
+     * @param packed Positions within the chunk, see {@link #pack}
+     */
+    private record ChunkEntry(Block[] blocks, int[] packed) {
+    }
+
+    /**
+     * Switch to the current server/dimension, saving what we had for the last one.
+     */
+    public void setWorld(Dimension dimension) {
+        synchronized (ioLock) {
+            saveDirty();
+            String worldKey = getWorldKey();
+            synchronized (this) {
+                regions.clear();
+                folder = worldKey == null ? null : new File(new File(KNOWLEDGE_FOLDER, worldKey), dimension.name().toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    /**
+     * Replace everything we know about a chunk with what a scan just found in it.
+     *
+     * @param found The rare blocks found, see {@link #MAX_REMEMBERED_PER_CHUNK}
+     */
+    public void onChunkScanned(ChunkPos chunk, Map<Block, List<BlockPos>> found) {
+        if (folder == null) return;
+        ensureRegionLoaded(chunk.getRegionX(), chunk.getRegionZ());
+        synchronized (this) {
+            Region region = regions.get(ChunkPos.toLong(chunk.getRegionX(), chunk.getRegionZ()));
+            // Dropped again (changed worlds or moved far away) since we loaded it
+            if (region == null) return;
+            putChunk(region, chunk, found);
+        }
+    }
+
+    private static void putChunk(Region region, ChunkPos chunk, Map<Block, List<BlockPos>> found) {
+        int count = 0;
+        for (List<BlockPos> positions : found.values()) {
+            count += positions.size();
+        }
+        if (count == 0) {
+            if (region.chunks.remove(getLocalIndex(chunk)) != null) {
+                region.dirty = true;
+            }
+            return;
+        }
+        Block[] blocks = new Block[count];
+        int[] packed = new int[count];
+        int i = 0;
+        for (Map.Entry<Block, List<BlockPos>> entry : found.entrySet()) {
+            for (BlockPos pos : entry.getValue()) {
+                blocks[i] = entry.getKey();
+                packed[i] = pack(pos);
+                i++;
+            }
+        }
+        region.chunks.put(getLocalIndex(chunk), new ChunkEntry(blocks, packed));
+        region.dirty = true;
+    }
+
+    /**
+     * Give every remembered block within {@code radius} chunks, loading regions from disk as needed.
+     *
+     * @param skip Chunks to leave out (ex. ones that are loaded and were just scanned anyway)
+     */
+    public void forEachKnownBlock(ChunkPos center, int radius, Predicate<ChunkPos> skip, BiConsumer<Block, BlockPos> consumer) {
+        if (folder == null) return;
+        unloadFarRegions(center);
+        for (int regionX = (center.x - radius) >> 5; regionX <= (center.x + radius) >> 5; ++regionX) {
+            for (int regionZ = (center.z - radius) >> 5; regionZ <= (center.z + radius) >> 5; ++regionZ) {
+                ensureRegionLoaded(regionX, regionZ);
+            }
+        }
+        synchronized (this) {
+            forEachLoadedBlock(center, radius, skip, consumer);
+        }
+    }
+
+    /**
+     * Like {@link #forEachKnownBlock}, but only looks at regions already in memory, so it never touches the disk and
+     * is fine to call from the client thread.
+     */
+    public synchronized void forEachKnownBlockInMemory(ChunkPos center, int radius, Predicate<ChunkPos> skip, BiConsumer<Block, BlockPos> consumer) {
+        if (folder == null) return;
+        forEachLoadedBlock(center, radius, skip, consumer);
+    }
+
+    private void forEachLoadedBlock(ChunkPos center, int radius, Predicate<ChunkPos> skip, BiConsumer<Block, BlockPos> consumer) {
+        for (int regionX = (center.x - radius) >> 5; regionX <= (center.x + radius) >> 5; ++regionX) {
+            for (int regionZ = (center.z - radius) >> 5; regionZ <= (center.z + radius) >> 5; ++regionZ) {
+                Region region = regions.get(ChunkPos.toLong(regionX, regionZ));
+                if (region == null) continue;
+                for (Map.Entry<Integer, ChunkEntry> entry : region.chunks.entrySet()) {
+                    int chunkX = (regionX << 5) + (entry.getKey() & 31);
+                    int chunkZ = (regionZ << 5) + (entry.getKey() >> 5);
+                    if (Math.abs(chunkX - center.x) > radius || Math.abs(chunkZ - center.z) > radius) continue;
+                    ChunkPos chunk = new ChunkPos(chunkX, chunkZ);
+                    if (skip.test(chunk)) continue;
+                    ChunkEntry known = entry.getValue();
+                    for (int i = 0; i < known.packed().length; ++i) {
+                        consumer.accept(known.blocks()[i], unpack(chunk, known.packed()[i]));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether we remember a block being at a position. Only looks at regions already in memory.
+     */
+    public synchronized boolean isKnown(BlockPos pos, Block block) {
+        if (folder == null) return false;
+        ChunkPos chunk = new ChunkPos(pos);
+        Region region = regions.get(ChunkPos.toLong(chunk.getRegionX(), chunk.getRegionZ()));
+        if (region == null) return false;
+        ChunkEntry known = region.chunks.get(getLocalIndex(chunk));
+        if (known == null) return false;
+        int packed = pack(pos);
+        for (int i = 0; i < known.packed().length; ++i) {
+            if (known.packed()[i] == packed && known.blocks()[i] == block) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Save changed regions if we haven't in a while.
+     */
+    public void saveDirtyOccasionally() {
+        if (System.currentTimeMillis() - lastSave > SAVE_INTERVAL_MS) {
+            saveDirty();
+        }
+    }
+
+    public void saveDirty() {
+        synchronized (ioLock) {
+            lastSave = System.currentTimeMillis();
+            File saveFolder = folder;
+            if (saveFolder == null) return;
+            Map<Long, Map<Integer, ChunkEntry>> toSave = new HashMap<>();
+            synchronized (this) {
+                for (Map.Entry<Long, Region> entry : regions.entrySet()) {
+                    if (entry.getValue().dirty) {
+                        toSave.put(entry.getKey(), takeSnapshot(entry.getValue()));
+                    }
+                }
+            }
+            for (Map.Entry<Long, Map<Integer, ChunkEntry>> entry : toSave.entrySet()) {
+                saveRegion(saveFolder, ChunkPos.getPackedX(entry.getKey()), ChunkPos.getPackedZ(entry.getKey()), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Read a region from disk if we don't have it yet. The reading happens without holding the lock on this, the
+     * result is put in once it's done.
+     */
+    private void ensureRegionLoaded(int regionX, int regionZ) {
+        long key = ChunkPos.toLong(regionX, regionZ);
+        synchronized (ioLock) {
+            File loadFolder;
+            synchronized (this) {
+                if (regions.containsKey(key)) return;
+                loadFolder = folder;
+            }
+            if (loadFolder == null) return;
+            Region region = loadRegion(loadFolder, regionX, regionZ);
+            synchronized (this) {
+                // setWorld takes the io lock too, so the folder can't have changed in between.
+                regions.putIfAbsent(key, region);
+            }
+        }
+    }
+
+    /**
+     * Copy a region's chunks for saving, and mark it saved. Chunk entries are never modified, so a shallow copy is fine.
+     */
+    private static Map<Integer, ChunkEntry> takeSnapshot(Region region) {
+        region.dirty = false;
+        return new HashMap<>(region.chunks);
+    }
+
+    private void unloadFarRegions(ChunkPos center) {
+        synchronized (ioLock) {
+            File saveFolder = folder;
+            Map<Long, Map<Integer, ChunkEntry>> toSave = new HashMap<>();
+            synchronized (this) {
+                Iterator<Map.Entry<Long, Region>> it = regions.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<Long, Region> entry = it.next();
+                    int regionX = ChunkPos.getPackedX(entry.getKey()), regionZ = ChunkPos.getPackedZ(entry.getKey());
+                    if (Math.abs(regionX - center.getRegionX()) > KEPT_REGION_DISTANCE || Math.abs(regionZ - center.getRegionZ()) > KEPT_REGION_DISTANCE) {
+                        if (entry.getValue().dirty) {
+                            toSave.put(entry.getKey(), takeSnapshot(entry.getValue()));
+                        }
+                        it.remove();
+                    }
+                }
+            }
+            // Still holding the io lock, so nobody reads these back before they're written.
+            if (saveFolder == null) return;
+            for (Map.Entry<Long, Map<Integer, ChunkEntry>> entry : toSave.entrySet()) {
+                saveRegion(saveFolder, ChunkPos.getPackedX(entry.getKey()), ChunkPos.getPackedZ(entry.getKey()), entry.getValue());
+            }
+        }
+    }
+
+    private static File getRegionFile(File folder, int regionX, int regionZ) {
+        return new File(folder, "r." + regionX + "." + regionZ + ".bin");
+    }
+
+    private static Region loadRegion(File folder, int regionX, int regionZ) {
+        Region region = new Region();
+        File file = getRegionFile(folder, regionX, regionZ);
+        if (!file.exists()) return region;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(new FileInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                Debug.logWarning("Ignoring unknown block knowledge file " + file);
+                return region;
+            }
+            Block[] palette = new Block[in.readInt()];
+            for (int i = 0; i < palette.length; ++i) {
+                Identifier id = Identifier.tryParse(in.readUTF());
+                palette[i] = id != null && Registries.BLOCK.containsId(id) ? Registries.BLOCK.get(id) : null;
+            }
+            int chunkCount = in.readInt();
+            for (int c = 0; c < chunkCount; ++c) {
+                int localIndex = in.readShort();
+                int count = in.readInt();
+                Block[] blocks = new Block[count];
+                int[] packed = new int[count];
+                int kept = 0;
+                for (int i = 0; i < count; ++i) {
+                    Block block = palette[in.readShort()];
+                    int pos = in.readInt();
+                    // Blocks from a mod that isn't there anymore
+                    if (block == null) continue;
+                    blocks[kept] = block;
+                    packed[kept] = pos;
+                    kept++;
+                }
+                if (kept != 0) {
+                    region.chunks.put(localIndex, new ChunkEntry(Arrays.copyOf(blocks, kept), Arrays.copyOf(packed, kept)));
+                }
+            }
+        } catch (IOException | ArrayIndexOutOfBoundsException e) {
+            Debug.logWarning("Failed to read block knowledge from " + file + ": " + e.getMessage());
+            region.chunks.clear();
+        }
+        return region;
+    }
+
+    private static void saveRegion(File folder, int regionX, int regionZ, Map<Integer, ChunkEntry> chunks) {
+        File file = getRegionFile(folder, regionX, regionZ);
+        if (chunks.isEmpty()) {
+            file.delete();
+            return;
+        }
+        if (!folder.exists() && !folder.mkdirs()) {
+            Debug.logWarning("Failed to create block knowledge folder " + folder);
+            return;
+        }
+        Map<Block, Integer> palette = new LinkedHashMap<>();
+        for (ChunkEntry entry : chunks.values()) {
+            for (Block block : entry.blocks()) {
+                palette.putIfAbsent(block, palette.size());
+            }
+        }
+        // Write to the side first so a crash mid-save doesn't lose the region
+        File temp = new File(folder, file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new DeflaterOutputStream(new FileOutputStream(temp))))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(palette.size());
+            for (Block block : palette.keySet()) {
+                out.writeUTF(Registries.BLOCK.getId(block).toString());
+            }
+            out.writeInt(chunks.size());
+            for (Map.Entry<Integer, ChunkEntry> entry : chunks.entrySet()) {
+                ChunkEntry known = entry.getValue();
+                out.writeShort(entry.getKey());
+                out.writeInt(known.packed().length);
+                for (int i = 0; i < known.packed().length; ++i) {
+                    out.writeShort(palette.get(known.blocks()[i]));
+                    out.writeInt(known.packed()[i]);
+                }
+            }
+        } catch (IOException e) {
+            Debug.logWarning("Failed to save block knowledge to " + file + ": " + e.getMessage());
+            return;
+        }
+        file.delete();
+        if (!temp.renameTo(file)) {
+            Debug.logWarning("Failed to save block knowledge to " + file);
+        }
+    }
+
+    private static int getLocalIndex(ChunkPos chunk) {
+        return (chunk.getRegionRelativeZ() << 5) | chunk.getRegionRelativeX();
+    }
+
+    // y (12 bits, offset so negative heights fit) | x within chunk (4 bits) | z within chunk (4 bits)
+    private static int pack(BlockPos pos) {
+        return ((pos.getY() + 2048) & 0xFFF) << 8 | (pos.getX() & 15) << 4 | (pos.getZ() & 15);
+    }
+
+    private static BlockPos unpack(ChunkPos chunk, int packed) {
+        return new BlockPos(chunk.getStartX() + ((packed >> 4) & 15), ((packed >> 8) & 0xFFF) - 2048, chunk.getStartZ() + (packed & 15));
+    }
+
+    /**
+     * @return A folder name for the server (or singleplayer world) we're on, or null if we can't tell.
+     * Singleplayer worlds go by their save folder and seed, since different worlds can share a name.
+     */
+    static String getWorldKey() {
+        MinecraftClient client = MinecraftClient.getInstance();
+        String key = null;
+        IntegratedServer integrated = client.getServer();
+        if (integrated != null) {
+            Path saveFolder = integrated.getSavePath(WorldSavePath.ROOT).toAbsolutePath().normalize().getFileName();
+            if (saveFolder == null || integrated.getOverworld() == null) return null;
+            key = "singleplayer_" + saveFolder + "_" + integrated.getOverworld().getSeed();
+        } else {
+            ServerInfo server = client.getCurrentServerEntry();
+            if (server != null) {
+                key = "server_" + server.address;
+            }
+        }
+        return key == null ? null : key.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
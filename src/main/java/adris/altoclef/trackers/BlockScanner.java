@@ -5,11 +5,13 @@ import adris.altoclef.Debug;
 import adris.altoclef.eventbus.EventBus;
 import adris.altoclef.eventbus.events.BlockPlaceEvent;
 import adris.altoclef.multiversion.blockpos.BlockPosVer;
-import adris.altoclef.trackers.blacklisting.WorldLocateBlacklist;
+import adris.altoclef.tasksystem.Task;
+import adris.altoclef.trackers.blacklisting.DecayingBlacklist;
 import adris.altoclef.util.Dimension;
 import adris.altoclef.util.helpers.BaritoneHelper;
 import adris.altoclef.util.helpers.WorldHelper;
 import adris.altoclef.util.time.TimerGame;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.client.MinecraftClient;
@@ -28,6 +30,12 @@ public class BlockScanner {
     private static final boolean LOG = false;
     private static final int RESCAN_TICK_DELAY = 4 * 20;
     private static final int CACHED_POSITIONS_PER_BLOCK = 40;
+    // How far (in chunks) we look for blocks remembered from earlier scans/sessions
+    private static final int KNOWLEDGE_RADIUS = 32;
+    // How long a block stays scanned for after the last time someone asked about it. Blocks checked less often than
+    // this should be kept with a lease (see registerInterest).
+    private static final long QUERY_INTEREST_MS = 5 * 1000;
+    private static final int INTEREST_CHECK_TICK_DELAY = 20;
 
 
     private final AltoClef mod;
@@ -36,14 +44,25 @@ public class BlockScanner {
     private final HashMap<Block, HashSet<BlockPos>> trackedBlocks = new HashMap<>();
     private final HashMap<Block, HashSet<BlockPos>> scannedBlocks = new HashMap<>();
     private final HashMap<ChunkPos, Long> scannedChunks = new HashMap<>();
-    private final WorldLocateBlacklist blacklist = new WorldLocateBlacklist();
+    private final BlockKnowledgeStore knowledge = new BlockKnowledgeStore();
     // used while scanning
     private HashMap<Block, HashSet<BlockPos>> cachedScannedBlocks = new HashMap<>();
     private Dimension scanDimension = Dimension.OVERWORLD;
     private World scanWorld = null;
 
+    // Block -> when asking about it stops keeping it scanned (see noteQueried)
+    private final HashMap<Block, Long> queriedBlocks = new HashMap<>();
+    private final List<Lease> leases = new ArrayList<>();
+    // The blocks we index. Replaced instead of modified, so the scan thread can read it while we change it.
+    private volatile Set<Block> interestingBlocks = Collections.emptySet();
+    // Blocks became interesting since the last rescan started, so the next one has to look at every loaded chunk again
+    private volatile boolean interestAdded = false;
+    private int ticksUntilInterestCheck = 0;
+
     private boolean scanning = false;
     private boolean forceStop = false;
+    // Bumped whenever a full rescan finishes or we reset, see getScanRevision
+    private volatile long scanRevision = 0;
 
 
     public BlockScanner(AltoClef mod) {
@@ -71,23 +90,109 @@ public class BlockScanner {
 
 
     public void requestBlockUnreachable(BlockPos pos, int allowedFailures) {
-        blacklist.blackListItem(mod, pos, allowedFailures);
+        mod.getBlacklist().recordFailure(DecayingBlacklist.Reason.UNREACHABLE_BLOCK, DecayingBlacklist.blockKey(pos), WorldHelper.toVec3d(pos), allowedFailures);
     }
 
     //TODO replace four with config
     public void requestBlockUnreachable(BlockPos pos) {
-        blacklist.blackListItem(mod, pos, 4);
+        requestBlockUnreachable(pos, 4);
     }
 
 
     public boolean isUnreachable(BlockPos pos) {
-        return blacklist.unreachable(pos);
+        return mod.getBlacklist().isBlacklisted(DecayingBlacklist.Reason.UNREACHABLE_BLOCK, DecayingBlacklist.blockKey(pos));
+    }
+
+    /**
+     * Keep scanning for some blocks until the lease runs out, is released, or {@code scope} stops.
+     * <p>
+     * We only index blocks somebody is interested in. Asking about a block (getNearestBlock, anyFound...) already keeps
+     * it scanned for a few seconds, so this is for blocks that are checked rarely but should be ready when they are.
+     *
+     * @param scope   The task this is for, or null if it should only run out with time
+     * @param seconds How long the lease lasts, see {@link Lease#renew()}. {@link Double#MAX_VALUE} to only end with
+     *                {@code scope} or {@link Lease#release()}
+     */
+    public Lease registerInterest(Task scope, double seconds, Block... blocks) {
+        Lease lease = new Lease(scope, (long) (seconds * 1000), blocks);
+        leases.add(lease);
+        addInterest(blocks);
+        return lease;
+    }
+
+    private void noteQueried(Block block) {
+        queriedBlocks.put(block, System.currentTimeMillis() + QUERY_INTEREST_MS);
+        if (!interestingBlocks.contains(block)) {
+            addInterest(block);
+        }
+    }
+
+    private void addInterest(Block... blocks) {
+        Set<Block> interest = interestingBlocks;
+        if (interest.containsAll(Arrays.asList(blocks))) return;
+        Set<Block> added = new HashSet<>(Arrays.asList(blocks));
+        added.removeAll(interest);
+        interest = new HashSet<>(interest);
+        interest.addAll(added);
+        interestingBlocks = interest;
+        // Answer right away with what we remember and what's around us, the rescan fills in the rest.
+        trackRememberedBlocks(added);
+        if (mod.getPlayer() != null && mod.getWorld() != null) {
+            scanCloseBlocks();
+        }
+        // Don't make whoever asked wait for the regular rescan to find it, and make that rescan look everywhere.
+        interestAdded = true;
+        rescanTimer.forceElapse();
+    }
+
+    /**
+     * Add what the block memory has for {@code blocks} (for chunks scanned earlier, loaded or not) to the tracked
+     * blocks. Only looks at what's already in memory.
+     */
+    private void trackRememberedBlocks(Set<Block> blocks) {
+        if (mod.getPlayer() == null) return;
+        Map<Block, HashSet<BlockPos>> found = new HashMap<>();
+        knowledge.forEachKnownBlockInMemory(mod.getPlayer().getChunkPos(), KNOWLEDGE_RADIUS, chunk -> false, (block, pos) -> {
+            if (blocks.contains(block)) {
+                found.computeIfAbsent(block, k -> new HashSet<>()).add(pos);
+            }
+        });
+        for (Map.Entry<Block, HashSet<BlockPos>> entry : found.entrySet()) {
+            HashSet<BlockPos> tracked = trackedBlocks.computeIfAbsent(entry.getKey(), k -> new HashSet<>());
+            tracked.addAll(entry.getValue());
+            getFirstFewPositions(tracked, mod.getPlayer().getPos());
+        }
+    }
+
+    private void updateInterest() {
+        long now = System.currentTimeMillis();
+        queriedBlocks.values().removeIf(until -> until < now);
+        leases.removeIf(lease -> !lease.isAlive(now));
+
+        Set<Block> interest = new HashSet<>(queriedBlocks.keySet());
+        for (Lease lease : leases) {
+            Collections.addAll(interest, lease.blocks);
+        }
+        if (interest.equals(interestingBlocks)) return;
+        interestingBlocks = interest;
+        // Let go of what nobody cares about anymore. scannedBlocks belongs to the scan thread, it drops them on its next rescan.
+        trackedBlocks.keySet().retainAll(interest);
+        cachedScannedBlocks.keySet().retainAll(interest);
+    }
+
+    /**
+     * A number that changes whenever a full rescan finishes or the known blocks are reset, for re-checking things
+     * calculated from far away blocks. Blocks right around the player are rescanned every tick and don't count.
+     */
+    public long getScanRevision() {
+        return scanRevision;
     }
 
     public List<BlockPos> getKnownLocations(Block... blocks) {
         List<BlockPos> locations = new LinkedList<>();
 
         for (Block block : blocks) {
+            noteQueried(block);
             if (!trackedBlocks.containsKey(block)) continue;
 
             locations.addAll(trackedBlocks.get(block));
@@ -124,10 +229,11 @@ public class BlockScanner {
 
     public boolean anyFound(Predicate<BlockPos> isValidTest, Block... blocks) {
         for (Block block : blocks) {
+            noteQueried(block);
             if (!trackedBlocks.containsKey(block)) continue;
 
             for (BlockPos pos : trackedBlocks.get(block)) {
-                if (isValidTest.test(pos) && mod.getWorld().getBlockState(pos).getBlock().equals(block) && !this.isUnreachable(pos))
+                if (isValidTest.test(pos) && isStillThere(pos, block) && !this.isUnreachable(pos))
                     return true;
             }
         }
@@ -175,13 +281,14 @@ public class BlockScanner {
         BlockPos pos = null;
         double nearest = Double.POSITIVE_INFINITY;
 
+        noteQueried(block);
         if (!trackedBlocks.containsKey(block)) {
             return Optional.empty();
         }
 
         for (BlockPos p : trackedBlocks.get(block)) {
             //ensure the block is there (can change upon rescan)
-            if (!mod.getWorld().getBlockState(p).getBlock().equals(block)) continue;
+            if (!isStillThere(p, block)) continue;
             if (!isValidTest.test(p) || isUnreachable(p)) continue;
 
             double dist = BaritoneHelper.calculateGenericHeuristic(fromPos, WorldHelper.toVec3d(p));
@@ -213,6 +320,16 @@ public class BlockScanner {
         return blockPos.map(value ->  Math.sqrt(BlockPosVer.getSquaredDistance(value, pos))).orElse(Double.POSITIVE_INFINITY);
     }
 
+    /**
+     * Whether a block we know about is still there. For chunks that aren't loaded we can only go by what we remember.
+     */
+    private boolean isStillThere(BlockPos pos, Block block) {
+        if (mod.getChunkTracker().isChunkLoaded(pos)) {
+            return mod.getWorld().getBlockState(pos).getBlock().equals(block);
+        }
+        return knowledge.isKnown(pos, block);
+    }
+
     // Checks if 'pos' one of 'blocks' block
     // Returns false if incorrect or undetermined/unsure
     public boolean isBlockAtPosition(BlockPos pos, Block... blocks) {
@@ -250,13 +367,18 @@ public class BlockScanner {
         scannedBlocks.clear();
         scannedChunks.clear();
         rescanTimer.forceElapse();
-        blacklist.clear();
+        mod.getBlacklist().clear(DecayingBlacklist.Reason.UNREACHABLE_BLOCK);
         forceStop = true;
+        scanRevision++;
     }
 
     public void tick() {
         if (mod.getWorld() == null || mod.getPlayer() == null) return;
         //be maximally aware of the closest blocks around you
+        if (--ticksUntilInterestCheck <= 0) {
+            ticksUntilInterestCheck = INTEREST_CHECK_TICK_DELAY;
+            updateInterest();
+        }
         scanCloseBlocks();
         if (!rescanTimer.elapsed() || scanning) return;
 
@@ -267,6 +389,7 @@ public class BlockScanner {
             reset();
             scanWorld = mod.getWorld();
             scanDimension = WorldHelper.getCurrentDimension();
+            knowledge.setWorld(scanDimension);
             return;
         }
 
@@ -281,14 +404,17 @@ public class BlockScanner {
 
         scanning = true;
         forceStop = false;
+        boolean ignoreScanAge = interestAdded;
+        interestAdded = false;
         new Thread(() -> {
             try {
-                rescan(Integer.MAX_VALUE, Integer.MAX_VALUE);
+                rescan(Integer.MAX_VALUE, Integer.MAX_VALUE, ignoreScanAge);
             } catch (Exception e) {
                 e.printStackTrace();
             } finally {
                 rescanTimer.reset();
                 scanning = false;
+                scanRevision++;
             }
         }).start();
     }
@@ -304,6 +430,8 @@ public class BlockScanner {
         }
 
         HashMap<Block, HashSet<BlockPos>> map = new HashMap<>();
+        Set<Block> interest = interestingBlocks;
+        if (interest.isEmpty()) return;
 
         BlockPos pos = mod.getPlayer().getBlockPos();
         World world = mod.getPlayer().getWorld();
@@ -313,9 +441,10 @@ public class BlockScanner {
                 for (int z = pos.getZ() - 8; z <= pos.getZ() + 8; z++) {
                     BlockPos p = new BlockPos(x, y, z);
                     BlockState state = world.getBlockState(p);
-                    if (world.getBlockState(p).isAir()) continue;
+                    if (state.isAir()) continue;
 
                     Block block = state.getBlock();
+                    if (!interest.contains(block)) continue;
 
                     if (map.containsKey(block)) {
                         map.get(block).add(p);
@@ -339,11 +468,17 @@ public class BlockScanner {
         }
     }
 
-    private void rescan(int maxCount, int cutOffRadius) {
+    /**
+     * @param ignoreScanAge Scan every loaded chunk, even ones scanned recently (ex. they weren't scanned for a block
+     *                      that just became interesting)
+     */
+    private void rescan(int maxCount, int cutOffRadius, boolean ignoreScanAge) {
         long ms = System.currentTimeMillis();
 
         ChunkPos playerChunkPos = mod.getPlayer().getChunkPos();
         Vec3d playerPos = mod.getPlayer().getPos();
+        Set<Block> interest = interestingBlocks;
+        scannedBlocks.keySet().retainAll(interest);
 
         HashSet<ChunkPos> visited = new HashSet<>();
         Queue<Node> queue = new ArrayDeque<>();
@@ -356,11 +491,11 @@ public class BlockScanner {
                 continue;
 
             boolean isPriorityChunk = getChunkDist(node.pos, playerChunkPos) <= 2;
-            if (!isPriorityChunk && scannedChunks.containsKey(node.pos) && mod.getWorld().getTime() - scannedChunks.get(node.pos) < RESCAN_TICK_DELAY)
+            if (!isPriorityChunk && !ignoreScanAge && scannedChunks.containsKey(node.pos) && mod.getWorld().getTime() - scannedChunks.get(node.pos) < RESCAN_TICK_DELAY)
                 continue;
 
             visited.add(node.pos);
-            scanChunk(node.pos, playerChunkPos);
+            scanChunk(node.pos, playerChunkPos, interest);
 
             queue.add(new Node(new ChunkPos(node.pos.x + 1, node.pos.z + 1), node.distance + 1));
             queue.add(new Node(new ChunkPos(node.pos.x - 1, node.pos.z + 1), node.distance + 1));
@@ -374,6 +509,16 @@ public class BlockScanner {
             return;
         }
 
+        // Add what we remember about chunks we didn't scan just now (ex. they're not loaded, or were scanned recently)
+        knowledge.forEachKnownBlock(playerChunkPos, KNOWLEDGE_RADIUS,
+                visited::contains,
+                (block, pos) -> {
+                    if (interest.contains(block)) {
+                        scannedBlocks.computeIfAbsent(block, k -> new HashSet<>()).add(pos);
+                    }
+                });
+        knowledge.saveDirtyOccasionally();
+
         for (Iterator<ChunkPos> iterator = scannedChunks.keySet().iterator(); iterator.hasNext(); ) {
             ChunkPos pos = iterator.next();
             int distance = getChunkDist(pos, playerChunkPos);
@@ -424,24 +569,40 @@ public class BlockScanner {
      * scans a chunk and adds block positions corresponding to a specific block in a list
      *
      * @param chunkPos position of the scanned chunk
+     * @param interest the blocks to add, we still remember every rare block for later
      */
-    private void scanChunk(ChunkPos chunkPos, ChunkPos playerChunkPos) {
+    private void scanChunk(ChunkPos chunkPos, ChunkPos playerChunkPos, Set<Block> interest) {
         World world = mod.getWorld();
         WorldChunk chunk = mod.getWorld().getChunk(chunkPos.x, chunkPos.z);
         scannedChunks.put(chunkPos, world.getTime());
 
         boolean isPriorityChunk = getChunkDist(chunkPos, playerChunkPos) <= 2;
+        // Blocks rare enough in this chunk to remember for later
+        HashMap<Block, List<BlockPos>> toRemember = new HashMap<>();
+        HashSet<Block> tooCommon = new HashSet<>();
+        // Checked for every block, so grab them all at once
+        LongSet unreachable = mod.getBlacklist().getBlacklisted(DecayingBlacklist.Reason.UNREACHABLE_BLOCK);
 
         for (int x = chunkPos.getStartX(); x <= chunkPos.getEndX(); x++) {
             for (int y = world.getBottomY(); y < world.getTopY(); y++) {
                 for (int z = chunkPos.getStartZ(); z <= chunkPos.getEndZ(); z++) {
                     BlockPos p = new BlockPos(x, y, z);
-                    if (this.isUnreachable(p) || world.isOutOfHeightLimit(p)) continue;
+                    if (unreachable.contains(p.asLong()) || world.isOutOfHeightLimit(p)) continue;
 
                     BlockState state = chunk.getBlockState(p);
                     if (state.isAir()) continue;
 
                     Block block = state.getBlock();
+                    if (!tooCommon.contains(block)) {
+                        List<BlockPos> remembered = toRemember.computeIfAbsent(block, k -> new ArrayList<>());
+                        if (remembered.size() < BlockKnowledgeStore.MAX_REMEMBERED_PER_CHUNK) {
+                            remembered.add(p);
+                        } else {
+                            tooCommon.add(block);
+                            toRemember.remove(block);
+                        }
+                    }
+                    if (!interest.contains(block)) continue;
                     if (scannedBlocks.containsKey(block)) {
                         HashSet<BlockPos> set = scannedBlocks.get(block);
 
@@ -456,10 +617,49 @@ public class BlockScanner {
                 }
             }
         }
+        knowledge.onChunkScanned(chunkPos, toRemember);
     }
 
     private record Node(ChunkPos pos, int distance) {
     }
 
+    /**
+     * Keeps some blocks scanned, see {@link #registerInterest}.
+     */
+    public static class Lease {
+        private final Task scope;
+        private final long durationMs;
+        private final Block[] blocks;
+        private long expiresAt;
+        private boolean released = false;
+
+        private Lease(Task scope, long durationMs, Block[] blocks) {
+            this.scope = scope;
+            this.durationMs = durationMs;
+            this.blocks = blocks;
+            renew();
+        }
+
+        /**
+         * Start the lease's duration over.
+         */
+        public void renew() {
+            long now = System.currentTimeMillis();
+            // Long leases (ex. only scoped to a task) shouldn't wrap around
+            expiresAt = durationMs > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + durationMs;
+        }
+
+        /**
+         * Stop scanning for these blocks (if nobody else wants them).
+         */
+        public void release() {
+            released = true;
+        }
+
+        private boolean isAlive(long now) {
+            return !released && now < expiresAt && (scope == null || !scope.stopped());
+        }
+    }
+
 
 }
@@ -4,7 +4,7 @@ import adris.altoclef.Debug;
 import adris.altoclef.eventbus.EventBus;
 import adris.altoclef.eventbus.events.PlayerCollidedWithEntityEvent;
 import adris.altoclef.mixins.PersistentProjectileEntityAccessor;
-import adris.altoclef.trackers.blacklisting.EntityLocateBlacklist;
+import adris.altoclef.trackers.blacklisting.DecayingBlacklist;
 import adris.altoclef.util.ItemTarget;
 import adris.altoclef.util.baritone.CachedProjectile;
 import adris.altoclef.util.helpers.BaritoneHelper;
@@ -45,7 +45,6 @@ public class EntityTracker extends Tracker {
     private final HashMap<String, PlayerEntity> playerMap = new HashMap<>();
     private final HashMap<String, Vec3d> playerLastCoordinates = new HashMap<>();
 
-    private final EntityLocateBlacklist entityBlacklist = new EntityLocateBlacklist();
 
     private final HashMap<PlayerEntity, List<Entity>> entitiesCollidingWithPlayerAccumulator = new HashMap<>();
     private final HashMap<PlayerEntity, HashSet<Entity>> entitiesCollidingWithPlayer = new HashMap<>();
@@ -128,7 +127,7 @@ public class EntityTracker extends Tracker {
             for (Item item : target.getMatches()) {
                 if (!itemDropped(item)) continue;
                 for (ItemEntity entity : itemDropLocations.get(item)) {
-                    if (entityBlacklist.unreachable(entity)) continue;
+                    if (!isEntityReachable(entity)) continue;
                     if (!entity.getStack().getItem().equals(item)) continue;
                     if (!acceptPredicate.test(entity)) continue;
 
@@ -163,7 +162,7 @@ public class EntityTracker extends Tracker {
                 if (entityMap.containsKey(toFind)) {
                     for (Entity entity : entityMap.get(toFind)) {
                         // Don't accept entities that no longer exist
-                        if (entityBlacklist.unreachable(entity)) continue;
+                        if (!isEntityReachable(entity)) continue;
                         if (!entity.isAlive()) continue;
                         if (!acceptPredicate.test(entity)) continue;
                         double cost = entity.squaredDistanceTo(position);
@@ -184,7 +183,7 @@ public class EntityTracker extends Tracker {
             if (itemDropLocations.containsKey(item)) {
                 // Find a non-blacklisted item
                 for (ItemEntity entity : itemDropLocations.get(item)) {
-                    if (!entityBlacklist.unreachable(entity)) return true;
+                    if (isEntityReachable(entity)) return true;
                 }
             }
         }
@@ -304,14 +303,14 @@ public class EntityTracker extends Tracker {
      * Tells the entity tracker that we were unable to reach this entity.
      */
     public void requestEntityUnreachable(Entity entity) {
-        entityBlacklist.blackListItem(mod, entity, 3);
+        mod.getBlacklist().recordFailure(DecayingBlacklist.Reason.UNREACHABLE_ENTITY, DecayingBlacklist.entityKey(entity), entity.getPos(), 3);
     }
 
     /**
      * Whether we have decided that this entity is unreachable.
      */
     public boolean isEntityReachable(Entity entity) {
-        return !entityBlacklist.unreachable(entity);
+        return !mod.getBlacklist().isBlacklisted(DecayingBlacklist.Reason.UNREACHABLE_ENTITY, DecayingBlacklist.entityKey(entity));
     }
 
     /**
@@ -319,7 +318,7 @@ public class EntityTracker extends Tracker {
      * allowing the entity tracker to target it again.
      */
     public void resetEntityBlacklist(Entity entity) {
-        entityBlacklist.resetItem(entity);
+        mod.getBlacklist().forgive(DecayingBlacklist.Reason.UNREACHABLE_ENTITY, DecayingBlacklist.entityKey(entity));
     }
 
     @Override
@@ -400,10 +399,14 @@ public class EntityTracker extends Tracker {
                             continue;
 
                         if (!inGround) {
+                            proj.entityId = projEntity.getId();
                             proj.position = projEntity.getPos();
                             proj.velocity = projEntity.getVelocity();
-                            proj.gravity = ProjectileHelper.hasGravity(projEntity) ? ProjectileHelper.ARROW_GRAVITY_ACCEL : 0;
+                            proj.gravity = ProjectileHelper.getGravity(projEntity);
+                            proj.drag = ProjectileHelper.getDrag(projEntity);
                             proj.projectileType = projEntity.getClass();
+                            // Simulate once here so pathing only ever reads the samples
+                            proj.simulate();
                             projectiles.add(proj);
                         }
                     }
@@ -419,6 +422,6 @@ public class EntityTracker extends Tracker {
     @Override
     protected void reset() {
         // Dirty clears everything else.
-        entityBlacklist.clear();
+        mod.getBlacklist().clear(DecayingBlacklist.Reason.UNREACHABLE_ENTITY);
     }
 }
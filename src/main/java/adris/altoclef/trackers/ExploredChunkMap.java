@@ -0,0 +1,107 @@
+package adris.altoclef.trackers;
+
+import adris.altoclef.util.Dimension;
+import adris.altoclef.util.helpers.BaritoneHelper;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Remembers which chunks we've had loaded in each dimension (one bit per chunk), and picks where to go next to see
+ * land we haven't seen yet.
+ */
+public class ExploredChunkMap {
+
+    // Chunks are kept in 64x64 regions, one long per row.
+    private static final int REGION_SHIFT = 6;
+    private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+    // How much more a frontier behind us costs than one straight ahead
+    private static final double HEADING_PENALTY = 1.5;
+
+    private final EnumMap<Dimension, HashMap<Long, long[]>> regions = new EnumMap<>(Dimension.class);
+
+    public void markExplored(Dimension dimension, ChunkPos pos) {
+        long[] rows = regions.computeIfAbsent(dimension, k -> new HashMap<>())
+                .computeIfAbsent(getRegionKey(pos.x, pos.z), k -> new long[1 << REGION_SHIFT]);
+        rows[pos.z & REGION_MASK] |= 1L << (pos.x & REGION_MASK);
+    }
+
+    public boolean isExplored(Dimension dimension, ChunkPos pos) {
+        return isExplored(dimension, pos.x, pos.z);
+    }
+
+    private boolean isExplored(Dimension dimension, int x, int z) {
+        HashMap<Long, long[]> dimensionRegions = regions.get(dimension);
+        if (dimensionRegions == null) return false;
+        long[] rows = dimensionRegions.get(getRegionKey(x, z));
+        return rows != null && (rows[z & REGION_MASK] & (1L << (x & REGION_MASK))) != 0;
+    }
+
+    public void clear() {
+        regions.clear();
+    }
+
+    /**
+     * Find the unexplored chunk bordering explored land that's cheapest to get to.
+     * <p>
+     * We flood out from the chunk we're in through explored chunks, so frontiers we could only reach by crossing
+     * unexplored land don't count. Each frontier costs baritone's estimate to walk there, and more the further it's
+     * away from {@code heading}, so we keep going one way instead of walking back over what we've seen.
+     *
+     * @param from       Where we are
+     * @param heading    Which way we'd like to keep going, or zero for no preference
+     * @param skip       Frontiers not to pick (ex. we failed to get there)
+     * @param maxVisited How many explored chunks to look through at most
+     * @return Nothing if the chunk we're in isn't explored or there's no frontier in range.
+     */
+    public Optional<ChunkPos> getBestFrontier(Dimension dimension, Vec3d from, Vec3d heading, Predicate<ChunkPos> skip, int maxVisited) {
+        ChunkPos start = new ChunkPos((int) Math.floor(from.x) >> 4, (int) Math.floor(from.z) >> 4);
+        if (!isExplored(dimension, start.x, start.z)) return Optional.empty();
+
+        Vec3d direction = heading.horizontalLengthSquared() > 0.0001 ? new Vec3d(heading.x, 0, heading.z).normalize() : null;
+
+        HashSet<Long> visited = new HashSet<>();
+        ArrayDeque<ChunkPos> queue = new ArrayDeque<>();
+        visited.add(start.toLong());
+        queue.add(start);
+
+        ChunkPos best = null;
+        double bestCost = Double.POSITIVE_INFINITY;
+        int explored = 0;
+        while (!queue.isEmpty() && explored < maxVisited) {
+            ChunkPos pos = queue.poll();
+            explored++;
+            for (ChunkPos next : new ChunkPos[]{
+                    new ChunkPos(pos.x + 1, pos.z),
+                    new ChunkPos(pos.x - 1, pos.z),
+                    new ChunkPos(pos.x, pos.z + 1),
+                    new ChunkPos(pos.x, pos.z - 1)}) {
+                if (!visited.add(next.toLong())) continue;
+                if (isExplored(dimension, next.x, next.z)) {
+                    queue.add(next);
+                    continue;
+                }
+                if (skip.test(next)) continue;
+                Vec3d center = new Vec3d(next.getStartX() + 8, from.y, next.getStartZ() + 8);
+                double cost = BaritoneHelper.calculateGenericHeuristic(from, center);
+                if (direction != null) {
+                    Vec3d offset = center.subtract(from);
+                    double cos = offset.horizontalLengthSquared() > 0.0001 ? offset.normalize().dotProduct(direction) : 1;
+                    // 0 straight ahead, 1 right behind us
+                    cost *= 1 + HEADING_PENALTY * (1 - cos) / 2;
+                }
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    best = next;
+                }
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    private static long getRegionKey(int chunkX, int chunkZ) {
+        return ChunkPos.toLong(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+    }
+}
@@ -17,49 +17,136 @@ import java.util.Optional;
  */
 public class MiscBlockTracker {
 
+    private static final int PORTAL_CHECK_TICK_DELAY = 20;
+
     private final AltoClef mod;
 
     private final Map<Dimension, BlockPos> lastNetherPortalsUsed = new HashMap<>();
+    private final NetherPortalGraph portalGraph = new NetherPortalGraph();
 
     // Make sure we only care about the nether portal we ENTERED through
     private Dimension lastDimension;
     private boolean newDimensionTriggered;
 
+    private long ticks = 0;
+    private boolean portalGraphWorldChanged = true;
+    // The portal we're standing in, waiting to go through
+    private BlockPos enteringPortal = null;
+    private Dimension enteringDimension = null;
+    private long enteringTick = 0;
+    // The portal we last came out of
+    private BlockPos exitedPortal = null;
+    private Dimension exitedDimension = null;
+    private long exitedTick = 0;
+    private boolean leftExitedPortal = true;
+
     public MiscBlockTracker(AltoClef mod) {
         this.mod = mod;
     }
 
     public void tick() {
+        ticks++;
         if (WorldHelper.getCurrentDimension() != lastDimension) {
             lastDimension = WorldHelper.getCurrentDimension();
             newDimensionTriggered = true;
+            portalGraphWorldChanged = true;
+        }
+
+        if (!AltoClef.inGame()) return;
+        if (portalGraphWorldChanged) {
+            portalGraphWorldChanged = false;
+            portalGraph.setWorld();
         }
 
-        if (AltoClef.inGame() && newDimensionTriggered) {
+        if (newDimensionTriggered) {
             for (BlockPos check : WorldHelper.scanRegion(mod.getPlayer().getBlockPos().add(-1,-1,-1), mod.getPlayer().getBlockPos().add(1,1,1))) {
                 Block currentBlock = mod.getWorld().getBlockState(check).getBlock();
                 if (currentBlock == Blocks.NETHER_PORTAL) {
                     // Make sure we get the lowest nether portal, as we can only really enter from the bottom.
-                    while (check.getY() > 0) {
-                        if (mod.getWorld().getBlockState(check.down()).getBlock() == Blocks.NETHER_PORTAL) {
-                            check = check.down();
-                        } else {
-                            break;
-                        }
-                    }
+                    check = getPortalBottom(check);
                     BlockPos below = check.down();
                     if (WorldHelper.isSolidBlock(below)) {
                         lastNetherPortalsUsed.put(WorldHelper.getCurrentDimension(), check);
                         newDimensionTriggered = false;
+                        onCameOutOfPortal(check);
                     }
                     break;
                 }
             }
         }
+
+        trackEnteringPortal();
+        if (ticks % PORTAL_CHECK_TICK_DELAY == 0) {
+            removeBrokenPortals();
+        }
+    }
+
+    private void onCameOutOfPortal(BlockPos portal) {
+        Dimension dimension = WorldHelper.getCurrentDimension();
+        if (enteringPortal != null && enteringDimension != dimension) {
+            portalGraph.onTraveled(enteringDimension, enteringPortal, dimension, portal, ticks - enteringTick);
+        }
+        enteringPortal = null;
+        exitedPortal = portal;
+        exitedDimension = dimension;
+        exitedTick = ticks;
+        leftExitedPortal = false;
+    }
+
+    private void trackEnteringPortal() {
+        BlockPos playerPos = mod.getPlayer().getBlockPos();
+        if (mod.getWorld().getBlockState(playerPos).getBlock() != Blocks.NETHER_PORTAL) {
+            leftExitedPortal = true;
+            // Walked out again without going through. Once we've gone through, keep it until we know where we came out.
+            if (enteringDimension == WorldHelper.getCurrentDimension()) {
+                enteringPortal = null;
+            }
+            return;
+        }
+        // Still standing in the portal we just came out of
+        if (!leftExitedPortal || enteringPortal != null) return;
+        enteringPortal = getPortalBottom(playerPos);
+        enteringDimension = WorldHelper.getCurrentDimension();
+        enteringTick = ticks;
+        if (exitedPortal != null && exitedDimension == enteringDimension) {
+            portalGraph.onWalked(enteringDimension, exitedPortal, enteringPortal, ticks - exitedTick);
+        }
+    }
+
+    private void removeBrokenPortals() {
+        Dimension dimension = WorldHelper.getCurrentDimension();
+        for (BlockPos portal : portalGraph.getPortals(dimension)) {
+            if (mod.getChunkTracker().isChunkLoaded(portal) && mod.getWorld().getBlockState(portal).getBlock() != Blocks.NETHER_PORTAL) {
+                portalGraph.removePortal(dimension, portal);
+            }
+        }
+    }
+
+    private BlockPos getPortalBottom(BlockPos check) {
+        while (check.getY() > 0) {
+            if (mod.getWorld().getBlockState(check.down()).getBlock() == Blocks.NETHER_PORTAL) {
+                check = check.down();
+            } else {
+                break;
+            }
+        }
+        return check;
     }
 
     public void reset() {
         lastNetherPortalsUsed.clear();
+        portalGraph.save();
+        portalGraphWorldChanged = true;
+        enteringPortal = null;
+        exitedPortal = null;
+        leftExitedPortal = true;
+    }
+
+    /**
+     * Portals we've used before and where they lead, see {@link NetherPortalGraph}.
+     */
+    public NetherPortalGraph getPortalGraph() {
+        return portalGraph;
     }
 
     public Optional<BlockPos> getLastUsedNetherPortal(Dimension dimension) {
@@ -0,0 +1,319 @@
+package adris.altoclef.trackers;
+
+import adris.altoclef.Debug;
+import adris.altoclef.util.Dimension;
+import adris.altoclef.util.helpers.BaritoneHelper;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+
+import java.io.*;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Remembers the nether portals we've gone through and where each one took us, so we can use them again instead of
+ * building new ones.
+ * <p>
+ * Every portal we've stood in is a node. Going through one links it to the portal we came out of, with the ticks
+ * it took. Walking from the portal we came out of to the next one we enter (in the same dimension) is remembered
+ * as well, as long as we didn't clearly do something else in between. Routes are planned with A* over the portals,
+ * where any walk we haven't measured is guessed with baritone's heuristic.
+ * <p>
+ * Saved per server (or singleplayer world) in {@code altoclef/portals}. Only used from the client thread.
+ */
+public class NetherPortalGraph {
+
+    private static final File PORTALS_FOLDER = Paths.get("altoclef", "portals").toFile();
+    private static final int MAGIC = 0x41434E50; // "ACNP"
+    private static final short VERSION = 1;
+
+    // Portal blocks this close together are the same portal
+    private static final double SAME_PORTAL_DISTANCE = 4;
+    // Walks that took this many times longer than the heuristic guess probably weren't just walking
+    private static final double MAX_WALK_OVER_HEURISTIC = 3;
+
+    // Nodes in the route search besides the portals: where we start, where we want to be, and coming out of a
+    // portal (portal id + EXITED), which is a different place to be than about to go into that portal.
+    private static final int START = -1;
+    private static final int GOAL = -2;
+    private static final int EXITED = 1 << 24;
+
+    private final Map<Integer, Portal> portals = new HashMap<>();
+    private int nextId = 0;
+    private String worldKey = null;
+    private boolean dirty = false;
+
+    private static class Portal {
+        final int id;
+        final Dimension dimension;
+        final BlockPos pos;
+        // Where going through this portal took us last time, or -1 if we don't know
+        int exit = -1;
+        double exitTicks = 0;
+        // Portal id -> ticks it took to walk there from this one
+        final Map<Integer, Double> walks = new HashMap<>();
+
+        Portal(int id, Dimension dimension, BlockPos pos) {
+            this.id = id;
+            this.dimension = dimension;
+            this.pos = pos;
+        }
+    }
+
+    /**
+     * A way to get somewhere through portals we know about.
+     *
+     * @param portals The portals to go through, in order. Empty if it's fastest to just walk.
+     * @param ticks   Roughly how long it'll take
+     */
+    public record Route(List<BlockPos> portals, double ticks) {
+        public Optional<BlockPos> getFirstPortal() {
+            return portals.isEmpty() ? Optional.empty() : Optional.of(portals.get(0));
+        }
+    }
+
+    /**
+     * Load the portals for the server/world we're on, if we're not on it already.
+     */
+    public void setWorld() {
+        String key = BlockKnowledgeStore.getWorldKey();
+        if (Objects.equals(key, worldKey)) return;
+        save();
+        portals.clear();
+        nextId = 0;
+        worldKey = key;
+        load();
+    }
+
+    /**
+     * We went through {@code entered} (in {@code from}) and came out of {@code exited} (in {@code to}).
+     */
+    public void onTraveled(Dimension from, BlockPos entered, Dimension to, BlockPos exited, double ticks) {
+        if (worldKey == null) return;
+        Portal entrance = getOrAddPortal(from, entered);
+        Portal exit = getOrAddPortal(to, exited);
+        entrance.exitTicks = entrance.exit == exit.id ? (entrance.exitTicks + ticks) / 2 : ticks;
+        entrance.exit = exit.id;
+        dirty = true;
+        save();
+    }
+
+    /**
+     * We walked from the portal we came out of to another one we're about to enter.
+     */
+    public void onWalked(Dimension dimension, BlockPos fromPortal, BlockPos toPortal, double ticks) {
+        if (worldKey == null) return;
+        Portal from = getOrAddPortal(dimension, fromPortal);
+        Portal to = getOrAddPortal(dimension, toPortal);
+        if (from == to) return;
+        if (ticks > getWalkHeuristic(from.pos, to.pos) * MAX_WALK_OVER_HEURISTIC) return;
+        from.walks.merge(to.id, ticks, (old, measured) -> (old + measured) / 2);
+        dirty = true;
+    }
+
+    /**
+     * Forget a portal that isn't there anymore.
+     */
+    public void removePortal(Dimension dimension, BlockPos pos) {
+        Portal portal = findPortal(dimension, pos);
+        if (portal == null) return;
+        portals.remove(portal.id);
+        for (Portal other : portals.values()) {
+            if (other.exit == portal.id) {
+                other.exit = -1;
+            }
+            other.walks.remove(portal.id);
+        }
+        dirty = true;
+        save();
+    }
+
+    /**
+     * @return Every portal we know about in a dimension.
+     */
+    public List<BlockPos> getPortals(Dimension dimension) {
+        List<BlockPos> result = new ArrayList<>();
+        for (Portal portal : portals.values()) {
+            if (portal.dimension == dimension) {
+                result.add(portal.pos);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find the fastest way to a position, walking and going through portals we've used before.
+     *
+     * @param target Where to go, or null to get into {@code targetDimension} anywhere
+     * @return Nothing if we can't get there through portals we know (and can't just walk there).
+     */
+    public Optional<Route> planRoute(Dimension dimension, Vec3d from, Dimension targetDimension, BlockPos target) {
+        if (dimension == Dimension.END || targetDimension == Dimension.END) return Optional.empty();
+        if (dimension == targetDimension && target == null) return Optional.of(new Route(Collections.emptyList(), 0));
+
+        BlockPos startPos = BlockPos.ofFloored(from);
+        Map<Integer, Double> costs = new HashMap<>();
+        Map<Integer, Integer> cameFrom = new HashMap<>();
+        Set<Integer> closed = new HashSet<>();
+        PriorityQueue<double[]> open = new PriorityQueue<>(Comparator.comparingDouble(entry -> entry[1]));
+        costs.put(START, 0.0);
+        open.add(new double[]{START, getRemainingHeuristic(dimension, startPos, target)});
+
+        while (!open.isEmpty()) {
+            int node = (int) open.poll()[0];
+            if (!closed.add(node)) continue;
+            double cost = costs.get(node);
+            if (node == GOAL) {
+                return Optional.of(new Route(getPortalPath(cameFrom), cost));
+            }
+
+            Map<Integer, Double> edges = new HashMap<>();
+            if (node >= 0 && node < EXITED) {
+                // Standing in a portal, all we can do is go through it.
+                Portal portal = portals.get(node);
+                if (portal.exit != -1 && portals.containsKey(portal.exit)) {
+                    edges.put(portal.exit + EXITED, portal.exitTicks);
+                }
+            } else {
+                Portal exited = node == START ? null : portals.get(node - EXITED);
+                Dimension nodeDimension = exited == null ? dimension : exited.dimension;
+                BlockPos nodePos = exited == null ? startPos : exited.pos;
+                if (nodeDimension == targetDimension) {
+                    edges.put(GOAL, target == null ? 0 : getWalkHeuristic(nodePos, target));
+                }
+                for (Portal other : portals.values()) {
+                    if (other.dimension != nodeDimension) continue;
+                    Double measured = exited == null ? null : exited.walks.get(other.id);
+                    edges.put(other.id, measured != null ? measured : getWalkHeuristic(nodePos, other.pos));
+                }
+            }
+
+            for (Map.Entry<Integer, Double> edge : edges.entrySet()) {
+                int to = edge.getKey();
+                double newCost = cost + edge.getValue();
+                if (closed.contains(to) || newCost >= costs.getOrDefault(to, Double.POSITIVE_INFINITY)) continue;
+                costs.put(to, newCost);
+                cameFrom.put(to, node);
+                open.add(new double[]{to, newCost + getRemainingHeuristic(to, dimension, startPos, target)});
+            }
+        }
+        return Optional.empty();
+    }
+
+    private double getRemainingHeuristic(int node, Dimension startDimension, BlockPos startPos, BlockPos target) {
+        if (node == GOAL) return 0;
+        if (node == START) return getRemainingHeuristic(startDimension, startPos, target);
+        Portal portal = portals.get(node >= EXITED ? node - EXITED : node);
+        return getRemainingHeuristic(portal.dimension, portal.pos, target);
+    }
+
+    private static double getRemainingHeuristic(Dimension dimension, BlockPos pos, BlockPos target) {
+        if (target == null) return 0;
+        // Through the nether is the fastest anything can be, so this never overestimates.
+        BlockPos netherPos = dimension == Dimension.NETHER ? pos : new BlockPos(pos.getX() / 8, pos.getY(), pos.getZ() / 8);
+        BlockPos netherTarget = new BlockPos(target.getX() / 8, target.getY(), target.getZ() / 8);
+        return getWalkHeuristic(netherPos, netherTarget);
+    }
+
+    private List<BlockPos> getPortalPath(Map<Integer, Integer> cameFrom) {
+        LinkedList<BlockPos> path = new LinkedList<>();
+        Integer node = cameFrom.get(GOAL);
+        while (node != null && node != START) {
+            // Only the portals we went into, not the ones we came out of
+            if (node < EXITED) {
+                path.addFirst(portals.get(node).pos);
+            }
+            node = cameFrom.get(node);
+        }
+        return path;
+    }
+
+    private static double getWalkHeuristic(BlockPos from, BlockPos to) {
+        return BaritoneHelper.calculateGenericHeuristic(from.getX(), from.getY(), from.getZ(), to.getX(), to.getY(), to.getZ());
+    }
+
+    private Portal findPortal(Dimension dimension, BlockPos pos) {
+        for (Portal portal : portals.values()) {
+            if (portal.dimension == dimension && portal.pos.isWithinDistance(pos, SAME_PORTAL_DISTANCE)) {
+                return portal;
+            }
+        }
+        return null;
+    }
+
+    private Portal getOrAddPortal(Dimension dimension, BlockPos pos) {
+        Portal portal = findPortal(dimension, pos);
+        if (portal == null) {
+            portal = new Portal(nextId++, dimension, pos);
+            portals.put(portal.id, portal);
+            dirty = true;
+        }
+        return portal;
+    }
+
+    public void save() {
+        if (!dirty || worldKey == null) return;
+        dirty = false;
+        if (!PORTALS_FOLDER.exists() && !PORTALS_FOLDER.mkdirs()) {
+            Debug.logWarning("Failed to create portal folder " + PORTALS_FOLDER);
+            return;
+        }
+        File file = getFile();
+        File temp = new File(PORTALS_FOLDER, file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(portals.size());
+            for (Portal portal : portals.values()) {
+                out.writeInt(portal.id);
+                out.writeByte(portal.dimension.ordinal());
+                out.writeLong(portal.pos.asLong());
+                out.writeInt(portal.exit);
+                out.writeDouble(portal.exitTicks);
+                out.writeInt(portal.walks.size());
+                for (Map.Entry<Integer, Double> walk : portal.walks.entrySet()) {
+                    out.writeInt(walk.getKey());
+                    out.writeDouble(walk.getValue());
+                }
+            }
+        } catch (IOException e) {
+            Debug.logWarning("Failed to save portals to " + file + ": " + e.getMessage());
+            return;
+        }
+        file.delete();
+        if (!temp.renameTo(file)) {
+            Debug.logWarning("Failed to save portals to " + file);
+        }
+    }
+
+    private void load() {
+        if (worldKey == null) return;
+        File file = getFile();
+        if (!file.exists()) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                Debug.logWarning("Ignoring unknown portal file " + file);
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; ++i) {
+                Portal portal = new Portal(in.readInt(), Dimension.values()[in.readByte()], BlockPos.fromLong(in.readLong()));
+                portal.exit = in.readInt();
+                portal.exitTicks = in.readDouble();
+                int walks = in.readInt();
+                for (int w = 0; w < walks; ++w) {
+                    portal.walks.put(in.readInt(), in.readDouble());
+                }
+                portals.put(portal.id, portal);
+                nextId = Math.max(nextId, portal.id + 1);
+            }
+        } catch (IOException | ArrayIndexOutOfBoundsException e) {
+            Debug.logWarning("Failed to read portals from " + file + ": " + e.getMessage());
+            portals.clear();
+        }
+    }
+
+    private File getFile() {
+        return new File(PORTALS_FOLDER, worldKey + ".bin");
+    }
+}
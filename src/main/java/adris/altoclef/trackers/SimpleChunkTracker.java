@@ -8,23 +8,29 @@ import adris.altoclef.eventbus.events.ChunkUnloadEvent;
 import adris.altoclef.util.helpers.WorldHelper;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.chunk.EmptyChunk;
 
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
- * Keeps track of currently loaded chunks. That's it.
+ * Keeps track of currently loaded chunks, and which chunks we've ever had loaded (see {@link ExploredChunkMap}).
  */
 public class SimpleChunkTracker {
 
     private final AltoClef mod;
+    // How many explored chunks getBestFrontier looks through, a 128x128 chunk area
+    private static final int MAX_FRONTIER_SEARCH = 128 * 128;
+
     private final Set<ChunkPos> loaded = new HashSet<>();
+    private final ExploredChunkMap explored = new ExploredChunkMap();
 
     public SimpleChunkTracker(AltoClef mod) {
         this.mod = mod;
@@ -37,6 +43,7 @@ public class SimpleChunkTracker {
     private void onLoad(ChunkPos pos) {
         //Debug.logInternal("LOADED: " + pos);
         loaded.add(pos);
+        explored.markExplored(WorldHelper.getCurrentDimension(), pos);
     }
 
     private void onUnload(ChunkPos pos) {
@@ -52,6 +59,23 @@ public class SimpleChunkTracker {
         return isChunkLoaded(new ChunkPos(pos));
     }
 
+    /**
+     * @return Whether this chunk was ever loaded in the current dimension (since we joined the world).
+     */
+    public boolean isChunkExplored(ChunkPos pos) {
+        return explored.isExplored(WorldHelper.getCurrentDimension(), pos);
+    }
+
+    /**
+     * The closest chunk at the edge of what we've explored, to go to for new land.
+     *
+     * @param heading Which way we'd like to keep going (ex. away from where we started), or zero for no preference
+     * @param skip    Chunks not to pick
+     */
+    public Optional<ChunkPos> getBestFrontier(Vec3d heading, Predicate<ChunkPos> skip) {
+        return explored.getBestFrontier(WorldHelper.getCurrentDimension(), mod.getPlayer().getPos(), heading, skip, MAX_FRONTIER_SEARCH);
+    }
+
     public List<ChunkPos> getLoadedChunks() {
         List<ChunkPos> result = new ArrayList<>(loaded);
         // Only show LOADED chunks.
@@ -96,5 +120,6 @@ public class SimpleChunkTracker {
     public void reset(AltoClef mod) {
         Debug.logInternal("CHUNKS RESET");
         loaded.clear();
+        explored.clear();
     }
 }
@@ -0,0 +1,271 @@
+package adris.altoclef.trackers;
+
+import adris.altoclef.Debug;
+import adris.altoclef.chains.MobDefenseChain;
+import adris.altoclef.util.baritone.CachedProjectile;
+import adris.altoclef.util.helpers.BaritoneHelper;
+import adris.altoclef.util.helpers.EntityHelper;
+import adris.altoclef.util.helpers.LookHelper;
+import net.minecraft.client.network.ClientPlayerEntity;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.mob.CreeperEntity;
+import net.minecraft.entity.mob.HostileEntity;
+import net.minecraft.entity.mob.MobEntity;
+import net.minecraft.entity.mob.SkeletonEntity;
+import net.minecraft.entity.projectile.*;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+/**
+ * Everything that could hurt us this tick, worked out in one pass over the entity tracker.
+ * <p>
+ * Mob defense, kill aura and food all want to know about nearby hostiles, and used to each walk the entity lists
+ * (and raycast) on their own. Here hostiles are ranked by distance once, along with the most dangerous fusing creeper,
+ * the incoming projectile and the force field targets.
+ * <p>
+ * Like the entity tracker, this is rebuilt the first time it's read each tick.
+ */
+public class ThreatTracker extends Tracker {
+
+    // Projectiles further than this are never a problem (squared distance)
+    private static final double PROJECTILE_CHECK_RANGE_SQ = 150;
+    private static final double FORCE_FIELD_SIGHT_RANGE = 10;
+    private static final double SKELETON_CHECK_RANGE = 10;
+
+    private static final LivingEntity[] NO_THREATS = new LivingEntity[0];
+    private static final Entity[] NO_TARGETS = new Entity[0];
+
+    // Angry hostiles, closest first
+    private LivingEntity[] threats = NO_THREATS;
+    private double[] threatDistancesSq = new double[0];
+    // Force field targets, closest first
+    private Entity[] attackCandidates = NO_TARGETS;
+
+    private CreeperEntity fusingCreeper;
+    private double fusingCreeperSafety;
+
+    private CachedProjectile incomingProjectile;
+    private boolean ghastBallClose;
+    private boolean skeletonAboutToShoot;
+
+    private double closestCloseHostileDistance;
+
+    public ThreatTracker(TrackerManager manager) {
+        super(manager);
+    }
+
+    /**
+     * Angry hostiles (see {@link EntityTracker#getHostiles()}), closest first.
+     */
+    public LivingEntity[] getRankedThreats() {
+        ensureUpdated();
+        return threats;
+    }
+
+    /**
+     * @return How many of the ranked threats are closer than {@code range}. They're the first ones in {@link #getRankedThreats()}.
+     */
+    public int getThreatCountWithin(double range) {
+        ensureUpdated();
+        double rangeSq = range * range;
+        int count = 0;
+        while (count < threats.length && threatDistancesSq[count] < rangeSq) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Mobs and ghast balls our force field should hit, closest first.
+     */
+    public Entity[] getAttackCandidates() {
+        ensureUpdated();
+        return attackCandidates;
+    }
+
+    /**
+     * The fusing creeper we're least safe from, or null if none are fusing.
+     */
+    public CreeperEntity getFusingCreeper() {
+        ensureUpdated();
+        return fusingCreeper;
+    }
+
+    public double getFusingCreeperSafety() {
+        ensureUpdated();
+        return fusingCreeperSafety;
+    }
+
+    /**
+     * A projectile that looks like it'll hit us, or null.
+     */
+    public CachedProjectile getIncomingProjectile() {
+        ensureUpdated();
+        return incomingProjectile;
+    }
+
+    /**
+     * Whether a ghast fireball is the first close projectile we found. Those are hit back, not dodged.
+     */
+    public boolean isGhastBallClose() {
+        ensureUpdated();
+        return ghastBallClose;
+    }
+
+    /**
+     * Whether a skeleton that can see us is about to let go of its arrow.
+     */
+    public boolean isSkeletonAboutToShoot() {
+        ensureUpdated();
+        return skeletonAboutToShoot;
+    }
+
+    /**
+     * Whether a hostile within interaction range is closer than {@code distance}.
+     */
+    public boolean isCloseHostileWithin(double distance) {
+        ensureUpdated();
+        return closestCloseHostileDistance < distance;
+    }
+
+    @Override
+    protected synchronized void updateState() {
+        threats = NO_THREATS;
+        threatDistancesSq = new double[0];
+        attackCandidates = NO_TARGETS;
+        fusingCreeper = null;
+        fusingCreeperSafety = Double.POSITIVE_INFINITY;
+        incomingProjectile = null;
+        ghastBallClose = false;
+        skeletonAboutToShoot = false;
+        closestCloseHostileDistance = Double.POSITIVE_INFINITY;
+
+        ClientPlayerEntity player = mod.getPlayer();
+        if (player == null) return;
+        EntityTracker entityTracker = mod.getEntityTracker();
+        Vec3d playerPos = player.getPos();
+
+        synchronized (BaritoneHelper.MINECRAFT_LOCK) {
+            rankThreats(entityTracker.getHostiles(), player);
+            findAttackCandidates(entityTracker.getCloseEntities(), player);
+            try {
+                for (CreeperEntity creeper : entityTracker.getTrackedEntities(CreeperEntity.class)) {
+                    if (creeper == null || creeper.getClientFuseTime(1) < 0.001) continue;
+                    // We want to pick the closest creeper, but FIRST pick creepers about to blow
+                    double safety = MobDefenseChain.getCreeperSafety(playerPos, creeper);
+                    if (safety < fusingCreeperSafety) {
+                        fusingCreeperSafety = safety;
+                        fusingCreeper = creeper;
+                    }
+                }
+            } catch (ConcurrentModificationException | ArrayIndexOutOfBoundsException | NullPointerException e) {
+                Debug.logWarning("Weird Exception caught and ignored while scanning for creepers: " + e.getMessage());
+            }
+            predictProjectiles(entityTracker.getProjectiles(), player);
+            if (!ghastBallClose) {
+                for (SkeletonEntity skeleton : entityTracker.getTrackedEntities(SkeletonEntity.class)) {
+                    if (skeleton.distanceTo(player) > SKELETON_CHECK_RANGE || !skeleton.canSee(player)) continue;
+                    // when the skeleton is about to shoot (it takes 5 ticks to raise the shield)
+                    if (skeleton.getItemUseTime() > 15) {
+                        skeletonAboutToShoot = true;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private void rankThreats(List<LivingEntity> hostiles, ClientPlayerEntity player) {
+        int count = hostiles.size();
+        if (count == 0) return;
+        LivingEntity[] ranked = new LivingEntity[count];
+        double[] distances = new double[count];
+        for (int n = 0; n < count; ++n) {
+            LivingEntity hostile = hostiles.get(n);
+            double distance = hostile.squaredDistanceTo(player);
+            insertSorted(ranked, distances, n, hostile, distance);
+        }
+        threats = ranked;
+        threatDistancesSq = distances;
+    }
+
+    private void findAttackCandidates(List<Entity> closeEntities, ClientPlayerEntity player) {
+        Entity[] candidates = new Entity[closeEntities.size()];
+        double[] distances = new double[closeEntities.size()];
+        int count = 0;
+        for (Entity entity : closeEntities) {
+            if (entity instanceof HostileEntity) {
+                closestCloseHostileDistance = Math.min(closestCloseHostileDistance, entity.distanceTo(player));
+            }
+            if (mod.getBehaviour().shouldExcludeFromForcefield(entity)) continue;
+            boolean shouldForce = false;
+            if (entity instanceof MobEntity) {
+                shouldForce = EntityHelper.isProbablyHostileToPlayer(mod, entity) && LookHelper.seesPlayer(entity, player, FORCE_FIELD_SIGHT_RANGE);
+            } else if (entity instanceof FireballEntity) {
+                // Ghast ball
+                shouldForce = true;
+            }
+            if (!shouldForce) continue;
+            insertSorted(candidates, distances, count++, entity, entity.squaredDistanceTo(player));
+        }
+        attackCandidates = count == 0 ? NO_TARGETS : Arrays.copyOf(candidates, count);
+    }
+
+    /**
+     * Insert into the first {@code size} elements of parallel arrays kept sorted by distance.
+     * There's only ever a handful of threats, so this beats sorting a list of boxed entries.
+     */
+    private static <T> void insertSorted(T[] entities, double[] distances, int size, T entity, double distance) {
+        int i = size;
+        while (i > 0 && distances[i - 1] > distance) {
+            entities[i] = entities[i - 1];
+            distances[i] = distances[i - 1];
+            i--;
+        }
+        entities[i] = entity;
+        distances[i] = distance;
+    }
+
+    private void predictProjectiles(List<CachedProjectile> projectiles, ClientPlayerEntity player) {
+        Vec3d playerPos = player.getPos();
+        double horizontal = MobDefenseChain.ARROW_KEEP_DISTANCE_HORIZONTAL;
+        double vertical = MobDefenseChain.ARROW_KEEP_DISTANCE_VERTICAL;
+        try {
+            for (CachedProjectile projectile : projectiles) {
+                if (projectile.position.squaredDistanceTo(playerPos) >= PROJECTILE_CHECK_RANGE_SQ) continue;
+                if (projectile.projectileType == FireballEntity.class) {
+                    // Ghast balls get hit back instead
+                    ghastBallClose = true;
+                    return;
+                }
+                if (projectile.projectileType == DragonFireballEntity.class) {
+                    // Ignore dragon fireballs
+                    continue;
+                }
+                if (projectile.projectileType == ArrowEntity.class || projectile.projectileType == SpectralArrowEntity.class || projectile.projectileType == SmallFireballEntity.class) {
+                    // check if the projectile is going away from us
+                    if (player.squaredDistanceTo(projectile.position) < player.squaredDistanceTo(projectile.position.add(projectile.velocity))) {
+                        continue;
+                    }
+                }
+
+                if (projectile.passesThroughBox(playerPos.x - horizontal, playerPos.y - vertical, playerPos.z - horizontal,
+                        playerPos.x + horizontal, playerPos.y + vertical, playerPos.z + horizontal)) {
+                    incomingProjectile = projectile;
+                    return;
+                }
+            }
+        } catch (ConcurrentModificationException e) {
+            Debug.logWarning(e.getMessage());
+        }
+    }
+
+    @Override
+    protected void reset() {
+        // Rebuilt every tick anyway.
+    }
+}
@@ -26,6 +26,7 @@ public class TrackerManager {
             // This is a a spaghetti. Fix at some point.
             _mod.getChunkTracker().reset(_mod);
             _mod.getMiscBlockTracker().reset();
+            _mod.getBlacklist().clear();
         }
         _wasInGame = inGame;
 
@@ -0,0 +1,219 @@
+package adris.altoclef.trackers.blacklisting;
+
+import adris.altoclef.AltoClef;
+import adris.altoclef.Debug;
+import adris.altoclef.eventbus.EventBus;
+import adris.altoclef.eventbus.events.BlockStateChangedEvent;
+import adris.altoclef.util.MiningRequirement;
+import adris.altoclef.util.helpers.StorageHelper;
+import adris.altoclef.util.time.TimerWheel;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sometimes we will try to access something and fail TOO many times.
+ * <p>
+ * This lets us know that a block or entity is unreachable, so we can ignore it from the search intelligently. Things
+ * are keyed by a long (see {@link #blockKey(BlockPos)} and {@link #entityKey(Entity)}) and a {@link Reason}, so we
+ * never hold on to entities or worlds.
+ * <p>
+ * Nothing stays blacklisted forever: the first time lasts a little while, and every time it gets blacklisted again
+ * it lasts twice as long. Those "strikes" are forgotten again over time, and once there's nothing left to remember the
+ * entry is dropped. Blocks changing right next to a blacklisted block lift its blacklist early, the way there might
+ * have opened up.
+ */
+public class DecayingBlacklist {
+
+    private static final double BASE_BLACKLIST_SECONDS = 30;
+    private static final double MAX_BLACKLIST_SECONDS = 30 * 60;
+    // Without failing for this long, forget one strike
+    private static final double STRIKE_DECAY_SECONDS = 5 * 60;
+    private static final int CLEANUP_INTERVAL_TICKS = 10 * 20;
+    // Block changes this close (on every axis) to a blacklisted block lift its blacklist
+    private static final int TERRAIN_CHANGE_RANGE = 1;
+
+    public enum Reason {
+        /** Couldn't get to or interact with a block (key: {@link #blockKey(BlockPos)}) */
+        UNREACHABLE_BLOCK(true),
+        /** Couldn't get to an entity (key: {@link #entityKey(Entity)}) */
+        UNREACHABLE_ENTITY(false),
+        /** Couldn't pick up a dropped item (key: {@link #entityKey(Entity)}) */
+        PICKUP_FAILED(false);
+
+        private final boolean keyedByBlock;
+
+        Reason(boolean keyedByBlock) {
+            this.keyedByBlock = keyedByBlock;
+        }
+    }
+
+    private final Map<Reason, Long2ObjectOpenHashMap<Entry>> entries = new EnumMap<>(Reason.class);
+    // So block changes can skip looking while no blocks are blacklisted. May count some that already ran out.
+    private volatile int blacklistedBlockCount = 0;
+
+    private static class Entry {
+        int failuresAllowed;
+        int failures;
+        // How many times this was blacklisted recently
+        int strikes;
+        double blacklistedUntil;
+        double lastFailure;
+        double bestDistanceSq = Double.POSITIVE_INFINITY;
+        MiningRequirement bestTool = MiningRequirement.HAND;
+
+        boolean isBlacklisted(double now) {
+            return now < blacklistedUntil;
+        }
+    }
+
+    public DecayingBlacklist() {
+        for (Reason reason : Reason.values()) {
+            entries.put(reason, new Long2ObjectOpenHashMap<>());
+        }
+        EventBus.subscribe(BlockStateChangedEvent.class, evt -> onBlockChanged(evt.blockPos));
+        TimerWheel.scheduleRepeating("Blacklist cleanup", CLEANUP_INTERVAL_TICKS, this::cleanup);
+    }
+
+    public static long blockKey(BlockPos pos) {
+        return pos.asLong();
+    }
+
+    public static long entityKey(Entity entity) {
+        return entity.getId();
+    }
+
+    private static double now() {
+        return TimerWheel.getRealSeconds();
+    }
+
+    /**
+     * We failed to get to/use something at {@code pos}. Once it's failed more than {@code failuresAllowed} times,
+     * it's blacklisted. Getting closer than before or getting a better tool starts counting from zero again.
+     */
+    public synchronized void recordFailure(Reason reason, long key, Vec3d pos, int failuresAllowed) {
+        AltoClef mod = AltoClef.getInstance();
+        double now = now();
+        Entry entry = entries.get(reason).computeIfAbsent(key, k -> new Entry());
+        double newDistance = pos.squaredDistanceTo(mod.getPlayer().getPos());
+        MiningRequirement newTool = StorageHelper.getCurrentMiningRequirement();
+        // For distance, add a slight threshold so it doesn't reset EVERY time we move a tiny bit closer.
+        if (newTool.ordinal() > entry.bestTool.ordinal() || (newDistance < entry.bestDistanceSq - 1)) {
+            if (newTool.ordinal() > entry.bestTool.ordinal()) entry.bestTool = newTool;
+            if (newDistance < entry.bestDistanceSq) entry.bestDistanceSq = newDistance;
+            entry.failures = 0;
+            Debug.logMessage("Blacklist RESET: " + reason + " " + key);
+        }
+        entry.failures++;
+        entry.failuresAllowed = failuresAllowed;
+        entry.lastFailure = now;
+        Debug.logMessage("Blacklist: " + reason + " " + key + ": Try " + entry.failures + " / " + entry.failuresAllowed);
+        if (entry.failures > entry.failuresAllowed && !entry.isBlacklisted(now)) {
+            double seconds = Math.min(BASE_BLACKLIST_SECONDS * Math.pow(2, entry.strikes), MAX_BLACKLIST_SECONDS);
+            entry.strikes++;
+            entry.blacklistedUntil = now + seconds;
+            if (reason.keyedByBlock) blacklistedBlockCount++;
+            Debug.logMessage("Blacklisted " + reason + " " + key + " for " + (int) seconds + " seconds (strike " + entry.strikes + ")");
+        }
+    }
+
+    public synchronized boolean isBlacklisted(Reason reason, long key) {
+        Entry entry = entries.get(reason).get(key);
+        return entry != null && entry.isBlacklisted(now());
+    }
+
+    /**
+     * Everything currently blacklisted for {@code reason}, for checking lots of keys without locking for each.
+     */
+    public synchronized LongSet getBlacklisted(Reason reason) {
+        double now = now();
+        LongSet result = new LongOpenHashSet();
+        for (Long2ObjectMap.Entry<Entry> entry : entries.get(reason).long2ObjectEntrySet()) {
+            if (entry.getValue().isBlacklisted(now)) {
+                result.add(entry.getLongKey());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Forget everything about this, as if we never failed.
+     */
+    public synchronized void forgive(Reason reason, long key) {
+        entries.get(reason).remove(key);
+    }
+
+    public synchronized void clear(Reason reason) {
+        entries.get(reason).clear();
+        if (reason.keyedByBlock) blacklistedBlockCount = 0;
+    }
+
+    public synchronized void clear() {
+        for (Reason reason : Reason.values()) {
+            clear(reason);
+        }
+    }
+
+    /**
+     * Let blacklists run out and forget old strikes.
+     */
+    private synchronized void cleanup() {
+        double now = now();
+        int blockCount = 0;
+        for (Reason reason : Reason.values()) {
+            ObjectIterator<Long2ObjectMap.Entry<Entry>> it = entries.get(reason).long2ObjectEntrySet().iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next().getValue();
+                if (entry.isBlacklisted(now)) {
+                    if (reason.keyedByBlock) blockCount++;
+                    continue;
+                }
+                double sinceActive = now - Math.max(entry.lastFailure, entry.blacklistedUntil);
+                int forgotten = (int) (sinceActive / STRIKE_DECAY_SECONDS);
+                if (forgotten > 0) {
+                    // Failures from this long ago don't count either
+                    entry.failures = 0;
+                    entry.strikes = Math.max(entry.strikes - forgotten, 0);
+                    entry.lastFailure = now;
+                    entry.blacklistedUntil = 0;
+                }
+                if (entry.strikes == 0 && entry.failures == 0) {
+                    it.remove();
+                } else if (entry.blacklistedUntil != 0 && entry.failures > entry.failuresAllowed) {
+                    // Just ran out. Give it one more try: fail again and it's back, for longer.
+                    entry.failures = entry.failuresAllowed;
+                    entry.blacklistedUntil = 0;
+                }
+            }
+        }
+        blacklistedBlockCount = blockCount;
+    }
+
+    private synchronized void onBlockChanged(BlockPos changed) {
+        if (blacklistedBlockCount == 0) return;
+        double now = now();
+        for (Reason reason : Reason.values()) {
+            if (!reason.keyedByBlock) continue;
+            for (Long2ObjectMap.Entry<Entry> entry : entries.get(reason).long2ObjectEntrySet()) {
+                if (!entry.getValue().isBlacklisted(now)) continue;
+                long key = entry.getLongKey();
+                if (Math.abs(BlockPos.unpackLongX(key) - changed.getX()) <= TERRAIN_CHANGE_RANGE
+                        && Math.abs(BlockPos.unpackLongY(key) - changed.getY()) <= TERRAIN_CHANGE_RANGE
+                        && Math.abs(BlockPos.unpackLongZ(key) - changed.getZ()) <= TERRAIN_CHANGE_RANGE) {
+                    // Keep the strikes, if it's still unreachable it'll be back for longer.
+                    entry.getValue().blacklistedUntil = 0;
+                    entry.getValue().failures = 0;
+                    blacklistedBlockCount = Math.max(blacklistedBlockCount - 1, 0);
+                }
+            }
+        }
+    }
+}
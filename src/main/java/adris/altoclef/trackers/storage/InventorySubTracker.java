@@ -33,6 +33,12 @@ public class InventorySubTracker extends Tracker {
 
     private ScreenHandler _prevScreenHandler;
 
+    // Inventory revision, see getInventoryRevision
+    private long revision = 0;
+    private boolean revisionStale = true;
+    private ItemStack[] revisionStacks = new ItemStack[0];
+    private int[] revisionCounts = new int[0];
+
     public InventorySubTracker(TrackerManager manager) {
         super(manager);
     }
@@ -116,6 +122,40 @@ public class InventorySubTracker extends Tracker {
         return result;
     }
 
+    /**
+     * A number that changes whenever the player's inventory (or cursor) contents change, for memoizing things
+     * calculated from the inventory.
+     * <p>
+     * Checked at most once a tick (or after a slot action), by comparing every stack to last time.
+     */
+    public long getInventoryRevision() {
+        if (revisionStale) {
+            revisionStale = false;
+            List<ItemStack> stacks = getInventoryStacks(true);
+            boolean changed = stacks.size() != revisionStacks.length;
+            for (int i = 0; i < stacks.size() && !changed; ++i) {
+                // Stacks are replaced when the server updates a slot, so also compare identity to catch enchantments/names.
+                ItemStack stack = stacks.get(i);
+                changed = stack != revisionStacks[i] || stack.getCount() != revisionCounts[i];
+            }
+            if (changed) {
+                revisionStacks = stacks.toArray(new ItemStack[0]);
+                revisionCounts = new int[revisionStacks.length];
+                for (int i = 0; i < revisionStacks.length; ++i) {
+                    revisionCounts[i] = revisionStacks[i].getCount();
+                }
+                revision++;
+            }
+        }
+        return revision;
+    }
+
+    @Override
+    public void setDirty() {
+        super.setDirty();
+        revisionStale = true;
+    }
+
     private List<Slot> getSlotsThatCanFit(HashMap<Item, List<Slot>> list, ItemStack item, boolean acceptPartial) {
         List<Slot> result = new ArrayList<>();
         // First add fillable slots
@@ -214,6 +254,9 @@ public class InventorySubTracker extends Tracker {
 
     @Override
     protected void reset() {
+        revisionStacks = new ItemStack[0];
+        revisionCounts = new int[0];
+        revision++;
         itemToSlotPlayer.clear();
         itemToSlotContainer.clear();
         itemCountsPlayer.clear();
@@ -173,6 +173,14 @@ public class ItemStorageTracker extends Tracker {
         return inventory.getInventoryStacks(includeCursorSlot);
     }
 
+    /**
+     * Changes whenever anything in the player's inventory (including the cursor slot) changes.
+     * See {@link adris.altoclef.util.InventoryMemo}.
+     */
+    public long getInventoryRevision() {
+        return inventory.getInventoryRevision();
+    }
+
     /**
      * Get all slots in the player's inventory that can fit an item stack.
      *
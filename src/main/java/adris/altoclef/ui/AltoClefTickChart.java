@@ -3,6 +3,7 @@ package adris.altoclef.ui;
 import adris.altoclef.AltoClef;
 import adris.altoclef.multiversion.InGameHudVer;
 import adris.altoclef.multiversion.DrawContextWrapper;
+import adris.altoclef.util.DebugCounters;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.util.math.ColorHelper;
@@ -61,6 +62,14 @@ public class AltoClefTickChart {
 
 
         this.drawBorderedText(context, "50 ms", x + 1, height - 37 + 1);
+
+        // Cache/hot path counters, stacked above the chart
+        int textY = height - 37 - 6;
+        for (DebugCounters.Counter counter : DebugCounters.getCounters()) {
+            if (counter.getTotal() == 0) continue;
+            this.drawBorderedText(context, counter.toString(), x + 1, textY);
+            textY -= 6;
+        }
     }
 
 
@@ -0,0 +1,138 @@
+package adris.altoclef.util;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Vec3i;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * A set of block positions compiled into one bitset per chunk section, so testing a position is a hash lookup and a bit
+ * test instead of a chain of lambdas.
+ * <p>
+ * Meant to be handed to Baritone as an avoider predicate: it's written from the client thread and read from the
+ * pathing thread. Sections are looked up by their packed long in a fastutil map so testing doesn't box a key. That map
+ * is never changed once it's been published, adding a new section publishes a copy instead (sections only get added
+ * every so often, bits get set all the time). A reader may briefly see a stale bit while a writer is mid-update, same
+ * as any other predicate that reads task fields.
+ * <p>
+ * Boxes too big to store bit by bit are kept as boxes and tested directly.
+ */
+public class BlockPosMask implements Predicate<BlockPos> {
+
+    // Boxes with more blocks than this (8 full sections) are tested directly rather than rasterized.
+    private static final long MAX_RASTERIZED_BOX_VOLUME = 8 * 4096;
+
+    private static final int[][] NO_BOXES = new int[0][];
+
+    private static final Long2ObjectOpenHashMap<long[]> NO_SECTIONS = new Long2ObjectOpenHashMap<>();
+
+    private volatile Long2ObjectOpenHashMap<long[]> sections = NO_SECTIONS;
+    // {minX, minY, minZ, maxX, maxY, maxZ} per box
+    private volatile int[][] boxes = NO_BOXES;
+
+    /**
+     * A mask of fixed offsets, for testing positions relative to some origin with {@link #test(int, int, int)}
+     */
+    public static BlockPosMask of(Vec3i... positions) {
+        BlockPosMask result = new BlockPosMask();
+        for (Vec3i pos : positions) {
+            result.add(pos.getX(), pos.getY(), pos.getZ());
+        }
+        return result;
+    }
+
+    public void add(BlockPos pos) {
+        add(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    public synchronized void add(int x, int y, int z) {
+        long key = ChunkSectionPos.asLong(x >> 4, y >> 4, z >> 4);
+        long[] bits = sections.get(key);
+        if (bits == null) {
+            bits = new long[64];
+            Long2ObjectOpenHashMap<long[]> newSections = new Long2ObjectOpenHashMap<>(sections);
+            newSections.put(key, bits);
+            sections = newSections;
+        }
+        int index = indexInSection(x, y, z);
+        bits[index >> 6] |= 1L << (index & 63);
+    }
+
+    /**
+     * Add every position in the box between two corners (inclusive, in any order)
+     */
+    public synchronized void addAll(BlockPos corner1, BlockPos corner2) {
+        int minX = Math.min(corner1.getX(), corner2.getX()), maxX = Math.max(corner1.getX(), corner2.getX());
+        int minY = Math.min(corner1.getY(), corner2.getY()), maxY = Math.max(corner1.getY(), corner2.getY());
+        int minZ = Math.min(corner1.getZ(), corner2.getZ()), maxZ = Math.max(corner1.getZ(), corner2.getZ());
+        long volume = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+        if (volume > MAX_RASTERIZED_BOX_VOLUME) {
+            int[][] newBoxes = Arrays.copyOf(boxes, boxes.length + 1);
+            newBoxes[boxes.length] = new int[]{minX, minY, minZ, maxX, maxY, maxZ};
+            boxes = newBoxes;
+            return;
+        }
+        for (int x = minX; x <= maxX; ++x) {
+            for (int y = minY; y <= maxY; ++y) {
+                for (int z = minZ; z <= maxZ; ++z) {
+                    add(x, y, z);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove a single position. Positions covered by a large box added through {@link #addAll} stay covered.
+     */
+    public synchronized void remove(BlockPos pos) {
+        long[] bits = sections.get(ChunkSectionPos.asLong(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4));
+        if (bits != null) {
+            int index = indexInSection(pos.getX(), pos.getY(), pos.getZ());
+            bits[index >> 6] &= ~(1L << (index & 63));
+        }
+    }
+
+    public synchronized void clear() {
+        sections = NO_SECTIONS;
+        boxes = NO_BOXES;
+    }
+
+    public boolean isEmpty() {
+        return sections.isEmpty() && boxes.length == 0;
+    }
+
+    @Override
+    public boolean test(BlockPos pos) {
+        return test(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    public boolean test(int x, int y, int z) {
+        long[] bits = sections.get(ChunkSectionPos.asLong(x >> 4, y >> 4, z >> 4));
+        if (bits != null) {
+            int index = indexInSection(x, y, z);
+            if ((bits[index >> 6] & (1L << (index & 63))) != 0) {
+                return true;
+            }
+        }
+        for (int[] box : boxes) {
+            if (box[0] <= x && x <= box[3] && box[1] <= y && y <= box[4] && box[2] <= z && z <= box[5]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Test a position relative to an origin, without allocating the offset position.
+     */
+    public boolean testRelative(BlockPos origin, BlockPos pos) {
+        return test(pos.getX() - origin.getX(), pos.getY() - origin.getY(), pos.getZ() - origin.getZ());
+    }
+
+    private static int indexInSection(int x, int y, int z) {
+        return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+}
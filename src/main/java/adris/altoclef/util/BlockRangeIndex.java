@@ -0,0 +1,96 @@
+package adris.altoclef.util;
+
+import adris.altoclef.util.helpers.WorldHelper;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.*;
+
+/**
+ * An immutable spatial index over a set of {@link BlockRange}s, for point queries that run very often
+ * (ex. Baritone asking whether it may break a block, for every node it expands).
+ * <p>
+ * Ranges are bucketed by the chunks they overlap, per dimension. A position in a chunk with no bucket is
+ * answered with a single hash lookup (on the primitive chunk key, so nothing gets boxed). Ranges too large to bucket are
+ * kept in a short list that is always checked.
+ */
+public class BlockRangeIndex {
+
+    // Past this many chunks a range is cheaper to test directly than to bucket.
+    private static final int MAX_CHUNKS_PER_RANGE = 4096;
+
+    private static final BlockRange[] NO_RANGES = new BlockRange[0];
+
+    private final Map<Dimension, Long2ObjectOpenHashMap<BlockRange[]>> buckets = new EnumMap<>(Dimension.class);
+    private final Map<Dimension, BlockRange[]> largeRanges = new EnumMap<>(Dimension.class);
+    private final boolean empty;
+
+    public BlockRangeIndex(Collection<BlockRange> ranges) {
+        Map<Dimension, Long2ObjectOpenHashMap<List<BlockRange>>> bucketLists = new EnumMap<>(Dimension.class);
+        Map<Dimension, List<BlockRange>> largeLists = new EnumMap<>(Dimension.class);
+        for (BlockRange range : ranges) {
+            // No dimension never matches in BlockRange.contains either
+            if (range == null || range.start == null || range.end == null || range.dimension == null) continue;
+            // Same semantics as BlockRange.contains: a range with start > end on any axis contains nothing.
+            if (range.start.getX() > range.end.getX() || range.start.getY() > range.end.getY() || range.start.getZ() > range.end.getZ()) {
+                continue;
+            }
+            int minChunkX = range.start.getX() >> 4, maxChunkX = range.end.getX() >> 4;
+            int minChunkZ = range.start.getZ() >> 4, maxChunkZ = range.end.getZ() >> 4;
+            long chunkCount = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+            if (chunkCount > MAX_CHUNKS_PER_RANGE) {
+                largeLists.computeIfAbsent(range.dimension, d -> new ArrayList<>()).add(range);
+                continue;
+            }
+            Long2ObjectOpenHashMap<List<BlockRange>> dimensionBuckets = bucketLists.computeIfAbsent(range.dimension, d -> new Long2ObjectOpenHashMap<>());
+            for (int cx = minChunkX; cx <= maxChunkX; ++cx) {
+                for (int cz = minChunkZ; cz <= maxChunkZ; ++cz) {
+                    dimensionBuckets.computeIfAbsent(ChunkPos.toLong(cx, cz), k -> new ArrayList<>(1)).add(range);
+                }
+            }
+        }
+        bucketLists.forEach((dimension, lists) -> {
+            Long2ObjectOpenHashMap<BlockRange[]> arrays = new Long2ObjectOpenHashMap<>(lists.size());
+            lists.long2ObjectEntrySet().forEach(entry -> arrays.put(entry.getLongKey(), entry.getValue().toArray(NO_RANGES)));
+            buckets.put(dimension, arrays);
+        });
+        largeLists.forEach((dimension, list) -> largeRanges.put(dimension, list.toArray(NO_RANGES)));
+        empty = buckets.isEmpty() && largeRanges.isEmpty();
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    public boolean contains(BlockPos pos) {
+        // Don't bother looking up the dimension if there's nothing to find.
+        if (empty) return false;
+        return contains(pos, WorldHelper.getCurrentDimension());
+    }
+
+    public boolean contains(BlockPos pos, Dimension dimension) {
+        if (empty) return false;
+        int x = pos.getX(), y = pos.getY(), z = pos.getZ();
+        Long2ObjectOpenHashMap<BlockRange[]> dimensionBuckets = buckets.get(dimension);
+        if (dimensionBuckets != null) {
+            BlockRange[] inChunk = dimensionBuckets.get(ChunkPos.toLong(x >> 4, z >> 4));
+            if (inChunk != null && anyContains(inChunk, x, y, z)) {
+                return true;
+            }
+        }
+        BlockRange[] large = largeRanges.get(dimension);
+        return large != null && anyContains(large, x, y, z);
+    }
+
+    private static boolean anyContains(BlockRange[] ranges, int x, int y, int z) {
+        for (BlockRange range : ranges) {
+            if (range.start.getX() <= x && x <= range.end.getX() &&
+                    range.start.getZ() <= z && z <= range.end.getZ() &&
+                    range.start.getY() <= y && y <= range.end.getY()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
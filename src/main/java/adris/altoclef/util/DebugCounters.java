@@ -0,0 +1,73 @@
+package adris.altoclef.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Named counters for cheap profiling of caches and hot paths (ex. raycast cache hits/misses).
+ * <p>
+ * Values are rolled over every client tick, and shown next to the tick chart when `showDebugTickMs` is enabled.
+ * Only meant to be touched from the client thread.
+ */
+public class DebugCounters {
+
+    private static final List<Counter> counters = new ArrayList<>();
+
+    public static Counter register(String name) {
+        Counter counter = new Counter(name);
+        counters.add(counter);
+        return counter;
+    }
+
+    public static List<Counter> getCounters() {
+        return Collections.unmodifiableList(counters);
+    }
+
+    /**
+     * Called once at the end of every client tick
+     */
+    public static void onTickEnd() {
+        for (Counter counter : counters) {
+            counter.lastTick = counter.thisTick;
+            counter.thisTick = 0;
+        }
+    }
+
+    public static class Counter {
+        private final String name;
+        private long total;
+        private long thisTick;
+        private long lastTick;
+
+        private Counter(String name) {
+            this.name = name;
+        }
+
+        public void increment() {
+            add(1);
+        }
+
+        public void add(long amount) {
+            total += amount;
+            thisTick += amount;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public long getLastTick() {
+            return lastTick;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + lastTick + "/tick (" + total + " total)";
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package adris.altoclef.util;
+
+import adris.altoclef.multiversion.FoodComponentWrapper;
+import adris.altoclef.multiversion.item.ItemVer;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.registry.Registries;
+
+/**
+ * Hunger and saturation of every food item, looked up by raw item id.
+ * <p>
+ * Reading food components goes through the item's component map every time, which adds up when scoring every stack
+ * in the inventory each tick. Stacks can have their own food component though, so for stacks that change any of their
+ * item's components we read the stack instead.
+ */
+public class FoodTable {
+
+    private static int[] hunger;
+    private static float[] saturation;
+
+    private static void ensureBuilt() {
+        if (hunger != null) return;
+        int size = Registries.ITEM.size();
+        int[] newHunger = new int[size];
+        float[] newSaturation = new float[size];
+        for (Item item : Registries.ITEM) {
+            int id = Registries.ITEM.getRawId(item);
+            if (id < 0 || id >= size) continue;
+            FoodComponentWrapper food = ItemVer.isFood(item) ? ItemVer.getFoodComponent(item) : null;
+            // -1 marks "not food"
+            newHunger[id] = food != null ? food.getHunger() : -1;
+            newSaturation[id] = food != null ? food.getSaturationModifier() : 0;
+        }
+        saturation = newSaturation;
+        hunger = newHunger;
+    }
+
+    private static int indexOf(Item item) {
+        ensureBuilt();
+        int id = Registries.ITEM.getRawId(item);
+        return id >= 0 && id < hunger.length ? id : -1;
+    }
+
+    public static boolean isFood(Item item) {
+        int id = indexOf(item);
+        return id != -1 && hunger[id] >= 0;
+    }
+
+    /**
+     * @return How much hunger an item fills, or -1 if it isn't food.
+     */
+    public static int getHunger(Item item) {
+        int id = indexOf(item);
+        return id != -1 ? hunger[id] : -1;
+    }
+
+    public static float getSaturation(Item item) {
+        int id = indexOf(item);
+        return id != -1 ? saturation[id] : 0;
+    }
+
+    public static boolean isFood(ItemStack stack) {
+        return getHunger(stack) >= 0;
+    }
+
+    /**
+     * @return How much hunger a stack fills, or -1 if it isn't food.
+     */
+    public static int getHunger(ItemStack stack) {
+        if (hasOwnComponents(stack)) {
+            FoodComponentWrapper food = ItemVer.getFoodComponent(stack);
+            return food != null ? food.getHunger() : -1;
+        }
+        return getHunger(stack.getItem());
+    }
+
+    public static float getSaturation(ItemStack stack) {
+        if (hasOwnComponents(stack)) {
+            FoodComponentWrapper food = ItemVer.getFoodComponent(stack);
+            return food != null ? food.getSaturationModifier() : 0;
+        }
+        return getSaturation(stack.getItem());
+    }
+
+    private static boolean hasOwnComponents(ItemStack stack) {
+        //#if MC >=12005
+        return !stack.getComponentChanges().isEmpty();
+        //#else
+        //$$ return false;
+        //#endif
+    }
+}
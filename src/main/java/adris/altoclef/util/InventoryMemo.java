@@ -0,0 +1,58 @@
+package adris.altoclef.util;
+
+import adris.altoclef.AltoClef;
+import adris.altoclef.Settings;
+
+import java.util.function.Supplier;
+
+/**
+ * Remembers a value calculated from the player's inventory until the inventory changes.
+ * <p>
+ * The value is also recalculated if the protected items or settings change (both decide which stacks count),
+ * or if the caller passes a different key, for anything else the value depends on (ex. hunger).
+ */
+public class InventoryMemo<T> {
+
+    private final Supplier<T> calculate;
+
+    private boolean valid = false;
+    private long inventoryRevision;
+    private int protectedItemsRevision;
+    private Settings settings;
+    private long key;
+    private T value;
+
+    public InventoryMemo(Supplier<T> calculate) {
+        this.calculate = calculate;
+    }
+
+    public T get() {
+        return get(0);
+    }
+
+    /**
+     * @param key Anything else the value depends on, packed into a long.
+     */
+    public T get(long key) {
+        AltoClef mod = AltoClef.getInstance();
+        long currentInventoryRevision = mod.getItemStorage().getInventoryRevision();
+        int currentProtectedRevision = mod.getBehaviour().getProtectedItemsRevision();
+        Settings currentSettings = mod.getModSettings();
+        if (!valid || inventoryRevision != currentInventoryRevision || protectedItemsRevision != currentProtectedRevision
+                || settings != currentSettings || this.key != key) {
+            // Calculate first, in case it throws
+            value = calculate.get();
+            inventoryRevision = currentInventoryRevision;
+            protectedItemsRevision = currentProtectedRevision;
+            settings = currentSettings;
+            this.key = key;
+            valid = true;
+        }
+        return value;
+    }
+
+    public void invalidate() {
+        valid = false;
+        value = null;
+    }
+}
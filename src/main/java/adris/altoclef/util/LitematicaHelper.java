@@ -2,21 +2,24 @@ package adris.altoclef.util;
 
 import adris.altoclef.AltoClef;
 import adris.altoclef.Debug;
+import adris.altoclef.util.helpers.WorldHelper;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.registry.Registries;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 /**
  * Helper class to interface with Litematica mod using reflection.
@@ -239,84 +242,217 @@ public class LitematicaHelper {
         }
     }
     
+    /**
+     * Reflective entry points into Litematica, resolved once into {@link MethodHandle}s after the classes load.
+     * All handles are adapted to erased {@code Object} signatures so they can be invoked exactly.
+     * A handle stays null if this Litematica version doesn't expose that method.
+     */
+    private static final class Handles {
+        private static boolean resolved = false;
+        private static MethodHandle getSchematicPlacementManager;
+        private static MethodHandle getSelectedSchematicPlacement;
+        private static MethodHandle getName;
+        private static MethodHandle getOrigin;
+        private static MethodHandle getMaterialList;
+        private static MethodHandle reCreateMaterialList;
+        private static MethodHandle getMaterialsFiltered;
+        private static MethodHandle getMaterialsAll;
+        private static MethodHandle getMaterialsMissingOnly;
+        private static MethodHandle getStack;
+        private static MethodHandle getCountTotal;
+        private static MethodHandle getCountMissing;
+
+        private static void resolve() {
+            if (resolved) {
+                return;
+            }
+            resolved = true;
+            getSchematicPlacementManager = findStatic(dataManagerClass, "getSchematicPlacementManager");
+            getSelectedSchematicPlacement = find(placementManagerClass, "getSelectedSchematicPlacement", Object.class);
+            getName = find(schematicPlacementClass, "getName", Object.class);
+            getOrigin = find(schematicPlacementClass, "getOrigin", Object.class);
+            getMaterialList = find(schematicPlacementClass, "getMaterialList", Object.class);
+            reCreateMaterialList = find(materialListBaseClass, "reCreateMaterialList", void.class);
+            getMaterialsFiltered = find(materialListBaseClass, "getMaterialsFiltered", Object.class, boolean.class);
+            getMaterialsAll = find(materialListBaseClass, "getMaterialsAll", Object.class);
+            getMaterialsMissingOnly = find(materialListBaseClass, "getMaterialsMissingOnly", Object.class, boolean.class);
+            getStack = find(materialListEntryClass, "getStack", Object.class);
+            getCountTotal = find(materialListEntryClass, "getCountTotal", long.class);
+            getCountMissing = find(materialListEntryClass, "getCountMissing", long.class);
+        }
+
+        private static MethodHandle findStatic(Class<?> owner, String name) {
+            try {
+                Method method = owner.getMethod(name);
+                return LOOKUP.unreflect(method).asType(MethodType.methodType(Object.class));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                Debug.logWarning("Litematica method not available: " + owner.getSimpleName() + "." + name);
+                return null;
+            }
+        }
+
+        private static MethodHandle find(Class<?> owner, String name, Class<?> returnType, Class<?>... params) {
+            try {
+                Method method = owner.getMethod(name, params);
+                Class<?>[] erasedParams = new Class<?>[params.length + 1];
+                erasedParams[0] = Object.class;
+                System.arraycopy(params, 0, erasedParams, 1, params.length);
+                return LOOKUP.unreflect(method).asType(MethodType.methodType(returnType, erasedParams));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                Debug.logWarning("Litematica method not available: " + owner.getSimpleName() + "." + name);
+                return null;
+            }
+        }
+    }
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    /**
+     * Coordinate getters for non-vanilla position types (ex. malilib's BlockPos), resolved once per class.
+     */
+    private static final ClassValue<MethodHandle[]> ORIGIN_ACCESSORS = new ClassValue<>() {
+        @Override
+        protected MethodHandle[] computeValue(Class<?> type) {
+            try {
+                MethodType getter = MethodType.methodType(int.class, Object.class);
+                return new MethodHandle[]{
+                        LOOKUP.unreflect(type.getMethod("getX")).asType(getter),
+                        LOOKUP.unreflect(type.getMethod("getY")).asType(getter),
+                        LOOKUP.unreflect(type.getMethod("getZ")).asType(getter)
+                };
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+    };
+
+    private static boolean ensureHandles() {
+        if (!isLitematicaLoaded()) {
+            return false;
+        }
+        Handles.resolve();
+        return true;
+    }
+
     /**
      * Get the currently selected/active schematic placement
      */
     public static Optional<Object> getSelectedPlacement() {
-        if (!isLitematicaLoaded()) {
+        if (!ensureHandles() || Handles.getSchematicPlacementManager == null || Handles.getSelectedSchematicPlacement == null) {
             return Optional.empty();
         }
-        
+
         try {
             // DataManager.getSchematicPlacementManager()
-            Method getManagerMethod = dataManagerClass.getMethod("getSchematicPlacementManager");
-            Object placementManager = getManagerMethod.invoke(null);
-            
+            Object placementManager = (Object) Handles.getSchematicPlacementManager.invokeExact();
+
             if (placementManager == null) {
                 return Optional.empty();
             }
-            
+
             // placementManager.getSelectedSchematicPlacement()
-            Method getSelectedMethod = placementManagerClass.getMethod("getSelectedSchematicPlacement");
-            Object placement = getSelectedMethod.invoke(placementManager);
-            
+            Object placement = (Object) Handles.getSelectedSchematicPlacement.invokeExact(placementManager);
+
             return Optional.ofNullable(placement);
-        } catch (Exception e) {
+        } catch (Throwable e) {
             Debug.logWarning("Error getting selected placement: " + e.getMessage());
             return Optional.empty();
         }
     }
-    
+
+    /**
+     * Get the name of a schematic placement, or null if it can't be read.
+     */
+    private static String getPlacementName(Object placementObj) throws Throwable {
+        if (Handles.getName == null) {
+            return null;
+        }
+        return (String) (Object) Handles.getName.invokeExact(placementObj);
+    }
+
+    /**
+     * Get the origin of a schematic placement, handling both malilib and vanilla BlockPos.
+     * Returns null if the origin can't be read.
+     */
+    private static BlockPos getPlacementOrigin(Object placementObj) throws Throwable {
+        if (Handles.getOrigin == null) {
+            return null;
+        }
+        return toBlockPos((Object) Handles.getOrigin.invokeExact(placementObj));
+    }
+
+    /**
+     * Convert a vanilla or malilib block position into a vanilla BlockPos, or null if it can't be read.
+     */
+    private static BlockPos toBlockPos(Object posObj) throws Throwable {
+        if (posObj == null) {
+            return null;
+        }
+        if (posObj instanceof BlockPos pos) {
+            return new BlockPos(pos.getX(), pos.getY(), pos.getZ());
+        }
+        MethodHandle[] accessors = ORIGIN_ACCESSORS.get(posObj.getClass());
+        if (accessors == null) {
+            Debug.logWarning("Could not extract coordinates from " + posObj.getClass().getName());
+            return null;
+        }
+        return new BlockPos(
+                (int) accessors[0].invokeExact(posObj),
+                (int) accessors[1].invokeExact(posObj),
+                (int) accessors[2].invokeExact(posObj)
+        );
+    }
+
+    /**
+     * Call one of the material list getters, returning its entries only if it produced any.
+     */
+    private static Collection<?> tryGetMaterials(MethodHandle getter, Object materialList, Boolean arg, String description) {
+        if (getter == null) {
+            return null;
+        }
+        try {
+            Object materialsObj = arg == null
+                    ? (Object) getter.invokeExact(materialList)
+                    : (Object) getter.invokeExact(materialList, (boolean) arg);
+            Collection<?> materials = toCollection(materialsObj);
+            Debug.logInternal(description + " returned " + materials.size() + " entries");
+            return materials.isEmpty() ? null : materials;
+        } catch (Throwable e) {
+            Debug.logWarning(description + " failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static Collection<?> toCollection(Object materialsObj) {
+        if (materialsObj instanceof Collection<?> collection) {
+            return collection;
+        }
+        List<Object> result = new ArrayList<>();
+        if (materialsObj instanceof Iterable<?> iterable) {
+            for (Object item : iterable) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
     /**
      * Get detailed information about a schematic placement including material requirements
      */
     public static Optional<SchematicPlacementInfo> getPlacementInfo(Object placementObj) {
-        if (!isLitematicaLoaded() || placementObj == null) {
+        if (!ensureHandles() || placementObj == null) {
             return Optional.empty();
         }
-        
+
         try {
-            // Get placement name
-            Method getNameMethod = schematicPlacementClass.getMethod("getName");
-            String name = (String) getNameMethod.invoke(placementObj);
-            
-            // Get placement origin
-            Method getOriginMethod = schematicPlacementClass.getMethod("getOrigin");
-            Object originObj = getOriginMethod.invoke(placementObj);
-
-            // Extract coordinates - handle both malilib and vanilla BlockPos
-            int x, y, z;
-
-            if (originObj.getClass().getName().startsWith("fi.dy.masa.malilib")) {
-                // Malilib BlockPos - has getX(), getY(), getZ()
-                try {
-                    Method getXMethod = originObj.getClass().getMethod("getX");
-                    Method getYMethod = originObj.getClass().getMethod("getY");
-                    Method getZMethod = originObj.getClass().getMethod("getZ");
-                    x = (int) getXMethod.invoke(originObj);
-                    y = (int) getYMethod.invoke(originObj);
-                    z = (int) getZMethod.invoke(originObj);
-                } catch (NoSuchMethodException e) {
-                    // Fallback: try as vanilla BlockPos
-                    net.minecraft.util.math.BlockPos pos = (net.minecraft.util.math.BlockPos) originObj;
-                    x = pos.getX();
-                    y = pos.getY();
-                    z = pos.getZ();
-                }
-            } else {
-                // Vanilla Minecraft BlockPos
-                // In Fabric environment, these methods ARE available
-                net.minecraft.util.math.BlockPos pos = (net.minecraft.util.math.BlockPos) originObj;
-                x = pos.getX();
-                y = pos.getY();
-                z = pos.getZ();
+            String name = getPlacementName(placementObj);
+            BlockPos origin = getPlacementOrigin(placementObj);
+            if (origin == null) {
+                origin = new BlockPos(0, 0, 0);
             }
 
-            BlockPos origin = new BlockPos(x, y, z);
-            
             // Get material list from placement
-            Method getMaterialListMethod = schematicPlacementClass.getMethod("getMaterialList");
-            Object materialList = getMaterialListMethod.invoke(placementObj);
+            Object materialList = Handles.getMaterialList != null ? (Object) Handles.getMaterialList.invokeExact(placementObj) : null;
 
             if (materialList == null) {
                 Debug.logWarning("Material list is null for placement: " + name);
@@ -324,130 +460,65 @@ public class LitematicaHelper {
             }
 
             // Force regeneration of the material list
-            Debug.logMessage("Attempting to regenerate material list...");
-            try {
-                Method reCreateMethod = materialListBaseClass.getMethod("reCreateMaterialList");
-                reCreateMethod.invoke(materialList);
-                Debug.logMessage("Called reCreateMaterialList() successfully");
-
-                // Small delay to let async operations complete (if any)
-                Thread.sleep(100);
-            } catch (Exception e) {
-                Debug.logWarning("Could not call reCreateMaterialList(): " + e.getMessage());
-            }
-
-            // Try multiple methods to get materials, with debug logging
-            Object materialsObj = null;
-            int materialCount = 0;
-
-            // Method 1: Try getMaterialsFiltered(true)
-            try {
-                Debug.logMessage("Trying getMaterialsFiltered(true)...");
-                Method getFilteredMethod = materialListBaseClass.getMethod("getMaterialsFiltered", boolean.class);
-                materialsObj = getFilteredMethod.invoke(materialList, true);
-
-                if (materialsObj instanceof Iterable) {
-                    int count = 0;
-                    for (Object item : (Iterable<?>) materialsObj) {
-                        count++;
-                    }
-                    materialCount = count;
-                    Debug.logMessage("getMaterialsFiltered(true) returned " + materialCount + " entries");
-                }
-            } catch (Exception e) {
-                Debug.logWarning("getMaterialsFiltered(true) failed: " + e.getMessage());
-            }
-
-            // Method 2: If empty, try getMaterialsAll()
-            if (materialCount == 0) {
+            if (Handles.reCreateMaterialList != null) {
                 try {
-                    Debug.logMessage("Trying getMaterialsAll()...");
-                    Method getAllMethod = materialListBaseClass.getMethod("getMaterialsAll");
-                    materialsObj = getAllMethod.invoke(materialList);
-
-                    if (materialsObj instanceof Iterable) {
-                        int count = 0;
-                        for (Object item : (Iterable<?>) materialsObj) {
-                            count++;
-                        }
-                        materialCount = count;
-                        Debug.logMessage("getMaterialsAll() returned " + materialCount + " entries");
-                    }
-                } catch (Exception e) {
-                    Debug.logWarning("getMaterialsAll() failed: " + e.getMessage());
+                    Handles.reCreateMaterialList.invokeExact(materialList);
+                } catch (Throwable e) {
+                    Debug.logWarning("Could not call reCreateMaterialList(): " + e.getMessage());
                 }
             }
 
-            // Method 3: If still empty, try getMaterialsMissingOnly(true)
-            if (materialCount == 0) {
-                try {
-                    Debug.logMessage("Trying getMaterialsMissingOnly(true)...");
-                    Method getMissingMethod = materialListBaseClass.getMethod("getMaterialsMissingOnly", boolean.class);
-                    materialsObj = getMissingMethod.invoke(materialList, true);
-
-                    if (materialsObj instanceof Iterable) {
-                        int count = 0;
-                        for (Object item : (Iterable<?>) materialsObj) {
-                            count++;
-                        }
-                        materialCount = count;
-                        Debug.logMessage("getMaterialsMissingOnly(true) returned " + materialCount + " entries");
-                    }
-                } catch (Exception e) {
-                    Debug.logWarning("getMaterialsMissingOnly(true) failed: " + e.getMessage());
-                }
+            // Try multiple getters to get materials, in order of preference
+            Collection<?> materialsObj = tryGetMaterials(Handles.getMaterialsFiltered, materialList, true, "getMaterialsFiltered(true)");
+            if (materialsObj == null) {
+                materialsObj = tryGetMaterials(Handles.getMaterialsAll, materialList, null, "getMaterialsAll()");
+            }
+            if (materialsObj == null) {
+                materialsObj = tryGetMaterials(Handles.getMaterialsMissingOnly, materialList, true, "getMaterialsMissingOnly(true)");
             }
 
-            Debug.logMessage("Final material count: " + materialCount);
-
-            if (materialCount == 0) {
+            if (materialsObj == null) {
                 Debug.logWarning("All methods returned 0 materials. The material list may not be generated yet.");
                 Debug.logWarning("Please ensure you've opened the material list in Litematica's GUI first.");
+                return Optional.of(new SchematicPlacementInfo(name, origin, new ArrayList<>()));
             }
 
             // Convert materialsObj to List<MaterialRequirement>
-            List<MaterialRequirement> materials = new ArrayList<>();
-            if (materialsObj instanceof Iterable) {
-                for (Object entryObj : (Iterable<?>) materialsObj) {
-                    MaterialRequirement req = parseMaterialEntry(entryObj);
-                    if (req != null) {
-                        materials.add(req);
-                    }
+            List<MaterialRequirement> materials = new ArrayList<>(materialsObj.size());
+            for (Object entryObj : materialsObj) {
+                MaterialRequirement req = parseMaterialEntry(entryObj);
+                if (req != null) {
+                    materials.add(req);
                 }
             }
-            
+
             return Optional.of(new SchematicPlacementInfo(name, origin, materials));
-        } catch (Exception e) {
+        } catch (Throwable e) {
             Debug.logWarning("Error getting placement info: " + e.getMessage());
             e.printStackTrace();
             return Optional.empty();
         }
     }
-    
+
     /**
      * Parse a MaterialListEntry object into our MaterialRequirement
      */
     private static MaterialRequirement parseMaterialEntry(Object entryObj) {
+        if (Handles.getStack == null || Handles.getCountTotal == null || Handles.getCountMissing == null) {
+            return null;
+        }
         try {
-            // Get the ItemStack
-            Method getStackMethod = materialListEntryClass.getMethod("getStack");
-            ItemStack stack = (ItemStack) getStackMethod.invoke(entryObj);
-            
-            // Get total count
-            Method getCountTotalMethod = materialListEntryClass.getMethod("getCountTotal");
-            long totalCount = (long) getCountTotalMethod.invoke(entryObj);
-            
-            // Get missing count
-            Method getCountMissingMethod = materialListEntryClass.getMethod("getCountMissing");
-            long missingCount = (long) getCountMissingMethod.invoke(entryObj);
-            
+            ItemStack stack = (ItemStack) (Object) Handles.getStack.invokeExact(entryObj);
+            long totalCount = (long) Handles.getCountTotal.invokeExact(entryObj);
+            long missingCount = (long) Handles.getCountMissing.invokeExact(entryObj);
+
             return new MaterialRequirement(stack, totalCount, missingCount);
-        } catch (Exception e) {
+        } catch (Throwable e) {
             Debug.logWarning("Error parsing material entry: " + e.getMessage());
             return null;
         }
     }
-    
+
     /**
      * Get the currently selected placement's info.
      * First tries to read from the latest material list file written by Litematica,
@@ -460,51 +531,31 @@ public class LitematicaHelper {
             File file = fileOpt.get();
             long fileAge = System.currentTimeMillis() - file.lastModified();
             if (fileAge < MAX_MATERIAL_FILE_AGE_MS) {
-                Debug.logMessage("Reading material list from file (age: " + (fileAge / 1000) + "s)");
-                List<MaterialRequirement> materials = parseMaterialListFile(file);
+                List<MaterialRequirement> materials = getMaterialListFile(file);
                 if (!materials.isEmpty()) {
                     String schematicName = "Unknown Schematic";
                     // Default origin of (0,0,0) is used as a fallback when reflection cannot retrieve it
                     BlockPos origin = new BlockPos(0, 0, 0);
 
                     // Try to get placement name and origin via reflection
-                    if (isLitematicaLoaded()) {
+                    Optional<Object> placement = getSelectedPlacement();
+                    if (placement.isPresent()) {
                         try {
-                            Method getManagerMethod = dataManagerClass.getMethod("getSchematicPlacementManager");
-                            Object placementManager = getManagerMethod.invoke(null);
-                            if (placementManager != null) {
-                                Method getSelectedMethod = placementManagerClass.getMethod("getSelectedSchematicPlacement");
-                                Object placement = getSelectedMethod.invoke(placementManager);
-                                if (placement != null) {
-                                    Method getNameMethod = schematicPlacementClass.getMethod("getName");
-                                    schematicName = (String) getNameMethod.invoke(placement);
-
-                                    Method getOriginMethod = schematicPlacementClass.getMethod("getOrigin");
-                                    Object originObj = getOriginMethod.invoke(placement);
-                                    if (originObj instanceof net.minecraft.util.math.BlockPos pos) {
-                                        origin = pos;
-                                    } else {
-                                        try {
-                                            Method getXMethod = originObj.getClass().getMethod("getX");
-                                            Method getYMethod = originObj.getClass().getMethod("getY");
-                                            Method getZMethod = originObj.getClass().getMethod("getZ");
-                                            origin = new BlockPos(
-                                                (int) getXMethod.invoke(originObj),
-                                                (int) getYMethod.invoke(originObj),
-                                                (int) getZMethod.invoke(originObj)
-                                            );
-                                        } catch (NoSuchMethodException e) {
-                                            Debug.logWarning("Could not extract origin coordinates: " + e.getMessage());
-                                        }
-                                    }
-                                }
+                            String name = getPlacementName(placement.get());
+                            if (name != null) {
+                                schematicName = name;
+                            }
+                            BlockPos placementOrigin = getPlacementOrigin(placement.get());
+                            if (placementOrigin != null) {
+                                origin = placementOrigin;
                             }
-                        } catch (Exception e) {
+                        } catch (Throwable e) {
                             Debug.logWarning("Could not get placement details via reflection: " + e.getMessage());
                         }
                     }
 
-                    return Optional.of(new SchematicPlacementInfo(schematicName, origin, materials));
+                    // Hand out copies so callers can't mutate the cached list
+                    return Optional.of(new SchematicPlacementInfo(schematicName, origin, new ArrayList<>(materials)));
                 }
             } else {
                 Debug.logMessage("Material list file is old (age: " + (fileAge / 1000) + "s). Please regenerate it using 'Write to file' in Litematica.");
@@ -519,37 +570,137 @@ public class LitematicaHelper {
         return Optional.empty();
     }
 
+    // Resolved on first use, these aren't needed for the material list so they're kept out of the required class set.
+    private static boolean schematicWorldResolved = false;
+    private static MethodHandle getSchematicWorld;
+    private static MethodHandle getEnclosingBox;
+    private static MethodHandle getBoxPos1;
+    private static MethodHandle getBoxPos2;
+
+    /**
+     * Get Litematica's schematic world, which holds the blocks of every loaded placement at their world positions.
+     */
+    public static Optional<World> getSchematicWorld() {
+        if (!ensureHandles()) {
+            return Optional.empty();
+        }
+        if (!schematicWorldResolved) {
+            schematicWorldResolved = true;
+            String packagePrefix = dataManagerClass.getName().startsWith("fi.dy.masa") ? "fi.dy.masa.litematica" : "litematica";
+            try {
+                Class<?> handlerClass = Class.forName(packagePrefix + ".world.SchematicWorldHandler");
+                getSchematicWorld = Handles.findStatic(handlerClass, "getSchematicWorld");
+            } catch (ClassNotFoundException e) {
+                Debug.logWarning("Litematica schematic world not available: " + e.getMessage());
+            }
+            // Litematica spells this "getEclosingBox" in most versions.
+            for (String name : new String[]{"getEclosingBox", "getEnclosingBox"}) {
+                try {
+                    Class<?> boxClass = schematicPlacementClass.getMethod(name).getReturnType();
+                    getEnclosingBox = Handles.find(schematicPlacementClass, name, Object.class);
+                    getBoxPos1 = Handles.find(boxClass, "getPos1", Object.class);
+                    getBoxPos2 = Handles.find(boxClass, "getPos2", Object.class);
+                    break;
+                } catch (NoSuchMethodException ignored) {
+                }
+            }
+        }
+        if (getSchematicWorld == null) {
+            return Optional.empty();
+        }
+        try {
+            Object world = (Object) getSchematicWorld.invokeExact();
+            return world instanceof World schematicWorld ? Optional.of(schematicWorld) : Optional.empty();
+        } catch (Throwable e) {
+            Debug.logWarning("Error getting schematic world: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Get the world-space box enclosing every sub region of a placement, in the current dimension.
+     */
+    public static Optional<BlockRange> getPlacementBounds(Object placementObj) {
+        if (placementObj == null || getSchematicWorld().isEmpty() || getEnclosingBox == null || getBoxPos1 == null || getBoxPos2 == null) {
+            return Optional.empty();
+        }
+        try {
+            Object box = (Object) getEnclosingBox.invokeExact(placementObj);
+            if (box == null) {
+                return Optional.empty();
+            }
+            Object pos1 = (Object) getBoxPos1.invokeExact(box);
+            Object pos2 = (Object) getBoxPos2.invokeExact(box);
+            BlockPos a = toBlockPos(pos1);
+            BlockPos b = toBlockPos(pos2);
+            if (a == null || b == null) {
+                return Optional.empty();
+            }
+            BlockPos min = new BlockPos(Math.min(a.getX(), b.getX()), Math.min(a.getY(), b.getY()), Math.min(a.getZ(), b.getZ()));
+            BlockPos max = new BlockPos(Math.max(a.getX(), b.getX()), Math.max(a.getY(), b.getY()), Math.max(a.getZ(), b.getZ()));
+            return Optional.of(new BlockRange(min, max, WorldHelper.getCurrentDimension()));
+        } catch (Throwable e) {
+            Debug.logWarning("Error getting placement bounds: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // Material list file caches
+    private static long cachedDirectoryModified = Long.MIN_VALUE;
+    private static File[] cachedMaterialListFiles = null;
+    private static final Map<String, CachedMaterialList> materialListCache = new HashMap<>();
+
+    /**
+     * A parsed material list file, valid as long as the file's modification time hasn't changed.
+     */
+    private record CachedMaterialList(long lastModified, long length, List<MaterialRequirement> materials) {
+    }
+
     /**
      * Find the most recent material list file in the Litematica config directory.
+     * The directory is only re-listed when its own modification time changes (files added or removed).
      */
     private static Optional<File> findLatestMaterialListFile() {
         try {
             File minecraftDir = MinecraftClient.getInstance().runDirectory;
             File litematicaDir = new File(minecraftDir, "config/litematica");
 
-            if (!litematicaDir.exists() || !litematicaDir.isDirectory()) {
-                Debug.logWarning("Litematica config directory not found: " + litematicaDir.getAbsolutePath());
+            long directoryModified = litematicaDir.lastModified();
+            if (directoryModified == 0L) {
+                if (cachedDirectoryModified != 0L) {
+                    Debug.logWarning("Litematica config directory not found: " + litematicaDir.getAbsolutePath());
+                }
+                cachedDirectoryModified = 0L;
+                cachedMaterialListFiles = null;
                 return Optional.empty();
             }
 
-            File[] files = litematicaDir.listFiles((dir, name) ->
-                name.startsWith("material_list_") && name.endsWith(".txt")
-            );
+            if (cachedMaterialListFiles == null || directoryModified != cachedDirectoryModified) {
+                cachedDirectoryModified = directoryModified;
+                cachedMaterialListFiles = litematicaDir.listFiles((dir, name) ->
+                    name.startsWith("material_list_") && name.endsWith(".txt")
+                );
+                if (cachedMaterialListFiles == null || cachedMaterialListFiles.length == 0) {
+                    Debug.logMessage("No material list files found. Please use 'Write to file' in Litematica's material list GUI.");
+                }
+            }
 
-            if (files == null || files.length == 0) {
-                Debug.logMessage("No material list files found. Please use 'Write to file' in Litematica's material list GUI.");
+            if (cachedMaterialListFiles == null || cachedMaterialListFiles.length == 0) {
                 return Optional.empty();
             }
 
-            File latestFile = files[0];
-            for (File file : files) {
-                if (file.lastModified() > latestFile.lastModified()) {
+            // Files can be rewritten in place without touching the directory, so compare their own timestamps.
+            File latestFile = null;
+            long latestModified = 0L;
+            for (File file : cachedMaterialListFiles) {
+                long modified = file.lastModified();
+                if (latestFile == null || modified > latestModified) {
                     latestFile = file;
+                    latestModified = modified;
                 }
             }
 
-            Debug.logMessage("Found material list file: " + latestFile.getName());
-            return Optional.of(latestFile);
+            return latestModified == 0L ? Optional.empty() : Optional.of(latestFile);
 
         } catch (Exception e) {
             Debug.logWarning("Error finding material list file: " + e.getMessage());
@@ -557,65 +708,80 @@ public class LitematicaHelper {
         }
     }
 
+    /**
+     * Get the parsed contents of a material list file, only re-parsing if the file changed since we last read it.
+     */
+    private static List<MaterialRequirement> getMaterialListFile(File file) {
+        String key = file.getAbsolutePath();
+        long lastModified = file.lastModified();
+        long length = file.length();
+        CachedMaterialList cached = materialListCache.get(key);
+        if (cached != null && cached.lastModified() == lastModified && cached.length() == length) {
+            return cached.materials();
+        }
+        Debug.logMessage("Reading material list from file: " + file.getName());
+        List<MaterialRequirement> materials = Collections.unmodifiableList(parseMaterialListFile(file));
+        materialListCache.put(key, new CachedMaterialList(lastModified, length, materials));
+        return materials;
+    }
+
     /**
      * Parse a Litematica material list file into a list of MaterialRequirements.
      */
     private static List<MaterialRequirement> parseMaterialListFile(File file) {
         List<MaterialRequirement> materials = new ArrayList<>();
+        int skipped = 0;
 
         try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
             String line;
             boolean inDataSection = false;
 
             while ((line = reader.readLine()) != null) {
-                if (line.startsWith("+") || line.startsWith("| Material List")) {
+                if (line.isEmpty() || line.charAt(0) == '+' || line.startsWith("| Material List")) {
                     continue;
                 }
 
-                if (line.contains("| Item") && line.contains("Total") && line.contains("Missing")) {
-                    inDataSection = true;
+                if (!inDataSection) {
+                    if (line.contains("| Item") && line.contains("Total") && line.contains("Missing")) {
+                        inDataSection = true;
+                    }
                     continue;
                 }
 
-                if (line.trim().isEmpty()) {
+                if (line.charAt(0) != '|') {
                     continue;
                 }
 
-                if (inDataSection && line.startsWith("|")) {
-                    try {
-                        String[] parts = line.split("\\|");
-                        if (parts.length >= 4) {
-                            String itemName = parts[1].trim();
-                            String totalStr = parts[2].trim();
-                            String missingStr = parts[3].trim();
-
-                            if (itemName.isEmpty() || itemName.equals("Item")) {
-                                continue;
-                            }
+                // | Item | Total | Missing | ...
+                int nameEnd = line.indexOf('|', 1);
+                int totalEnd = nameEnd < 0 ? -1 : line.indexOf('|', nameEnd + 1);
+                int missingEnd = totalEnd < 0 ? -1 : line.indexOf('|', totalEnd + 1);
+                if (missingEnd < 0) {
+                    continue;
+                }
 
-                            long totalCount = Long.parseLong(totalStr);
-                            long missingCount = Long.parseLong(missingStr);
+                String itemName = line.substring(1, nameEnd).trim();
+                if (itemName.isEmpty() || itemName.equals("Item")) {
+                    continue;
+                }
 
-                            String itemId = convertItemNameToId(itemName);
-                            Identifier identifier = Identifier.of(itemId);
+                long totalCount = parseCount(line, nameEnd + 1, totalEnd);
+                long missingCount = parseCount(line, totalEnd + 1, missingEnd);
+                if (totalCount < 0 || missingCount < 0) {
+                    // Skip lines with non-numeric count fields (e.g., separator or header lines)
+                    continue;
+                }
 
-                            if (Registries.ITEM.containsId(identifier)) {
-                                Item item = Registries.ITEM.get(identifier);
-                                ItemStack stack = new ItemStack(item);
-                                materials.add(new MaterialRequirement(stack, totalCount, missingCount));
-                                Debug.logMessage("  Parsed: " + itemName + " -> " + itemId + " (Total: " + totalCount + ", Missing: " + missingCount + ")");
-                            } else {
-                                Debug.logWarning("  Unknown item ID: " + itemId + " (from name: " + itemName + ")");
-                            }
-                        }
-                    } catch (NumberFormatException e) {
-                        // Skip lines with non-numeric count fields (e.g., separator or header lines)
-                        Debug.logMessage("  Skipping line with non-numeric count: " + line.trim());
-                    }
+                Item item = resolveItemName(itemName);
+                if (item != null) {
+                    materials.add(new MaterialRequirement(new ItemStack(item), totalCount, missingCount));
+                } else {
+                    Debug.logWarning("  Unknown item: " + itemName);
+                    skipped++;
                 }
             }
 
-            Debug.logMessage("Parsed " + materials.size() + " materials from file");
+            Debug.logMessage("Parsed " + materials.size() + " materials from file" + (skipped > 0 ? " (" + skipped + " unknown)" : ""));
 
         } catch (IOException e) {
             Debug.logWarning("Error reading material list file: " + e.getMessage());
@@ -625,23 +791,69 @@ public class LitematicaHelper {
     }
 
     /**
-     * Convert a display name to a Minecraft item ID.
-     * e.g., "Grass Block" -> "minecraft:grass_block"
+     * Parse a non-negative count from a column of a table line without allocating.
+     * Returns -1 if the column isn't a number.
+     */
+    private static long parseCount(String line, int start, int end) {
+        while (start < end && Character.isWhitespace(line.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(line.charAt(end - 1))) end--;
+        if (start == end) {
+            return -1;
+        }
+        long result = 0;
+        for (int i = start; i < end; ++i) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    // Normalized item display name/id path -> Item, built once from the item registry.
+    private static Map<String, Item> itemNameTable = null;
+
+    /**
+     * Resolve a material list display name (ex. "Grass Block") to its item, or null if it's unknown.
+     * Both the localized display name and the registry path are recognized.
+     */
+    private static Item resolveItemName(String displayName) {
+        if (itemNameTable == null) {
+            itemNameTable = new HashMap<>();
+            for (Identifier id : Registries.ITEM.getIds()) {
+                Item item = Registries.ITEM.get(id);
+                if (id.getNamespace().equals("minecraft")) {
+                    itemNameTable.putIfAbsent(id.getPath(), item);
+                }
+                itemNameTable.putIfAbsent(normalizeItemName(item.getName().getString()), item);
+            }
+        }
+        String key = normalizeItemName(displayName);
+        Item item = itemNameTable.get(key);
+        if (item == null && !itemNameTable.containsKey(key)) {
+            // Might be a namespaced id or a mod item, try the registry directly and remember the answer.
+            Identifier identifier = Identifier.tryParse(key.contains(":") ? key : "minecraft:" + key);
+            if (identifier != null && Registries.ITEM.containsId(identifier)) {
+                item = Registries.ITEM.get(identifier);
+            }
+            itemNameTable.put(key, item);
+        }
+        return item;
+    }
+
+    /**
+     * Convert a display name to the form of a Minecraft item ID path.
+     * e.g., "Grass Block" -> "grass_block"
      * Handles common display name patterns used in Litematica material list files.
      */
-    private static String convertItemNameToId(String displayName) {
-        String id = displayName.toLowerCase()
+    private static String normalizeItemName(String displayName) {
+        return displayName.toLowerCase()
             .replace(" ", "_")
             .replace("'", "")
             .replace("-", "_")
             .replace("(", "")
             .replace(")", "");
-
-        if (!id.contains(":")) {
-            id = "minecraft:" + id;
-        }
-
-        return id;
     }
 
 }
@@ -0,0 +1,133 @@
+package adris.altoclef.util;
+
+import adris.altoclef.eventbus.EventBus;
+import adris.altoclef.eventbus.events.BlockStateChangedEvent;
+import baritone.api.utils.Rotation;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.hit.BlockHitResult;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.RaycastContext;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Remembers raycast results for the rest of the current tick.
+ * <p>
+ * Defense, kill aura and interaction code ask the same line of sight questions many times a tick, and raycasts are one
+ * of the most expensive things we do. Rays are keyed by their start/end quantized to 1/64 of a block, the entity
+ * casting them and the shape/fluid mode. Everything is dropped at the start of each tick, and a block change drops the
+ * rays whose chunks it touched.
+ * <p>
+ * Only used from the client thread. Calls from any other thread (ex. Baritone's pathing thread) skip the cache.
+ */
+public class RaycastCache {
+
+    private static final double QUANTIZE = 64;
+
+    private static final Map<RayKey, CachedRay<BlockHitResult>> rays = new HashMap<>();
+    private static final Map<ReachKey, CachedRay<Optional<Rotation>>> reaches = new HashMap<>();
+
+    private static final DebugCounters.Counter hits = DebugCounters.register("Raycast cache hits");
+    private static final DebugCounters.Counter misses = DebugCounters.register("Raycast cache misses");
+
+    private record RayKey(int entityId, long startX, long startY, long startZ, long endX, long endY, long endZ,
+                          RaycastContext.ShapeType shapeType, RaycastContext.FluidHandling fluidHandling) {
+    }
+
+    private record ReachKey(int entityId, long eyeX, long eyeY, long eyeZ, BlockPos target, Direction side) {
+    }
+
+    /**
+     * A cached result, plus the chunk span of its ray so block changes can find it.
+     */
+    private record CachedRay<T>(T result, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        boolean touchesChunk(int chunkX, int chunkZ) {
+            return minChunkX <= chunkX && chunkX <= maxChunkX && minChunkZ <= chunkZ && chunkZ <= maxChunkZ;
+        }
+    }
+
+    public static void init() {
+        EventBus.subscribe(BlockStateChangedEvent.class, evt -> onBlockChanged(evt.blockPos));
+    }
+
+    /**
+     * Called at the start of every client tick
+     */
+    public static void onTickStart() {
+        rays.clear();
+        reaches.clear();
+    }
+
+    public static BlockHitResult raycast(Entity entity, Vec3d start, Vec3d end, RaycastContext.ShapeType shapeType, RaycastContext.FluidHandling fluidHandling) {
+        if (!MinecraftClient.getInstance().isOnThread()) {
+            return entity.getWorld().raycast(new RaycastContext(start, end, shapeType, fluidHandling, entity));
+        }
+        RayKey key = new RayKey(entity.getId(),
+                quantize(start.x), quantize(start.y), quantize(start.z),
+                quantize(end.x), quantize(end.y), quantize(end.z),
+                shapeType, fluidHandling);
+        CachedRay<BlockHitResult> cached = rays.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached.result();
+        }
+        misses.increment();
+        BlockHitResult result = entity.getWorld().raycast(new RaycastContext(start, end, shapeType, fluidHandling, entity));
+        rays.put(key, span(result, start, end));
+        return result;
+    }
+
+    /**
+     * Cache a reach check from an entity's eye to a block side. Baritone's reach checks raycast internally.
+     */
+    public static Optional<Rotation> reach(Entity entity, Vec3d eye, BlockPos target, Direction side, Supplier<Optional<Rotation>> compute) {
+        if (!MinecraftClient.getInstance().isOnThread()) {
+            return compute.get();
+        }
+        ReachKey key = new ReachKey(entity.getId(), quantize(eye.x), quantize(eye.y), quantize(eye.z), target.toImmutable(), side);
+        CachedRay<Optional<Rotation>> cached = reaches.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached.result();
+        }
+        misses.increment();
+        Optional<Rotation> result = compute.get();
+        reaches.put(key, span(result, eye, Vec3d.ofCenter(target)));
+        return result;
+    }
+
+    private static <T> CachedRay<T> span(T result, Vec3d start, Vec3d end) {
+        int startChunkX = ((int) Math.floor(start.x)) >> 4, startChunkZ = ((int) Math.floor(start.z)) >> 4;
+        int endChunkX = ((int) Math.floor(end.x)) >> 4, endChunkZ = ((int) Math.floor(end.z)) >> 4;
+        return new CachedRay<>(result,
+                Math.min(startChunkX, endChunkX), Math.min(startChunkZ, endChunkZ),
+                Math.max(startChunkX, endChunkX), Math.max(startChunkZ, endChunkZ));
+    }
+
+    private static void onBlockChanged(BlockPos pos) {
+        if (rays.isEmpty() && reaches.isEmpty()) return;
+        int chunkX = pos.getX() >> 4, chunkZ = pos.getZ() >> 4;
+        invalidate(rays, chunkX, chunkZ);
+        invalidate(reaches, chunkX, chunkZ);
+    }
+
+    private static <K, T> void invalidate(Map<K, CachedRay<T>> cache, int chunkX, int chunkZ) {
+        Iterator<CachedRay<T>> it = cache.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().touchesChunk(chunkX, chunkZ)) {
+                it.remove();
+            }
+        }
+    }
+
+    private static long quantize(double value) {
+        return Math.round(value * QUANTIZE);
+    }
+}
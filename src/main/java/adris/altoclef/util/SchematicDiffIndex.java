@@ -0,0 +1,347 @@
+package adris.altoclef.util;
+
+import adris.altoclef.AltoClef;
+import adris.altoclef.eventbus.EventBus;
+import adris.altoclef.eventbus.Subscription;
+import adris.altoclef.eventbus.events.BlockStateChangedEvent;
+import adris.altoclef.eventbus.events.ChunkLoadEvent;
+import adris.altoclef.eventbus.events.ChunkUnloadEvent;
+import adris.altoclef.util.helpers.WorldHelper;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.enums.BedPart;
+import net.minecraft.block.enums.DoubleBlockHalf;
+import net.minecraft.item.Item;
+import net.minecraft.item.Items;
+import net.minecraft.state.property.Properties;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+import java.util.*;
+
+/**
+ * Keeps an always-current diff between a Litematica placement and the world.
+ * <p>
+ * The schematic volume is read once per chunk as chunks load, and from then on individual positions are
+ * re-checked only when the world reports a block change there. This lets schematic tasks know how many of each
+ * material are still missing without asking Litematica to regenerate its material list.
+ * <p>
+ * Chunks we haven't seen yet simply aren't counted, so "placed" counts are always a lower bound. Chunks that unload
+ * are dropped and read again when they come back, since we can't see what changes in them while they're gone.
+ */
+public class SchematicDiffIndex {
+
+    // Reading a chunk of schematic is a few hundred thousand block lookups at worst, so spread them out.
+    private static final int CHUNKS_PER_TICK = 1;
+
+    private final World schematicWorld;
+    private final BlockRange bounds;
+
+    // Expected block states are stored as indices into this palette. Index 0 is "don't care" (air in the schematic).
+    private final List<BlockState> palette = new ArrayList<>();
+    private final Map<BlockState, Integer> paletteIndex = new HashMap<>();
+    private long[] expectedCount = new long[16];
+    private long[] placedCount = new long[16];
+
+    private final Map<ChunkPos, ChunkDiff> indexedChunks = new HashMap<>();
+    private final Deque<ChunkPos> pendingChunks = new ArrayDeque<>();
+    private final Set<ChunkPos> pendingSet = new HashSet<>();
+
+    private Subscription<ChunkLoadEvent> chunkLoadSubscription;
+    private Subscription<ChunkUnloadEvent> chunkUnloadSubscription;
+    private Subscription<BlockStateChangedEvent> blockChangedSubscription;
+
+    /**
+     * The part of the schematic that falls in one chunk column, clipped to the placement bounds.
+     */
+    private static class ChunkDiff {
+        final int minX, minY, minZ;
+        final int sizeX, sizeY, sizeZ;
+        // Null if this chunk has nothing to build
+        final short[] expected;
+        final BitSet placed;
+
+        ChunkDiff(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ, short[] expected) {
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.sizeX = sizeX;
+            this.sizeY = sizeY;
+            this.sizeZ = sizeZ;
+            this.expected = expected;
+            this.placed = expected != null ? new BitSet(expected.length) : null;
+        }
+
+        int indexOf(BlockPos pos) {
+            int x = pos.getX() - minX, y = pos.getY() - minY, z = pos.getZ() - minZ;
+            if (x < 0 || y < 0 || z < 0 || x >= sizeX || y >= sizeY || z >= sizeZ) {
+                return -1;
+            }
+            return (y * sizeZ + z) * sizeX + x;
+        }
+    }
+
+    public SchematicDiffIndex(World schematicWorld, BlockRange bounds) {
+        this.schematicWorld = schematicWorld;
+        this.bounds = bounds;
+        palette.add(null);
+    }
+
+    /**
+     * Create an index for the placement currently selected in Litematica, if there is one.
+     */
+    public static Optional<SchematicDiffIndex> forSelectedPlacement() {
+        Optional<Object> placement = LitematicaHelper.getSelectedPlacement();
+        if (placement.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<World> schematicWorld = LitematicaHelper.getSchematicWorld();
+        Optional<BlockRange> bounds = LitematicaHelper.getPlacementBounds(placement.get());
+        if (schematicWorld.isEmpty() || bounds.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new SchematicDiffIndex(schematicWorld.get(), bounds.get()));
+    }
+
+    /**
+     * Start listening for chunk loads and block changes, and queue up every chunk that's already loaded.
+     */
+    public void start() {
+        stop();
+        chunkLoadSubscription = EventBus.subscribe(ChunkLoadEvent.class, evt -> onChunkLoad(evt.chunk.getPos()));
+        chunkUnloadSubscription = EventBus.subscribe(ChunkUnloadEvent.class, evt -> onChunkUnload(evt.chunkPos));
+        blockChangedSubscription = EventBus.subscribe(BlockStateChangedEvent.class, evt -> onBlockChanged(evt.blockPos, evt.newState));
+
+        AltoClef mod = AltoClef.getInstance();
+        int minChunkX = bounds.start.getX() >> 4, maxChunkX = bounds.end.getX() >> 4;
+        int minChunkZ = bounds.start.getZ() >> 4, maxChunkZ = bounds.end.getZ() >> 4;
+        for (int cx = minChunkX; cx <= maxChunkX; ++cx) {
+            for (int cz = minChunkZ; cz <= maxChunkZ; ++cz) {
+                ChunkPos pos = new ChunkPos(cx, cz);
+                if (mod.getChunkTracker().isChunkLoaded(pos)) {
+                    onChunkLoad(pos);
+                }
+            }
+        }
+    }
+
+    public void stop() {
+        EventBus.unsubscribe(chunkLoadSubscription);
+        EventBus.unsubscribe(chunkUnloadSubscription);
+        EventBus.unsubscribe(blockChangedSubscription);
+        chunkLoadSubscription = null;
+        chunkUnloadSubscription = null;
+        blockChangedSubscription = null;
+    }
+
+    /**
+     * Index a few of the chunks that loaded since last tick.
+     */
+    public void tick() {
+        if (!isInPlacementDimension()) {
+            return;
+        }
+        AltoClef mod = AltoClef.getInstance();
+        int budget = CHUNKS_PER_TICK;
+        int deferred = 0;
+        while (budget > 0 && !pendingChunks.isEmpty() && deferred < pendingChunks.size()) {
+            ChunkPos pos = pendingChunks.poll();
+            if (!mod.getChunkTracker().isChunkLoaded(pos)) {
+                // Unloaded before we got to it, we'll queue it again when it comes back.
+                pendingSet.remove(pos);
+                continue;
+            }
+            if (!schematicWorld.getChunkManager().isChunkLoaded(pos.x, pos.z)) {
+                // Litematica hasn't loaded its side of this chunk yet, try again later.
+                pendingChunks.addLast(pos);
+                deferred++;
+                continue;
+            }
+            pendingSet.remove(pos);
+            indexChunk(mod.getWorld(), pos);
+            budget--;
+        }
+    }
+
+    private boolean isInPlacementDimension() {
+        return WorldHelper.getCurrentDimension() == bounds.dimension;
+    }
+
+    private void onChunkLoad(ChunkPos pos) {
+        if (!isInPlacementDimension() || indexedChunks.containsKey(pos) || !intersects(pos)) {
+            return;
+        }
+        if (pendingSet.add(pos)) {
+            pendingChunks.addLast(pos);
+        }
+    }
+
+    private void onChunkUnload(ChunkPos pos) {
+        pendingSet.remove(pos);
+        pendingChunks.remove(pos);
+        ChunkDiff diff = indexedChunks.remove(pos);
+        if (diff == null || diff.expected == null) {
+            return;
+        }
+        for (int index = 0; index < diff.expected.length; ++index) {
+            int id = diff.expected[index] & 0xFFFF;
+            if (id == 0) continue;
+            expectedCount[id]--;
+            if (diff.placed.get(index)) {
+                placedCount[id]--;
+            }
+        }
+    }
+
+    private boolean intersects(ChunkPos pos) {
+        return pos.getEndX() >= bounds.start.getX() && pos.getStartX() <= bounds.end.getX()
+                && pos.getEndZ() >= bounds.start.getZ() && pos.getStartZ() <= bounds.end.getZ();
+    }
+
+    private void indexChunk(World world, ChunkPos pos) {
+        int minX = Math.max(pos.getStartX(), bounds.start.getX());
+        int maxX = Math.min(pos.getEndX(), bounds.end.getX());
+        int minZ = Math.max(pos.getStartZ(), bounds.start.getZ());
+        int maxZ = Math.min(pos.getEndZ(), bounds.end.getZ());
+        int minY = bounds.start.getY();
+        int maxY = bounds.end.getY();
+        int sizeX = maxX - minX + 1, sizeY = maxY - minY + 1, sizeZ = maxZ - minZ + 1;
+
+        short[] expected = new short[sizeX * sizeY * sizeZ];
+        boolean any = false;
+        BlockPos.Mutable check = new BlockPos.Mutable();
+        int index = 0;
+        for (int y = minY; y <= maxY; ++y) {
+            for (int z = minZ; z <= maxZ; ++z) {
+                for (int x = minX; x <= maxX; ++x, ++index) {
+                    check.set(x, y, z);
+                    BlockState state = schematicWorld.getBlockState(check);
+                    if (!state.isAir()) {
+                        expected[index] = (short) getPaletteIndex(state);
+                        any = true;
+                    }
+                }
+            }
+        }
+
+        ChunkDiff diff = new ChunkDiff(minX, minY, minZ, sizeX, sizeY, sizeZ, any ? expected : null);
+        indexedChunks.put(pos, diff);
+        if (!any) {
+            return;
+        }
+        index = 0;
+        for (int y = minY; y <= maxY; ++y) {
+            for (int z = minZ; z <= maxZ; ++z) {
+                for (int x = minX; x <= maxX; ++x, ++index) {
+                    int id = expected[index] & 0xFFFF;
+                    if (id == 0) continue;
+                    expectedCount[id]++;
+                    check.set(x, y, z);
+                    if (matches(id, world.getBlockState(check))) {
+                        diff.placed.set(index);
+                        placedCount[id]++;
+                    }
+                }
+            }
+        }
+    }
+
+    private void onBlockChanged(BlockPos pos, BlockState newState) {
+        if (!isInPlacementDimension() || !bounds.contains(pos, bounds.dimension)) {
+            return;
+        }
+        ChunkDiff diff = indexedChunks.get(new ChunkPos(pos));
+        if (diff == null || diff.expected == null) {
+            return;
+        }
+        int index = diff.indexOf(pos);
+        if (index == -1) return;
+        int id = diff.expected[index] & 0xFFFF;
+        if (id == 0) return;
+        boolean wasPlaced = diff.placed.get(index);
+        boolean isPlaced = matches(id, newState);
+        if (wasPlaced != isPlaced) {
+            diff.placed.set(index, isPlaced);
+            placedCount[id] += isPlaced ? 1 : -1;
+        }
+    }
+
+    private boolean matches(int paletteId, BlockState actual) {
+        // Only the material matters for staging, so rotation/waterlogging etc. are ignored.
+        return palette.get(paletteId).getBlock() == actual.getBlock();
+    }
+
+    private int getPaletteIndex(BlockState state) {
+        Integer index = paletteIndex.get(state);
+        if (index == null) {
+            index = palette.size();
+            palette.add(state);
+            paletteIndex.put(state, index);
+            if (index >= expectedCount.length) {
+                expectedCount = Arrays.copyOf(expectedCount, expectedCount.length * 2);
+                placedCount = Arrays.copyOf(placedCount, placedCount.length * 2);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return Items already used up by blocks correctly placed in the chunks we've indexed, by the item that places
+     * them. Counted the same way as a material list, so doors, beds etc. count once.
+     */
+    public Map<Item, Long> getPlacedByItem() {
+        Map<Item, Long> result = new HashMap<>();
+        for (int id = 1; id < palette.size(); ++id) {
+            BlockState state = palette.get(id);
+            Item item = state.getBlock().asItem();
+            if (placedCount[id] > 0 && item != Items.AIR && placesItem(state)) {
+                result.merge(item, placedCount[id], Long::sum);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Whether placing an item puts down this state, instead of it coming along with another half that does.
+     */
+    private static boolean placesItem(BlockState state) {
+        if (state.contains(Properties.DOUBLE_BLOCK_HALF) && state.get(Properties.DOUBLE_BLOCK_HALF) == DoubleBlockHalf.UPPER) {
+            return false;
+        }
+        return !state.contains(Properties.BED_PART) || state.get(Properties.BED_PART) != BedPart.HEAD;
+    }
+
+    public long getTotalExpected() {
+        long result = 0;
+        for (int id = 1; id < palette.size(); ++id) {
+            result += expectedCount[id];
+        }
+        return result;
+    }
+
+    public long getTotalPlaced() {
+        long result = 0;
+        for (int id = 1; id < palette.size(); ++id) {
+            result += placedCount[id];
+        }
+        return result;
+    }
+
+    public int getIndexedChunkCount() {
+        return indexedChunks.size();
+    }
+
+    public int getPendingChunkCount() {
+        return pendingChunks.size();
+    }
+
+    public BlockRange getBounds() {
+        return bounds;
+    }
+
+    @Override
+    public String toString() {
+        return "SchematicDiffIndex{" + bounds + ", placed " + getTotalPlaced() + "/" + getTotalExpected()
+                + ", chunks " + indexedChunks.size() + " (+" + pendingChunks.size() + " pending)}";
+    }
+}
@@ -1,30 +1,162 @@
 package adris.altoclef.util.baritone;
 
-import adris.altoclef.util.time.TimerGame;
 import net.minecraft.util.math.Vec3d;
 
 import java.lang.reflect.Type;
 
+/**
+ * A snapshot of a projectile, with its flight path simulated a couple seconds ahead.
+ * <p>
+ * The path is simulated once, when the entity tracker takes the snapshot, using the same drag and gravity
+ * vanilla applies every tick. Queries (closest approach, does it pass through a box) then just walk the samples and
+ * interpolate between them, so the pathing thread can ask once per node without redoing any physics.
+ * <p>
+ * Blocks aren't simulated: the projectile is assumed to fly until we stop sampling.
+ */
 public class CachedProjectile {
-    private final TimerGame lastCache = new TimerGame(2);
+
+    // How many ticks ahead we simulate. Arrows cover 60+ blocks in this time.
+    public static final int SIMULATED_TICKS = 40;
+
+    public int entityId;
     public Vec3d velocity;
     public Vec3d position;
     public double gravity;
+    // Velocity multiplier applied each tick (1 for none)
+    public double drag = 1;
     public Type projectileType;
-    private Vec3d cachedHit;
-    private boolean cacheHeld = false;
 
-    public Vec3d getCachedHit() {
-        return cachedHit;
+    // x, y, z for each tick, starting at the current position
+    private double[] samples;
+    private double minX, minY, minZ, maxX, maxY, maxZ;
+
+    /**
+     * Simulate our flight path from our current position/velocity/gravity/drag. Call after setting those.
+     */
+    public void simulate() {
+        double[] result = new double[(SIMULATED_TICKS + 1) * 3];
+        double x = position.x, y = position.y, z = position.z;
+        double vx = velocity.x, vy = velocity.y, vz = velocity.z;
+        minX = maxX = x;
+        minY = maxY = y;
+        minZ = maxZ = z;
+        result[0] = x;
+        result[1] = y;
+        result[2] = z;
+        for (int tick = 1; tick <= SIMULATED_TICKS; ++tick) {
+            // Same order as vanilla: move, then apply drag, then gravity.
+            x += vx;
+            y += vy;
+            z += vz;
+            vx *= drag;
+            vy = vy * drag - gravity;
+            vz *= drag;
+            result[tick * 3] = x;
+            result[tick * 3 + 1] = y;
+            result[tick * 3 + 2] = z;
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxZ = Math.max(maxZ, z);
+        }
+        samples = result;
+    }
+
+    private double[] getSamples() {
+        if (samples == null) {
+            simulate();
+        }
+        return samples;
+    }
+
+    /**
+     * @return Where we'll be {@code ticks} ticks from now (fractional ticks are interpolated).
+     */
+    public Vec3d getPositionAt(double ticks) {
+        double[] s = getSamples();
+        ticks = Math.max(0, Math.min(SIMULATED_TICKS, ticks));
+        int i = Math.min((int) ticks, SIMULATED_TICKS - 1);
+        double t = ticks - i;
+        int a = i * 3, b = a + 3;
+        return new Vec3d(
+                s[a] + (s[b] - s[a]) * t,
+                s[a + 1] + (s[b + 1] - s[a + 1]) * t,
+                s[a + 2] + (s[b + 2] - s[a + 2]) * t
+        );
+    }
+
+    /**
+     * @return How many ticks from now we'll be closest to a point (fractional).
+     */
+    public double getClosestApproachTime(Vec3d point) {
+        double[] s = getSamples();
+        double bestDistanceSq = Double.POSITIVE_INFINITY;
+        double bestTime = 0;
+        for (int i = 0; i < SIMULATED_TICKS; ++i) {
+            int a = i * 3, b = a + 3;
+            double dx = s[b] - s[a], dy = s[b + 1] - s[a + 1], dz = s[b + 2] - s[a + 2];
+            double px = point.x - s[a], py = point.y - s[a + 1], pz = point.z - s[a + 2];
+            double lengthSq = dx * dx + dy * dy + dz * dz;
+            double t = lengthSq == 0 ? 0 : Math.max(0, Math.min(1, (px * dx + py * dy + pz * dz) / lengthSq));
+            double ex = px - dx * t, ey = py - dy * t, ez = pz - dz * t;
+            double distanceSq = ex * ex + ey * ey + ez * ez;
+            if (distanceSq < bestDistanceSq) {
+                bestDistanceSq = distanceSq;
+                bestTime = i + t;
+            }
+        }
+        return bestTime;
+    }
+
+    /**
+     * @return Where we'll be when we're closest to a point.
+     */
+    public Vec3d getClosestApproach(Vec3d point) {
+        return getPositionAt(getClosestApproachTime(point));
+    }
+
+    /**
+     * @return Whether our flight path passes through a box at any point.
+     */
+    public boolean passesThroughBox(double boxMinX, double boxMinY, double boxMinZ, double boxMaxX, double boxMaxY, double boxMaxZ) {
+        double[] s = getSamples();
+        // Most boxes are nowhere near the whole path
+        if (boxMaxX < minX || boxMinX > maxX || boxMaxY < minY || boxMinY > maxY || boxMaxZ < minZ || boxMinZ > maxZ) {
+            return false;
+        }
+        for (int i = 0; i < SIMULATED_TICKS; ++i) {
+            int a = i * 3, b = a + 3;
+            if (segmentIntersectsBox(s[a], s[a + 1], s[a + 2], s[b], s[b + 1], s[b + 2],
+                    boxMinX, boxMinY, boxMinZ, boxMaxX, boxMaxY, boxMaxZ)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    public void setCacheHit(Vec3d cache) {
-        cachedHit = cache;
-        cacheHeld = true;
-        lastCache.reset();
+    // Slab test: clip the segment's [0, 1] parameter range against each axis in turn.
+    private static boolean segmentIntersectsBox(double ax, double ay, double az, double bx, double by, double bz,
+                                                double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        double[] range = {0, 1};
+        return clip(ax, bx - ax, minX, maxX, range)
+                && clip(ay, by - ay, minY, maxY, range)
+                && clip(az, bz - az, minZ, maxZ, range);
     }
 
-    public boolean needsToRecache() {
-        return !cacheHeld || lastCache.elapsed();
+    private static boolean clip(double start, double delta, double min, double max, double[] range) {
+        if (delta == 0) {
+            return start >= min && start <= max;
+        }
+        double t0 = (min - start) / delta, t1 = (max - start) / delta;
+        if (t0 > t1) {
+            double temp = t0;
+            t0 = t1;
+            t1 = temp;
+        }
+        range[0] = Math.max(range[0], t0);
+        range[1] = Math.min(range[1], t1);
+        return range[0] <= range[1];
     }
 }
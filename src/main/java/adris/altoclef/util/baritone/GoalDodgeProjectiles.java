@@ -44,13 +44,7 @@ public class GoalDodgeProjectiles implements Goal {
                 for (CachedProjectile projectile : projectiles) {
                     if (isInvalidProjectile(projectile)) continue;
                     try {
-                        if (projectile.needsToRecache()) {
-                            projectile.setCacheHit(ProjectileHelper.calculateArrowClosestApproach(projectile, p));
-                        }
-                        Vec3d hit = projectile.getCachedHit();
-                        //Debug.logMessage("Hit Delta: " + p.subtract(hit));
-
-                        if (isHitCloseEnough(hit, p)) return false;
+                        if (isHitCloseEnough(projectile, p)) return false;
                     } catch (Exception e) {
                         Debug.logWarning("Weird exception caught while checking for goal: " + e.getMessage());
                         /// ????? No clue why a nullptrexception happens here.
@@ -76,15 +70,10 @@ public class GoalDodgeProjectiles implements Goal {
                 for (CachedProjectile projectile : projectiles) {
                     if (isInvalidProjectile(projectile)) continue;
 
-                    if (projectile.needsToRecache()) {
-                        projectile.setCacheHit(ProjectileHelper.calculateArrowClosestApproach(projectile, p));
-                    }
-                    Vec3d hit = projectile.getCachedHit();
-
                     double arrowPenalty = ProjectileHelper.getFlatDistanceSqr(projectile.position.x, projectile.position.z, projectile.velocity.x, projectile.velocity.z, p.x, p.z);
                     //double arrowCost = hit.squaredDistanceTo(p); //Math.pow(p.x - hit.x, 2) + Math.pow(p.z - hit.z, 2);
 
-                    if (isHitCloseEnough(hit, p)) {
+                    if (isHitCloseEnough(projectile, p)) {
                         costFactor += arrowPenalty;
                     }
                 }
@@ -93,11 +82,11 @@ public class GoalDodgeProjectiles implements Goal {
         return -1 * costFactor;
     }
 
-    private boolean isHitCloseEnough(Vec3d hit, Vec3d to) {
-        Vec3d delta = to.subtract(hit);
-        double horizontalSquared = delta.x * delta.x + delta.z * delta.z;
-        double vertical = Math.abs(delta.y);
-        return horizontalSquared < distanceHorizontal * distanceHorizontal && vertical < distanceVertical;
+    private boolean isHitCloseEnough(CachedProjectile projectile, Vec3d to) {
+        // The projectile's path was simulated when it was tracked, this just walks the samples.
+        return projectile.passesThroughBox(
+                to.x - distanceHorizontal, to.y - distanceVertical, to.z - distanceHorizontal,
+                to.x + distanceHorizontal, to.y + distanceVertical, to.z + distanceHorizontal);
     }
 
     private List<CachedProjectile> getProjectiles() {
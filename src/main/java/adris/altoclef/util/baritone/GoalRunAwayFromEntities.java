@@ -21,6 +21,8 @@ public abstract class GoalRunAwayFromEntities implements Goal {
     // Too low: We will just run straight into the entity to go past it.
     private final double penaltyFactor;
 
+    private final DangerField field = new DangerField();
+
     public GoalRunAwayFromEntities(AltoClef mod, double distance, boolean xzOnly, double penaltyFactor) {
         this.mod = mod;
         this.distance = distance;
@@ -30,52 +32,51 @@ public abstract class GoalRunAwayFromEntities implements Goal {
 
     @Override
     public boolean isInGoal(int x, int y, int z) {
-        List<Entity> entities = getEntities(mod);
-        synchronized (BaritoneHelper.MINECRAFT_LOCK) {
-            if (!entities.isEmpty()) {
-                for (Entity entity : entities) {
-                    if (entity == null || !entity.isAlive()) continue;
-                    double sqDistance;
-                    if (xzOnly) {
-                        sqDistance = entity.getPos().subtract(x, y, z).multiply(1, 0, 1).lengthSquared();
-                    } else {
-                        sqDistance = entity.squaredDistanceTo(x, y, z);
-                    }
-                    if (sqDistance < distance * distance) return false;
-                }
+        return field.isInGoal(x, y, z);
+    }
+
+    @Override
+    public double heuristic(int x, int y, int z) {
+        return field.heuristic(x, y, z);
+    }
+
+    private boolean calculateInGoal(Entity[] entities, int x, int y, int z) {
+        for (Entity entity : entities) {
+            if (entity == null || !entity.isAlive()) continue;
+            double sqDistance;
+            if (xzOnly) {
+                double dx = entity.getX() - x, dz = entity.getZ() - z;
+                sqDistance = dx * dx + dz * dz;
+            } else {
+                sqDistance = entity.squaredDistanceTo(x, y, z);
             }
+            if (sqDistance < distance * distance) return false;
         }
         return true;
     }
 
-    @Override
-    public double heuristic(int x, int y, int z) {
+    private double calculateHeuristic(Entity[] entities, int x, int y, int z) {
         // The lower the cost, the better.
         double costSum = 0;
-        List<Entity> entities = getEntities(mod);
-        synchronized (BaritoneHelper.MINECRAFT_LOCK) {
-            int max = 10; // If we have 100 players, this will never calculate.
-            int counter = 0;
-            if (!entities.isEmpty()) {
-                for (Entity entity : entities) {
-                    counter++;
-                    if (entity == null || !entity.isAlive()) continue;
-                    double cost = getCostOfEntity(entity, x, y, z);
-                    if (cost != 0) {
-                        // We want the CLOSER entities to have a bigger weight than the further ones.
-                        costSum += 1 / cost;
-                    } else {
-                        // Bad >:(
-                        costSum += 1000;
-                    }
-                    if (counter >= max) break;
-                }
+        int max = 10; // If we have 100 players, this will never calculate.
+        int counter = 0;
+        for (Entity entity : entities) {
+            counter++;
+            if (entity == null || !entity.isAlive()) continue;
+            double cost = getCostOfEntity(entity, x, y, z);
+            if (cost != 0) {
+                // We want the CLOSER entities to have a bigger weight than the further ones.
+                costSum += 1 / cost;
+            } else {
+                // Bad >:(
+                costSum += 1000;
             }
-            if (counter > 0) {
-                costSum /= counter;
-            }
-            return costSum * penaltyFactor;
+            if (counter >= max) break;
+        }
+        if (counter > 0) {
+            costSum /= counter;
         }
+        return costSum * penaltyFactor;
     }
 
     protected abstract List<Entity> getEntities(AltoClef mod);
@@ -89,4 +90,96 @@ public abstract class GoalRunAwayFromEntities implements Goal {
         heuristic += GoalXZ.calculate(entity.getBlockPos().getX() - x, entity.getBlockPos().getZ() - z);
         return heuristic; //entity.squaredDistanceTo(x, y, z);
     }
+
+    // The grid is about half a megabyte, so every goal shares one, made the first time it's needed. Only touched while
+    // holding the minecraft lock. Snapshots are numbered across all goals, so cells another goal calculated never
+    // look valid, the goals just take turns filling it.
+    private static float[] gridHeuristics;
+    private static boolean[] gridInGoal;
+    private static int[] gridStamps;
+    private static int lastSnapshot = 0;
+
+    /**
+     * Heuristic and goal values around the player, worked out at most once per block per snapshot.
+     * <p>
+     * Baritone asks about every node it considers, and used to have us fetch the entity list and walk it each time.
+     * Now the entity list is snapshotted about once a tick, and each block near the player is only calculated
+     * the first time it's asked about. Blocks outside the grid are calculated from the snapshot directly.
+     */
+    private class DangerField {
+        // Entities move, so take a new snapshot about once a tick.
+        private static final long SNAPSHOT_LIFETIME_NANOS = 50_000_000L;
+        private static final int RADIUS_XZ = 24;
+        private static final int RADIUS_Y = 12;
+        private static final int SIZE_XZ = RADIUS_XZ * 2 + 1;
+        private static final int SIZE_Y = RADIUS_Y * 2 + 1;
+        private static final int CELLS = SIZE_XZ * SIZE_Y * SIZE_XZ;
+
+        // Everything below is only touched while holding the minecraft lock
+        private int snapshot = 0;
+        private int originX, originY, originZ;
+        private Entity[] entities = new Entity[0];
+        private volatile long snapshotTime;
+
+        boolean isInGoal(int x, int y, int z) {
+            ensureFresh();
+            synchronized (BaritoneHelper.MINECRAFT_LOCK) {
+                int index = getCell(x, y, z);
+                if (index == -1) return calculateInGoal(entities, x, y, z);
+                return gridInGoal[index];
+            }
+        }
+
+        double heuristic(int x, int y, int z) {
+            ensureFresh();
+            synchronized (BaritoneHelper.MINECRAFT_LOCK) {
+                int index = getCell(x, y, z);
+                if (index == -1) return calculateHeuristic(entities, x, y, z);
+                return gridHeuristics[index];
+            }
+        }
+
+        // Index of an up to date cell, or -1 if the block isn't in the grid.
+        private int getCell(int x, int y, int z) {
+            int dx = x - originX + RADIUS_XZ, dy = y - originY + RADIUS_Y, dz = z - originZ + RADIUS_XZ;
+            if (dx < 0 || dy < 0 || dz < 0 || dx >= SIZE_XZ || dy >= SIZE_Y || dz >= SIZE_XZ) {
+                return -1;
+            }
+            if (gridStamps == null) {
+                gridHeuristics = new float[CELLS];
+                gridInGoal = new boolean[CELLS];
+                // A cell is only valid if its stamp matches the current snapshot, so we never have to clear the arrays.
+                gridStamps = new int[CELLS];
+            }
+            int index = (dy * SIZE_XZ + dz) * SIZE_XZ + dx;
+            if (gridStamps[index] != snapshot) {
+                gridHeuristics[index] = (float) calculateHeuristic(entities, x, y, z);
+                gridInGoal[index] = calculateInGoal(entities, x, y, z);
+                gridStamps[index] = snapshot;
+            }
+            return index;
+        }
+
+        private void ensureFresh() {
+            long now = System.nanoTime();
+            if (snapshotTime != 0 && now - snapshotTime < SNAPSHOT_LIFETIME_NANOS) {
+                return;
+            }
+            // Trackers lock themselves before the minecraft lock, so fetch outside of it.
+            List<Entity> current = getEntities(mod);
+            synchronized (BaritoneHelper.MINECRAFT_LOCK) {
+                entities = current.toArray(new Entity[0]);
+                if (mod.getPlayer() != null) {
+                    originX = mod.getPlayer().getBlockX();
+                    originY = mod.getPlayer().getBlockY();
+                    originZ = mod.getPlayer().getBlockZ();
+                }
+                lastSnapshot++;
+                // Stamps start at 0, skip it so untouched cells never look valid.
+                if (lastSnapshot == 0) lastSnapshot = 1;
+                snapshot = lastSnapshot;
+                snapshotTime = now;
+            }
+        }
+    }
 }
@@ -0,0 +1,232 @@
+package adris.altoclef.util.baritone;
+
+import adris.altoclef.AltoClef;
+import adris.altoclef.Debug;
+import adris.altoclef.eventbus.EventBus;
+import adris.altoclef.eventbus.events.BlockStateChangedEvent;
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalNear;
+import baritone.api.pathing.movement.IMovement;
+import baritone.api.utils.BetterBlockPos;
+import baritone.api.utils.PathCalculationResult;
+import baritone.pathing.calc.AStarPathFinder;
+import baritone.pathing.movement.CalculationContext;
+import baritone.utils.pathing.Favoring;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Asks baritone how long it'd take to get to a few targets, on a background thread, so tasks choosing between targets
+ * (see {@link adris.altoclef.tasks.AbstractDoToClosestObjectTask}) can go by path cost instead of straight line
+ * distance, and find out a target is expensive before committing to it.
+ * <p>
+ * Costs are cached per target. They're recalculated once we've moved a bit from where they were calculated, or
+ * blocks changed near the target or us. Until then the old cost is still used.
+ * <p>
+ * To avoid going back and forth, we only switch away from what we're going for if another target is clearly cheaper.
+ */
+public class PathCostRanker {
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Alto Clef path cost ranker");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // How long baritone may look for a path to one target (ms). Past the first, we take the best partial path.
+    private static final long PRIMARY_TIMEOUT_MS = 40;
+    private static final long FAILURE_TIMEOUT_MS = 150;
+    private static final int MAX_TARGETS_PER_CALCULATION = 6;
+    // Recalculate costs calculated further away than this, and don't use them at all past the second
+    private static final double RECALCULATE_DISTANCE = 3;
+    private static final double FORGET_DISTANCE = 24;
+    // Block changes this close to a target or to where we calculated from make its cost stale
+    private static final double BLOCK_CHANGE_RANGE = 24;
+    private static final int MAX_CACHED = 128;
+    // Another target has to be this much cheaper before we switch to it
+    private static final double SWITCH_FRACTION = 0.2;
+    private static final double SWITCH_TICKS = 20;
+
+    // Recent block changes, shared by every ranker so none of them need their own subscription
+    private static final int BLOCK_CHANGE_HISTORY = 256;
+    private static final BlockPos[] blockChanges = new BlockPos[BLOCK_CHANGE_HISTORY];
+    private static long blockChangeCount = 0;
+
+    static {
+        EventBus.subscribe(BlockStateChangedEvent.class, evt -> {
+            synchronized (blockChanges) {
+                blockChanges[(int) (blockChangeCount % BLOCK_CHANGE_HISTORY)] = evt.blockPos;
+                blockChangeCount++;
+            }
+        });
+    }
+
+    private final Map<BlockPos, Cost> costs = new ConcurrentHashMap<>();
+    private final AtomicBoolean calculating = new AtomicBoolean(false);
+    private long seenBlockChanges = 0;
+
+    private static class Cost {
+        final BlockPos start;
+        final double ticks;
+        volatile boolean stale = false;
+
+        Cost(BlockPos start, double ticks) {
+            this.start = start;
+            this.ticks = ticks;
+        }
+    }
+
+    /**
+     * Pick which of {@code candidates} to go for by path cost, starting calculations for any we don't know yet.
+     *
+     * @param current    What we're going for right now, or null. Should be in {@code candidates}.
+     * @param getTarget  Where a candidate is
+     * @return Nothing if we don't know enough yet to decide (go by distance instead). Otherwise either
+     * {@code current}, or a candidate that's clearly cheaper to get to.
+     */
+    public <T> Optional<T> pickBest(AltoClef mod, T current, List<T> candidates, Function<T, BlockPos> getTarget) {
+        markChangedStale();
+        BlockPos start = mod.getPlayer().getBlockPos();
+        List<BlockPos> toCalculate = new ArrayList<>();
+        T best = null;
+        double bestTicks = Double.POSITIVE_INFINITY;
+        double currentTicks = Double.NaN;
+        boolean allKnown = true;
+        for (T candidate : candidates) {
+            BlockPos target = getTarget.apply(candidate);
+            Cost cost = costs.get(target);
+            if (cost == null || !cost.start.isWithinDistance(start, FORGET_DISTANCE)) {
+                allKnown = false;
+                toCalculate.add(target);
+                continue;
+            }
+            if (cost.stale || !cost.start.isWithinDistance(start, RECALCULATE_DISTANCE)) {
+                toCalculate.add(target);
+            }
+            if (candidate.equals(current)) {
+                currentTicks = cost.ticks;
+            }
+            if (cost.ticks < bestTicks) {
+                bestTicks = cost.ticks;
+                best = candidate;
+            }
+        }
+        if (!toCalculate.isEmpty()) {
+            calculate(mod, toCalculate);
+        }
+
+        if (best == null) return Optional.empty();
+        if (current == null) {
+            return allKnown ? Optional.of(best) : Optional.empty();
+        }
+        if (Double.isNaN(currentTicks)) return Optional.empty();
+        if (!best.equals(current) && bestTicks + SWITCH_TICKS < currentTicks * (1 - SWITCH_FRACTION)) {
+            return Optional.of(best);
+        }
+        return Optional.of(current);
+    }
+
+    public void clear() {
+        costs.clear();
+    }
+
+    private void markChangedStale() {
+        synchronized (blockChanges) {
+            if (blockChangeCount - seenBlockChanges > BLOCK_CHANGE_HISTORY) {
+                // Missed some, assume the worst
+                for (Cost cost : costs.values()) {
+                    cost.stale = true;
+                }
+            } else {
+                for (long i = seenBlockChanges; i < blockChangeCount; ++i) {
+                    BlockPos changed = blockChanges[(int) (i % BLOCK_CHANGE_HISTORY)];
+                    for (Map.Entry<BlockPos, Cost> entry : costs.entrySet()) {
+                        if (entry.getKey().isWithinDistance(changed, BLOCK_CHANGE_RANGE) || entry.getValue().start.isWithinDistance(changed, BLOCK_CHANGE_RANGE)) {
+                            entry.getValue().stale = true;
+                        }
+                    }
+                }
+            }
+            seenBlockChanges = blockChangeCount;
+        }
+    }
+
+    private void calculate(AltoClef mod, List<BlockPos> targets) {
+        if (calculating.getAndSet(true)) return;
+        List<BlockPos> batch = new ArrayList<>(targets.subList(0, Math.min(targets.size(), MAX_TARGETS_PER_CALCULATION)));
+        // Everything baritone needs from the world is copied here, on the client thread.
+        CalculationContext context = new CalculationContext(mod.getClientBaritone(), true);
+        Favoring favoring = new Favoring(mod.getClientBaritone().getPlayerContext(), null, context);
+        BetterBlockPos start = mod.getClientBaritone().getPlayerContext().playerFeet();
+        try {
+            EXECUTOR.execute(() -> {
+                try {
+                    for (BlockPos target : batch) {
+                        double ticks = calculateCost(context, favoring, start, target);
+                        if (!Double.isNaN(ticks)) {
+                            costs.put(target, new Cost(start, ticks));
+                        }
+                    }
+                    trim(start);
+                } catch (Exception e) {
+                    Debug.logWarning("Failed to estimate path costs: " + e.getMessage());
+                } finally {
+                    calculating.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            calculating.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * @return The path's cost in ticks, infinity if there's no way there, or NaN if we couldn't tell.
+     */
+    private static double calculateCost(CalculationContext context, Favoring favoring, BetterBlockPos start, BlockPos target) {
+        Goal goal = new GoalNear(target, 1);
+        //#if MC >= 11904
+        AStarPathFinder finder = new AStarPathFinder(start, start.x, start.y, start.z, goal, favoring, context);
+        //#else
+        //$$ AStarPathFinder finder = new AStarPathFinder(start.x, start.y, start.z, goal, favoring, context);
+        //#endif
+        PathCalculationResult result = finder.calculate(PRIMARY_TIMEOUT_MS, FAILURE_TIMEOUT_MS);
+        switch (result.getType()) {
+            case SUCCESS_TO_GOAL, SUCCESS_SEGMENT -> {
+                Optional<IPath> path = result.getPath();
+                if (path.isEmpty()) return Double.NaN;
+                double ticks = 0;
+                for (IMovement movement : path.get().movements()) {
+                    ticks += movement.getCost();
+                }
+                if (result.getType() == PathCalculationResult.Type.SUCCESS_SEGMENT) {
+                    // Only got part of the way, guess the rest
+                    BetterBlockPos end = path.get().getDest();
+                    ticks += goal.heuristic(end.x, end.y, end.z);
+                }
+                return ticks;
+            }
+            case FAILURE -> {
+                return Double.POSITIVE_INFINITY;
+            }
+            default -> {
+                return Double.NaN;
+            }
+        }
+    }
+
+    private void trim(BlockPos start) {
+        if (costs.size() <= MAX_CACHED) return;
+        List<BlockPos> targets = new ArrayList<>(costs.keySet());
+        targets.sort(Comparator.comparingDouble(target -> -target.getSquaredDistance(start)));
+        for (int i = 0; i < targets.size() - MAX_CACHED; ++i) {
+            costs.remove(targets.get(i));
+        }
+    }
+}
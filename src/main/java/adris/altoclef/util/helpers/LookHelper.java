@@ -2,6 +2,7 @@ package adris.altoclef.util.helpers;
 
 import adris.altoclef.AltoClef;
 import adris.altoclef.Debug;
+import adris.altoclef.util.RaycastCache;
 import adris.altoclef.util.slots.Slot;
 import baritone.api.BaritoneAPI;
 import baritone.api.utils.IPlayerContext;
@@ -22,7 +23,6 @@ import net.minecraft.util.hit.EntityHitResult;
 import net.minecraft.util.hit.HitResult;
 import net.minecraft.util.math.*;
 import net.minecraft.world.RaycastContext;
-import net.minecraft.world.World;
 
 import java.util.Objects;
 import java.util.Optional;
@@ -42,6 +42,11 @@ public interface LookHelper {
         // Get the player context
         IPlayerContext context = BaritoneAPI.getProvider().getPrimaryBaritone().getPlayerContext();
 
+        // Reach checks raycast, and the same block gets asked about many times a tick
+        return RaycastCache.reach(context.player(), context.player().getCameraPosVec(1.0F), target, side, () -> getReachUncached(context, target, side));
+    }
+
+    private static Optional<Rotation> getReachUncached(IPlayerContext context, BlockPos target, Direction side) {
         // Declare the reachable rotation variable
         Optional<Rotation> reachableRotation;
 
@@ -275,14 +280,8 @@ public interface LookHelper {
             end = start.add(direction);
         }
 
-        // Get the world of the entity
-        World world = entity.getWorld();
-
-        // Create a raycast context with the start and end points, shape type, fluid handling, and entity performing the raycast
-        RaycastContext context = new RaycastContext(start, end, RaycastContext.ShapeType.COLLIDER, RaycastContext.FluidHandling.NONE, entity);
-
-        // Perform the raycast in the world and return the result
-        return world.raycast(context);
+        // Perform the raycast in the world (or reuse one we did earlier this tick) and return the result
+        return RaycastCache.raycast(entity, start, end, RaycastContext.ShapeType.COLLIDER, RaycastContext.FluidHandling.NONE);
     }
 
     /**
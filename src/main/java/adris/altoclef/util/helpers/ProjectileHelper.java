@@ -6,6 +6,7 @@ import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.projectile.ExplosiveProjectileEntity;
 import net.minecraft.entity.projectile.ProjectileEntity;
+import net.minecraft.entity.projectile.thrown.ThrownEntity;
 import net.minecraft.util.math.Vec3d;
 
 /**
@@ -15,12 +16,30 @@ public class ProjectileHelper {
 
     public static final double ARROW_GRAVITY_ACCEL = 0.05000000074505806;
     public static final double THROWN_ENTITY_GRAVITY_ACCEL = 0.03;
+    public static final double PROJECTILE_AIR_DRAG = 0.99;
 
     public static boolean hasGravity(ProjectileEntity entity) {
         if (entity instanceof ExplosiveProjectileEntity) return false;
         return !entity.hasNoGravity();
     }
 
+    /**
+     * How much a projectile's vertical velocity drops each tick.
+     */
+    public static double getGravity(ProjectileEntity entity) {
+        if (!hasGravity(entity)) return 0;
+        return entity instanceof ThrownEntity ? THROWN_ENTITY_GRAVITY_ACCEL : ARROW_GRAVITY_ACCEL;
+    }
+
+    /**
+     * How much a projectile's velocity is multiplied by each tick (in air).
+     * Fireballs keep accelerating towards their target, so we treat them as flying straight at their current speed.
+     */
+    public static double getDrag(ProjectileEntity entity) {
+        if (entity instanceof ExplosiveProjectileEntity) return 1;
+        return PROJECTILE_AIR_DRAG;
+    }
+
     // If we shoot on a 2d plane, what is the 2d point on that trajectory closest to our player pos?
     private static Vec3d getClosestPointOnFlatLine(double shootX, double shootZ, double velX, double velZ, double playerX, double playerZ) {
         double deltaX = playerX - shootX,
@@ -61,8 +80,11 @@ public class ProjectileHelper {
         return new Vec3d(flatEncounter.x, hitHeight, flatEncounter.z);
     }
 
+    /**
+     * Where a projectile will be when it's closest to a position, following its simulated flight path.
+     */
     public static Vec3d calculateArrowClosestApproach(CachedProjectile projectile, Vec3d pos) {
-        return calculateArrowClosestApproach(projectile.position, projectile.velocity, projectile.gravity, pos);
+        return projectile.getClosestApproach(pos);
     }
 
     public static Vec3d calculateArrowClosestApproach(CachedProjectile projectile, ClientPlayerEntity player) {
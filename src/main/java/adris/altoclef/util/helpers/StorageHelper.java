@@ -10,6 +10,8 @@ import adris.altoclef.multiversion.versionedfields.Blocks;
 import adris.altoclef.tasks.CraftInInventoryTask;
 import adris.altoclef.trackers.storage.ItemStorageTracker;
 import adris.altoclef.util.CraftingRecipe;
+import adris.altoclef.util.FoodTable;
+import adris.altoclef.util.InventoryMemo;
 import adris.altoclef.util.ItemTarget;
 import adris.altoclef.util.MiningRequirement;
 import adris.altoclef.util.RecipeTarget;
@@ -44,6 +46,10 @@ public class StorageHelper {
     public static List<PlayerSlot> INACCESSIBLE_PLAYER_SLOTS = Stream.concat(Stream.of(PlayerSlot.CRAFT_INPUT_SLOTS), Stream.of(PlayerSlot.ARMOR_SLOTS)).toList();
     private static final int OFF_HAND_SLOT = 40;
 
+    // These get asked about every tick by some tasks, but only change when the inventory does.
+    private static final InventoryMemo<Integer> inventoryFoodScore = new InventoryMemo<>(StorageHelper::calculateInventoryFoodScoreUncached);
+    private static final InventoryMemo<Double> inventoryFuelCount = new InventoryMemo<>(() -> calculateInventoryFuelCountUncached(AltoClef.getInstance()));
+
     public static void closeScreen() {
         if (MinecraftClient.getInstance().player == null)
             return;
@@ -478,19 +484,26 @@ public class StorageHelper {
     }
 
     public static int calculateInventoryFoodScore() {
+        return inventoryFoodScore.get();
+    }
+
+    private static int calculateInventoryFoodScoreUncached() {
         ItemStorageTracker itemStorage = AltoClef.getInstance().getItemStorage();
 
         int result = 0;
-        if (!itemStorage.getItemStacksPlayerInventory(true).isEmpty()) {
-            for (ItemStack stack : itemStorage.getItemStacksPlayerInventory(true)) {
-                if (ItemVer.isFood(stack))
-                    result += Objects.requireNonNull(ItemVer.getFoodComponent(stack.getItem())).getHunger() * stack.getCount();
-            }
+        for (ItemStack stack : itemStorage.getItemStacksPlayerInventory(true)) {
+            int hunger = FoodTable.getHunger(stack);
+            if (hunger > 0)
+                result += hunger * stack.getCount();
         }
         return result;
     }
 
     public static double calculateInventoryFuelCount(AltoClef mod) {
+        return inventoryFuelCount.get();
+    }
+
+    private static double calculateInventoryFuelCountUncached(AltoClef mod) {
         double result = 0;
         if (!mod.getItemStorage().getItemStacksPlayerInventory(true).isEmpty()) {
             for (ItemStack stack : mod.getItemStorage().getItemStacksPlayerInventory(true)) {
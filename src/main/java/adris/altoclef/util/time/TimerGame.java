@@ -2,45 +2,22 @@ package adris.altoclef.util.time;
 
 import adris.altoclef.AltoClef;
 import adris.altoclef.Debug;
-import adris.altoclef.mixins.ClientConnectionAccessor;
-import net.minecraft.client.MinecraftClient;
-import net.minecraft.network.ClientConnection;
 
 // Simple timer
 public class TimerGame extends BaseTimer {
 
-    private ClientConnection lastConnection;
-
     public TimerGame(double intervalSeconds) {
         super(intervalSeconds);
     }
 
-    private static double getTime(ClientConnection connection) {
-        if (connection == null) return 0;
-        return (double) ((ClientConnectionAccessor) connection).getTicks() / 20.0;
-    }
-
     @Override
     protected double currentTime() {
         if (!AltoClef.inGame()) {
             Debug.logError("Running game timer while not in game.");
             return 0;
         }
-        // If we change connections, our game time will also be reset. In that case, offset our time to reflect that change.
-        ClientConnection currentConnection = null;
-        if (MinecraftClient.getInstance().getNetworkHandler() != null) {
-            currentConnection = MinecraftClient.getInstance().getNetworkHandler().getConnection();
-        }
-        if (currentConnection != lastConnection) {
-            if (lastConnection != null) {
-                double prevTimeTotal = getTime(lastConnection);
-                Debug.logInternal("(TimerGame: New connection detected, offsetting by " + prevTimeTotal + " seconds)");
-                setPrevTimeForce(getPrevTime() - prevTimeTotal);
-            }
-            lastConnection = currentConnection;
-        }
-        // Use ticks for timing. 20TPS is normal, if we go slower that's fine.
+        // Read once a tick by the timer wheel, which also takes care of reconnects resetting the connection's ticks.
         // Adding a "mod" argument here would be hell across the board. Not happening.
-        return getTime(currentConnection);
+        return TimerWheel.getGameSeconds();
     }
 }
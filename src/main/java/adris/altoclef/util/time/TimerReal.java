@@ -7,6 +7,7 @@ public class TimerReal extends BaseTimer {
 
     @Override
     protected double currentTime() {
-        return (double) System.currentTimeMillis() / 1000.0;
+        // Read once a tick by the timer wheel
+        return TimerWheel.getRealSeconds();
     }
 }
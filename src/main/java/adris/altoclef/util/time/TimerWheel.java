@@ -0,0 +1,285 @@
+package adris.altoclef.util.time;
+
+import adris.altoclef.Debug;
+import adris.altoclef.mixins.ClientConnectionAccessor;
+import adris.altoclef.util.DebugCounters;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.network.ClientConnection;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The one place that reads the clocks, once per client tick, and fires anything scheduled to run later.
+ * <p>
+ * {@link TimerGame} and {@link TimerReal} read the times cached here instead of going through the network handler or
+ * the system clock every time they're polled. Game time keeps counting up across reconnects, so timers don't need to
+ * notice connections changing themselves.
+ * <p>
+ * Callbacks are kept in a hierarchical hashed timer wheel on game ticks: 4 levels of 64 slots, each slot of a level
+ * spanning a whole turn of the level below it. Scheduling and cancelling are O(1), and a tick only looks at the one
+ * slot that's due (plus, every 64 ticks, moving one slot of the next level down). Anything further out than the wheel
+ * reaches (about 9 days) waits in the last level and gets placed again once it comes around.
+ * <p>
+ * Only used from the client thread, except for reading the cached times.
+ */
+public class TimerWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+    // Past this many ticks at once (ex. joining a world), re-place everything instead of turning the wheel tick by tick.
+    private static final long MAX_CATCH_UP_TICKS = SLOTS * SLOTS;
+
+    @SuppressWarnings("unchecked")
+    private static final List<Timeout>[][] wheel = new List[LEVELS][SLOTS];
+
+    private static final DebugCounters.Counter fired = DebugCounters.register("Timeouts fired");
+
+    private static long currentTick = 0;
+    private static int pendingCount = 0;
+
+    // Cached clocks
+    private static volatile double gameSeconds = 0;
+    private static volatile double realSeconds = (double) System.currentTimeMillis() / 1000.0;
+    private static volatile long gameTicks = 0;
+    private static ClientConnection lastConnection = null;
+    private static long lastConnectionTicks = 0;
+    private static long connectionTickOffset = 0;
+
+    static {
+        for (int level = 0; level < LEVELS; ++level) {
+            for (int slot = 0; slot < SLOTS; ++slot) {
+                wheel[level][slot] = new ArrayList<>();
+            }
+        }
+    }
+
+    /**
+     * Something scheduled to run later.
+     */
+    public static class Timeout {
+        private final String name;
+        private final Runnable callback;
+        private final long repeatTicks;
+        private long deadline;
+        private boolean cancelled = false;
+        private boolean done = false;
+
+        private Timeout(String name, Runnable callback, long deadline, long repeatTicks) {
+            this.name = name;
+            this.callback = callback;
+            this.deadline = deadline;
+            this.repeatTicks = repeatTicks;
+        }
+
+        public void cancel() {
+            if (isPending()) {
+                pendingCount--;
+            }
+            cancelled = true;
+        }
+
+        /**
+         * @return Whether this ran (for repeating ones, whether it ran at least once), without doing any time math.
+         */
+        public boolean isDone() {
+            return done;
+        }
+
+        public boolean isPending() {
+            return !cancelled && (!done || repeatTicks > 0);
+        }
+
+        public long getTicksRemaining() {
+            return Math.max(deadline - currentTick, 0);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (in " + getTicksRemaining() + " ticks" + (repeatTicks > 0 ? ", every " + repeatTicks : "") + ")";
+        }
+    }
+
+    /**
+     * Reads the clocks and fires whatever's due. Called once at the start of every client tick.
+     */
+    public static void tick() {
+        realSeconds = (double) System.currentTimeMillis() / 1000.0;
+
+        ClientConnection connection = null;
+        if (MinecraftClient.getInstance().getNetworkHandler() != null) {
+            connection = MinecraftClient.getInstance().getNetworkHandler().getConnection();
+        }
+        long connectionTicks = connection == null ? 0 : ((ClientConnectionAccessor) connection).getTicks();
+        if (connection != lastConnection) {
+            // A new connection counts its ticks from 0 again, keep going from where the last one stopped.
+            if (lastConnection != null) {
+                connectionTickOffset += lastConnectionTicks;
+                Debug.logInternal("(TimerWheel: New connection detected, offsetting by " + (double) lastConnectionTicks / 20.0 + " seconds)");
+            }
+            lastConnection = connection;
+        }
+        lastConnectionTicks = connectionTicks;
+        gameTicks = connectionTickOffset + connectionTicks;
+        // Use ticks for timing. 20TPS is normal, if we go slower that's fine.
+        gameSeconds = (double) gameTicks / 20.0;
+
+        advanceTo(gameTicks);
+    }
+
+    public static double getGameSeconds() {
+        return gameSeconds;
+    }
+
+    public static double getRealSeconds() {
+        return realSeconds;
+    }
+
+    public static long getGameTicks() {
+        return gameTicks;
+    }
+
+    /**
+     * Run {@code callback} once, {@code delayTicks} game ticks from now.
+     */
+    public static Timeout schedule(String name, long delayTicks, Runnable callback) {
+        Timeout timeout = new Timeout(name, callback, currentTick + Math.max(delayTicks, 1), 0);
+        pendingCount++;
+        place(timeout);
+        return timeout;
+    }
+
+    /**
+     * Run {@code callback} every {@code intervalTicks} game ticks, until cancelled.
+     */
+    public static Timeout scheduleRepeating(String name, long intervalTicks, Runnable callback) {
+        long interval = Math.max(intervalTicks, 1);
+        Timeout timeout = new Timeout(name, callback, currentTick + interval, interval);
+        pendingCount++;
+        place(timeout);
+        return timeout;
+    }
+
+    public static int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * Everything still waiting to run, soonest first. For debugging.
+     */
+    public static List<Timeout> getPending() {
+        List<Timeout> result = new ArrayList<>();
+        for (List<Timeout>[] level : wheel) {
+            for (List<Timeout> slot : level) {
+                for (Timeout timeout : slot) {
+                    if (!timeout.cancelled) result.add(timeout);
+                }
+            }
+        }
+        result.sort(Comparator.comparingLong(timeout -> timeout.deadline));
+        return result;
+    }
+
+    private static void place(Timeout timeout) {
+        long delay = timeout.deadline - currentTick;
+        if (delay <= 0) {
+            // Overdue, run on the next tick
+            wheel[0][(int) ((currentTick + 1) & SLOT_MASK)].add(timeout);
+            return;
+        }
+        long target = currentTick + Math.min(delay, MAX_DELAY);
+        for (int level = 0; level < LEVELS; ++level) {
+            if (delay < 1L << (SLOT_BITS * (level + 1)) || level == LEVELS - 1) {
+                wheel[level][(int) ((target >> (SLOT_BITS * level)) & SLOT_MASK)].add(timeout);
+                return;
+            }
+        }
+    }
+
+    private static void advanceTo(long tick) {
+        if (tick <= currentTick) return;
+        if (tick - currentTick > MAX_CATCH_UP_TICKS) {
+            // Skip ahead, re-placing whatever's left. Due ones land in the next tick's slot.
+            List<Timeout> all = takeAll();
+            currentTick = tick - 1;
+            for (Timeout timeout : all) {
+                place(timeout);
+            }
+        }
+        while (currentTick < tick) {
+            currentTick++;
+            // Move the next slot of each higher level down, from the top, once the level below has come around.
+            for (int level = LEVELS - 1; level > 0; --level) {
+                long mask = (1L << (SLOT_BITS * level)) - 1;
+                if ((currentTick & mask) == 0) {
+                    cascade(level, (int) ((currentTick >> (SLOT_BITS * level)) & SLOT_MASK));
+                }
+            }
+            fireSlot((int) (currentTick & SLOT_MASK));
+        }
+    }
+
+    private static void cascade(int level, int slot) {
+        List<Timeout> toPlace = wheel[level][slot];
+        if (toPlace.isEmpty()) return;
+        wheel[level][slot] = new ArrayList<>();
+        for (Timeout timeout : toPlace) {
+            if (timeout.cancelled) continue;
+            if (timeout.deadline <= currentTick) {
+                // Due right now, this tick's slot hasn't fired yet.
+                wheel[0][(int) (currentTick & SLOT_MASK)].add(timeout);
+            } else {
+                place(timeout);
+            }
+        }
+    }
+
+    private static void fireSlot(int slot) {
+        List<Timeout> due = wheel[0][slot];
+        if (due.isEmpty()) return;
+        wheel[0][slot] = new ArrayList<>();
+        for (Timeout timeout : due) {
+            if (timeout.cancelled) continue;
+            if (timeout.deadline > currentTick) {
+                // Was too far out for the wheel when placed
+                place(timeout);
+                continue;
+            }
+            timeout.done = true;
+            if (timeout.repeatTicks > 0) {
+                timeout.deadline = currentTick + timeout.repeatTicks;
+                place(timeout);
+            } else {
+                pendingCount--;
+            }
+            fired.increment();
+            try {
+                timeout.callback.run();
+            } catch (Exception e) {
+                Debug.logWarning("Scheduled \"" + timeout.name + "\" failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static List<Timeout> takeAll() {
+        List<Timeout> result = new ArrayList<>();
+        for (int level = 0; level < LEVELS; ++level) {
+            for (int slot = 0; slot < SLOTS; ++slot) {
+                for (Timeout timeout : wheel[level][slot]) {
+                    if (!timeout.cancelled) result.add(timeout);
+                }
+                wheel[level][slot] = new ArrayList<>();
+            }
+        }
+        return result;
+    }
+}